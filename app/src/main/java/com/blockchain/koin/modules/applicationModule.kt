@@ -5,6 +5,7 @@ import com.blockchain.balance.TotalBalance
 import com.blockchain.balance.plus
 import com.blockchain.kycui.settings.KycStatusHelper
 import com.blockchain.kycui.sunriver.SunriverCampaignHelper
+import com.blockchain.rx.SharedPoller
 import com.blockchain.ui.CurrentContextAccess
 import com.blockchain.ui.chooser.AccountListing
 import com.blockchain.ui.password.SecondPasswordHandler
@@ -47,6 +48,8 @@ import piuk.blockchain.androidcore.data.erc20.Erc20Account
 import piuk.blockchain.androidcore.data.erc20.PaxAccount
 import piuk.blockchain.androidcore.data.ethereum.EthDataManager
 import piuk.blockchain.androidcore.utils.PrngFixer
+import piuk.blockchain.androidcoreui.ApplicationLifeCycle
+import piuk.blockchain.androidcoreui.inForeground
 import piuk.blockchain.androidcoreui.utils.AppUtil
 import piuk.blockchain.androidcoreui.utils.DateUtil
 import java.util.Locale
@@ -74,6 +77,8 @@ val applicationModule = applicationContext {
 
     context("Payload") {
 
+        bean { SharedPoller(ApplicationLifeCycle.getInstance().inForeground()) }
+
         factory {
             EthDataManager(get(), get(), get(), get(), get(), get(), get(), get())
         }
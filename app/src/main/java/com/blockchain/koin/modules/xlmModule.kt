@@ -1,7 +1,9 @@
 package com.blockchain.koin.modules
 
 import com.blockchain.sunriver.XlmFeesFetcher
+import com.blockchain.sunriver.XlmTransactionFeeCache
 import org.koin.dsl.module.applicationContext
+import piuk.blockchain.android.sunriver.PrefsXlmTransactionFeeCache
 import piuk.blockchain.android.sunriver.XlmFeesFetcherAdapter
 
 val xlmModule = applicationContext {
@@ -10,4 +12,8 @@ val xlmModule = applicationContext {
             XlmFeesFetcherAdapter(get()) as XlmFeesFetcher
         }
     }
+
+    bean {
+        PrefsXlmTransactionFeeCache(get()) as XlmTransactionFeeCache
+    }
 }
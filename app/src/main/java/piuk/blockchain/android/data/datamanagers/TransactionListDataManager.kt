@@ -201,9 +201,8 @@ class TransactionListDataManager(
 
     private fun insertTransactionList(txList: MutableList<Displayable>) {
         val pendingTxs = getRemainingPendingTransactionList(txList)
-        clearTransactionList()
         txList.addAll(pendingTxs)
-        transactionListStore.insertTransactions(txList)
+        transactionListStore.replaceTransactions(txList)
     }
 
     /**
@@ -235,14 +234,22 @@ class TransactionListDataManager(
         offset: Int
     ): Observable<List<Displayable>> =
         Observable.fromCallable {
-            payloadManager.getAllTransactions(limit, offset)
-                .map { BtcDisplayable(it) }
+            val summaries = if (offset == 0) {
+                payloadManager.syncAllTransactions(limit)
+            } else {
+                payloadManager.getAllTransactions(limit, offset)
+            }
+            summaries.map { BtcDisplayable(it) }
         }
 
     private fun getLegacyObservable(limit: Int, offset: Int): Observable<List<Displayable>> =
         Observable.fromCallable {
-            payloadManager.getImportedAddressesTransactions(limit, offset)
-                .map { BtcDisplayable(it) }
+            val summaries = if (offset == 0) {
+                payloadManager.syncImportedAddressesTransactions(limit)
+            } else {
+                payloadManager.getImportedAddressesTransactions(limit, offset)
+            }
+            summaries.map { BtcDisplayable(it) }
         }
 
     private fun getAccountObservable(
@@ -251,8 +258,12 @@ class TransactionListDataManager(
         offset: Int
     ): Observable<List<Displayable>> =
         Observable.fromCallable {
-            payloadManager.getAccountTransactions(address, limit, offset)
-                .map { BtcDisplayable(it) }
+            val summaries = if (offset == 0) {
+                payloadManager.syncAccountTransactions(address, limit)
+            } else {
+                payloadManager.getAccountTransactions(address, limit, offset)
+            }
+            summaries.map { BtcDisplayable(it) }
         }
 
     private fun getEthereumObservable(): Observable<List<Displayable>> =
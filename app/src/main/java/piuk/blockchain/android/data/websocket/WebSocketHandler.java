@@ -13,6 +13,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import info.blockchain.balance.CryptoCurrency;
 import info.blockchain.wallet.exceptions.DecryptionException;
+import info.blockchain.wallet.payment.Payment;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -20,8 +21,13 @@ import org.json.JSONObject;
 import org.web3j.utils.Convert;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import io.reactivex.Completable;
@@ -29,6 +35,7 @@ import io.reactivex.Observable;
 import io.reactivex.ObservableSource;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.schedulers.Schedulers;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -62,6 +69,8 @@ import timber.log.Timber;
 class WebSocketHandler {
 
     private final static long RETRY_INTERVAL = 5 * 1000L;
+    // Websocket messages arriving within this window trigger a single refresh
+    private final static long REFRESH_WINDOW = 2 * 1000L;
     /**
      * Websocket status code as defined by <a href="http://tools.ietf.org/html/rfc6455#section-7.4">Section
      * 7.4 of RFC 6455</a>
@@ -81,6 +90,11 @@ class WebSocketHandler {
     private HashSet<String> btcSubHashSet = new HashSet<>();
     private HashSet<String> btcOnChangeHashSet = new HashSet<>();
     private HashSet<String> bchSubHashSet = new HashSet<>();
+    // Only needed until the next refresh from the server, which already includes these transactions
+    private Set<String> creditedBtcTxHashSet = Collections.synchronizedSet(new HashSet<>());
+    private Set<String> creditedBchTxHashSet = Collections.synchronizedSet(new HashSet<>());
+    private final WebSocketRefreshScheduler refreshScheduler =
+            new WebSocketRefreshScheduler(REFRESH_WINDOW, TimeUnit.MILLISECONDS, Schedulers.computation());
     private EnvironmentUrls environmentUrls;
     private CurrencyFormatManager currencyFormatManager;
     private Context context;
@@ -88,6 +102,7 @@ class WebSocketHandler {
     private WebSocket btcConnection, ethConnection, bchConnection;
     boolean connected;
     @Thunk PayloadDataManager payloadDataManager;
+    private Payment payment;
     @Thunk CompositeDisposable compositeDisposable = new CompositeDisposable();
     private RxBus rxBus;
     private AccessState accessState;
@@ -96,6 +111,7 @@ class WebSocketHandler {
     public WebSocketHandler(Context context,
                             OkHttpClient okHttpClient,
                             PayloadDataManager payloadDataManager,
+                            Payment payment,
                             EthDataManager ethDataManager,
                             BchDataManager bchDataManager,
                             NotificationManager notificationManager,
@@ -114,6 +130,7 @@ class WebSocketHandler {
         this.context = context;
         this.okHttpClient = okHttpClient;
         this.payloadDataManager = payloadDataManager;
+        this.payment = payment;
         this.ethDataManager = ethDataManager;
         this.bchDataManager = bchDataManager;
         this.notificationManager = notificationManager;
@@ -187,6 +204,9 @@ class WebSocketHandler {
      */
     public void stopPermanently() {
         stoppedDeliberately = true;
+        refreshScheduler.dispose();
+        creditedBtcTxHashSet.clear();
+        creditedBchTxHashSet.clear();
         stop();
     }
 
@@ -279,17 +299,72 @@ class WebSocketHandler {
     }
 
     private void updateBtcBalancesAndTransactions() {
-        payloadDataManager.updateAllBalances()
-                .andThen(payloadDataManager.updateAllTransactions())
-                .doOnComplete(this::sendBroadcast)
-                .subscribe(new IgnorableDefaultObserver<>());
+        refreshScheduler.schedule(CryptoCurrency.BTC,
+                payloadDataManager.updateAllBalances()
+                        .doOnComplete(creditedBtcTxHashSet::clear)
+                        .andThen(payloadDataManager.updateAllTransactions())
+                        .subscribeOn(Schedulers.io())
+                        .doOnComplete(this::sendBroadcast));
     }
 
     private void updateBchBalancesAndTransactions() {
-        bchDataManager.updateAllBalances()
-                .andThen(bchDataManager.getWalletTransactions(50, 0))
-                .doOnComplete(this::sendBroadcast)
-                .subscribe(new IgnorableDefaultObserver<>());
+        refreshScheduler.schedule(CryptoCurrency.BCH,
+                bchDataManager.updateAllBalances()
+                        .doOnComplete(creditedBchTxHashSet::clear)
+                        .andThen(bchDataManager.getWalletTransactions(50, 0))
+                        .ignoreElements()
+                        .subscribeOn(Schedulers.io())
+                        .doOnComplete(this::sendBroadcast));
+    }
+
+    /**
+     * Credits received funds to the cached balances straight away, so that balances read before
+     * the coalesced refresh completes are already up to date. Only used for transactions which
+     * spend none of our coins, as sent amounts are subtracted when the payment is made and the
+     * outputs of a transfer alone would overstate the balance.
+     */
+    private void creditBtcBalances(Map<String, Long> amounts) {
+        for (Map.Entry<String, Long> amount : amounts.entrySet()) {
+            try {
+                payloadDataManager.subtractAmountFromAddressBalance(amount.getKey(), -amount.getValue());
+            } catch (Exception e) {
+                // Not known to the balance map yet, the refresh will pick it up
+                Timber.d(e, "creditBtcBalances");
+            }
+        }
+    }
+
+    private void creditBchBalances(Map<String, Long> amounts) {
+        for (Map.Entry<String, Long> amount : amounts.entrySet()) {
+            try {
+                bchDataManager.subtractAmountFromAddressBalance(
+                        amount.getKey(), BigInteger.valueOf(-amount.getValue()));
+            } catch (Exception e) {
+                // Not known to the balance map yet, the refresh will pick it up
+                Timber.d(e, "creditBchBalances");
+            }
+        }
+    }
+
+    /**
+     * @return True if the transaction hasn't been credited before, as the same transaction can be
+     * reported for both a subscribed xpub and address
+     */
+    private static boolean isNewIncomingTransaction(Set<String> credited,
+                                                    JSONObject objX,
+                                                    long totalValue) throws JSONException {
+        return totalValue > 0L && objX.has("hash") && credited.add(objX.getString("hash"));
+    }
+
+    private static void addXpubAmount(Map<String, Long> amounts, JSONObject xpub, long value) {
+        if (xpub != null && xpub.has("m")) {
+            addAmount(amounts, xpub.optString("m"), value);
+        }
+    }
+
+    private static void addAmount(Map<String, Long> amounts, String key, long value) {
+        Long existing = amounts.get(key);
+        amounts.put(key, existing != null ? existing + value : value);
     }
 
     @Thunk
@@ -370,10 +445,14 @@ class WebSocketHandler {
             String op = (String) jsonObject.get("op");
             if (op.equals("utx") && jsonObject.has("x")) {
                 JSONObject objX = (JSONObject) jsonObject.get("x");
+                // Spent or received coins - cached unspent outputs are stale
+                payment.invalidateUnspentCoins(CryptoCurrency.BTC);
 
                 long value = 0L;
                 long totalValue = 0L;
                 String inAddr = null;
+                boolean spendsOwnCoins = false;
+                Map<String, Long> receivedAmounts = new HashMap<>();
 
                 if (objX.has("inputs")) {
                     JSONArray inputArray = (JSONArray) objX.get("inputs");
@@ -387,9 +466,11 @@ class WebSocketHandler {
                             }
                             if (prevOutObj.has("xpub")) {
                                 totalValue -= value;
+                                spendsOwnCoins = true;
                             } else if (prevOutObj.has("addr")) {
                                 if (payloadDataManager.getWallet().containsLegacyAddress((String) prevOutObj.get("addr"))) {
                                     totalValue -= value;
+                                    spendsOwnCoins = true;
                                 } else if (inAddr == null) {
                                     inAddr = (String) prevOutObj.get("addr");
                                 }
@@ -414,14 +495,21 @@ class WebSocketHandler {
                         }
                         if (outObj.has("xpub")) {
                             totalValue += value;
+                            addXpubAmount(receivedAmounts, outObj.optJSONObject("xpub"), value);
                         } else if (outObj.has("addr")) {
                             if (payloadDataManager.getWallet().containsLegacyAddress((String) outObj.get("addr"))) {
                                 totalValue += value;
+                                addAmount(receivedAmounts, (String) outObj.get("addr"), value);
                             }
                         }
                     }
                 }
 
+                if (!spendsOwnCoins && isNewIncomingTransaction(creditedBtcTxHashSet, objX, totalValue)) {
+                    creditBtcBalances(receivedAmounts);
+                    // Shows the credit without waiting for the refresh
+                    sendBroadcast();
+                }
                 updateBtcBalancesAndTransactions();
 
             } else if (op.equals("on_change")) {
@@ -459,10 +547,14 @@ class WebSocketHandler {
             String op = (String) jsonObject.get("op");
             if (op.equals("utx") && jsonObject.has("x")) {
                 JSONObject objX = (JSONObject) jsonObject.get("x");
+                // Spent or received coins - cached unspent outputs are stale
+                payment.invalidateUnspentCoins(CryptoCurrency.BCH);
 
                 long value = 0L;
                 long totalValue = 0L;
                 String inAddr = null;
+                boolean spendsOwnCoins = false;
+                Map<String, Long> receivedAmounts = new HashMap<>();
 
                 if (objX.has("inputs")) {
                     JSONArray inputArray = (JSONArray) objX.get("inputs");
@@ -476,10 +568,12 @@ class WebSocketHandler {
                             }
                             if (prevOutObj.has("xpub")) {
                                 totalValue -= value;
+                                spendsOwnCoins = true;
                             } else if (prevOutObj.has("addr")) {
                                 //noinspection RedundantCast
                                 if (bchDataManager.getLegacyAddressStringList().contains((String) prevOutObj.get("addr"))) {
                                     totalValue -= value;
+                                    spendsOwnCoins = true;
                                 } else if (inAddr == null) {
                                     inAddr = (String) prevOutObj.get("addr");
                                 }
@@ -504,10 +598,12 @@ class WebSocketHandler {
                         }
                         if (outObj.has("xpub")) {
                             totalValue += value;
+                            addXpubAmount(receivedAmounts, outObj.optJSONObject("xpub"), value);
                         } else if (outObj.has("addr")) {
                             //noinspection RedundantCast
                             if (bchDataManager.getLegacyAddressStringList().contains((String) outObj.get("addr"))) {
                                 totalValue += value;
+                                addAmount(receivedAmounts, (String) outObj.get("addr"), value);
                             }
                         }
                     }
@@ -527,6 +623,11 @@ class WebSocketHandler {
                     triggerNotification(title, marquee, text);
                 }
 
+                if (!spendsOwnCoins && isNewIncomingTransaction(creditedBchTxHashSet, objX, totalValue)) {
+                    creditBchBalances(receivedAmounts);
+                    // Shows the credit without waiting for the refresh
+                    sendBroadcast();
+                }
                 updateBchBalancesAndTransactions();
             }
         } catch (Exception e) {
@@ -0,0 +1,58 @@
+package piuk.blockchain.android.data.websocket;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import info.blockchain.balance.CryptoCurrency;
+import io.reactivex.Completable;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.Subject;
+import timber.log.Timber;
+
+/**
+ * Coalesces the balance and transaction refreshes triggered by websocket messages. Requests for
+ * the same currency within one window result in a single refresh, using the most recently
+ * requested {@link Completable}. A refresh which is still running when the next one starts is
+ * cancelled, as its result would be superseded anyway.
+ */
+class WebSocketRefreshScheduler {
+
+    private final long window;
+    private final TimeUnit unit;
+    private final Scheduler scheduler;
+    private final Map<CryptoCurrency, Subject<Completable>> requests =
+            new EnumMap<>(CryptoCurrency.class);
+    private final CompositeDisposable disposables = new CompositeDisposable();
+
+    WebSocketRefreshScheduler(long window, TimeUnit unit, Scheduler scheduler) {
+        this.window = window;
+        this.unit = unit;
+        this.scheduler = scheduler;
+    }
+
+    synchronized void schedule(CryptoCurrency cryptoCurrency, Completable refresh) {
+        Subject<Completable> subject = requests.get(cryptoCurrency);
+        if (subject == null) {
+            subject = PublishSubject.<Completable>create().toSerialized();
+            requests.put(cryptoCurrency, subject);
+            disposables.add(
+                    subject.throttleLast(window, unit, scheduler)
+                            .switchMapCompletable(completable -> completable
+                                    .doOnError(throwable -> Timber.e(throwable, "Refresh failed"))
+                                    .onErrorComplete())
+                            .subscribe());
+        }
+        subject.onNext(refresh);
+    }
+
+    /**
+     * Cancels pending and running refreshes.
+     */
+    synchronized void dispose() {
+        disposables.clear();
+        requests.clear();
+    }
+}
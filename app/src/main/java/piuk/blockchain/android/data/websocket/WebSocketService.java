@@ -11,6 +11,8 @@ import android.os.IBinder;
 import android.support.annotation.Nullable;
 import android.support.v4.content.LocalBroadcastManager;
 
+import info.blockchain.wallet.payment.Payment;
+
 import java.util.List;
 
 import javax.inject.Inject;
@@ -39,6 +41,7 @@ public class WebSocketService extends Service {
 
     private final IBinder binder = new LocalBinder();
     @Inject protected PayloadDataManager payloadDataManager;
+    @Inject protected Payment payment;
     @Inject protected EthDataManager ethDataManager;
     @Inject protected BchDataManager bchDataManager;
     @Inject protected PrefsUtil prefsUtil;
@@ -92,6 +95,7 @@ public class WebSocketService extends Service {
                 getApplicationContext(),
                 okHttpClient,
                 payloadDataManager,
+                payment,
                 ethDataManager,
                 bchDataManager,
                 notificationManager,
@@ -5,6 +5,7 @@ import com.blockchain.koin.KoinDaggerModule
 import dagger.Module
 import dagger.Provides
 import piuk.blockchain.androidcore.data.bitcoincash.BchDataStore
+import piuk.blockchain.androidcore.data.charts.ChartSeriesStore
 import piuk.blockchain.androidcore.data.contacts.datastore.ContactsMapStore
 import piuk.blockchain.androidcore.data.contacts.datastore.PendingTransactionListStore
 import piuk.blockchain.androidcore.data.ethereum.datastores.EthDataStore
@@ -64,6 +65,11 @@ class ContextModule(private val appContext: Context) : KoinDaggerModule() {
         return get(ExchangeRateDataStore::class)
     }
 
+    @Provides
+    fun provideChartSeriesStore(): ChartSeriesStore {
+        return get(ChartSeriesStore::class)
+    }
+
     @Provides
     fun providePrefsUtil(): PrefsUtil {
         return get(PrefsUtil::class)
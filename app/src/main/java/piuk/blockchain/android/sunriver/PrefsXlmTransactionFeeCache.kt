@@ -0,0 +1,51 @@
+package piuk.blockchain.android.sunriver
+
+import com.blockchain.sunriver.XlmTransactionFeeCache
+import piuk.blockchain.androidcore.utils.PersistentPrefs
+
+/**
+ * Keeps the fees of the most recently seen [MAX_ENTRIES] transactions in a single preference.
+ * Nothing is held in memory, so the cache goes along with the rest of the preferences on logout.
+ */
+internal class PrefsXlmTransactionFeeCache(
+    private val prefs: PersistentPrefs
+) : XlmTransactionFeeCache {
+
+    @Synchronized
+    override fun getFees(hashes: Collection<String>): Map<String, Long> =
+        load().filterKeys { it in hashes }
+
+    @Synchronized
+    override fun putFees(fees: Map<String, Long>) {
+        if (fees.isEmpty()) return
+        val entries = load()
+        fees.keys.forEach { entries.remove(it) }
+        entries.putAll(fees)
+        prefs.setValue(
+            KEY_XLM_TRANSACTION_FEES,
+            entries.entries
+                .drop(maxOf(0, entries.size - MAX_ENTRIES))
+                .joinToString(ENTRY_SEPARATOR) { "${it.key}$VALUE_SEPARATOR${it.value}" }
+        )
+    }
+
+    private fun load(): LinkedHashMap<String, Long> {
+        val map = LinkedHashMap<String, Long>()
+        prefs.getValue(KEY_XLM_TRANSACTION_FEES, "")
+            .split(ENTRY_SEPARATOR)
+            .forEach { entry ->
+                entry.substringAfter(VALUE_SEPARATOR, "").toLongOrNull()?.let {
+                    map[entry.substringBefore(VALUE_SEPARATOR)] = it
+                }
+            }
+        return map
+    }
+
+    companion object {
+
+        private const val MAX_ENTRIES = 500
+        private const val KEY_XLM_TRANSACTION_FEES = "XLM_TRANSACTION_FEES"
+        private const val ENTRY_SEPARATOR = ","
+        private const val VALUE_SEPARATOR = "="
+    }
+}
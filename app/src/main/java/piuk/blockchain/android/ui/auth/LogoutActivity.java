@@ -9,6 +9,7 @@ import com.blockchain.kyc.datamanagers.nabu.NabuDataManager;
 import piuk.blockchain.androidcore.data.bitcoincash.BchDataManager;
 import piuk.blockchain.androidcore.data.erc20.Erc20Account;
 import piuk.blockchain.androidcore.data.ethereum.EthDataManager;
+import piuk.blockchain.androidcore.data.metadata.MetadataManager;
 import piuk.blockchain.android.data.websocket.WebSocketService;
 import piuk.blockchain.android.injection.Injector;
 import piuk.blockchain.android.ui.dashboard.DashboardPresenter;
@@ -32,6 +33,7 @@ public class LogoutActivity extends AppCompatActivity {
     @Inject protected ShapeShiftDataManager shapeShiftDataManager;
     @Inject protected CoinifyDataManager coinifyDataManager;
     @Inject protected NabuDataManager nabuDataManager;
+    @Inject protected MetadataManager metadataManager;
     @Inject protected OSUtil osUtil;
 
     {
@@ -64,6 +66,7 @@ public class LogoutActivity extends AppCompatActivity {
                 shapeShiftDataManager.clearShapeShiftData();
                 coinifyDataManager.clearAccessToken();
                 nabuDataManager.clearAccessToken();
+                metadataManager.clearCachedMetadata();
                 DashboardPresenter.onLogout();
 
                 buyConditions.wipe();
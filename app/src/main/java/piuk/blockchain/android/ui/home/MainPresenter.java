@@ -13,15 +13,21 @@ import com.blockchain.kycui.settings.KycStatusHelper;
 import com.blockchain.kycui.sunriver.SunriverCampaignHelper;
 import com.blockchain.kycui.sunriver.SunriverCardType;
 import com.blockchain.lockbox.data.LockboxDataManager;
+import com.blockchain.nabu.metadata.NabuCredentialsMetadata;
 import com.blockchain.preferences.FiatCurrencyPreference;
 import com.blockchain.sunriver.XlmDataManager;
 
 import info.blockchain.balance.CryptoCurrency;
+import info.blockchain.wallet.BitcoinCashWallet;
 import info.blockchain.wallet.api.Environment;
+import info.blockchain.wallet.ethereum.EthereumWallet;
 import info.blockchain.wallet.exceptions.HDWalletException;
 import info.blockchain.wallet.exceptions.InvalidCredentialsException;
 import info.blockchain.wallet.payload.PayloadManagerWiper;
+import info.blockchain.wallet.shapeshift.ShapeShiftTrades;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 import javax.inject.Inject;
@@ -71,6 +77,18 @@ import timber.log.Timber;
 
 public class MainPresenter extends BasePresenter<MainView> {
 
+    /**
+     * Metadata read while setting up the wallet, fetched together as soon as the metadata nodes
+     * are available
+     */
+    private static final List<Integer> PREFETCHED_METADATA_TYPES = Arrays.asList(
+            EthereumWallet.METADATA_TYPE_EXTERNAL,
+            BitcoinCashWallet.METADATA_TYPE_EXTERNAL,
+            ShapeShiftTrades.METADATA_TYPE_EXTERNAL,
+            NabuCredentialsMetadata.USER_CREDENTIALS_METADATA_NODE,
+            XlmDataManager.METADATA_TYPE,
+            LockboxDataManager.METADATA_TYPE);
+
     private PersistentPrefs prefs;
     private AppUtil appUtil;
     private AccessState accessState;
@@ -277,6 +295,7 @@ public class MainPresenter extends BasePresenter<MainView> {
     @SuppressLint("CheckResult")
     void initMetadataElements() {
         metadataManager.attemptMetadataSetup()
+                .andThen(metadataManager.prefetchMetadata(PREFETCHED_METADATA_TYPES))
                 .compose(RxUtil.addCompletableToCompositeDisposable(this))
                 .andThen(exchangeRateCompletable())
                 .andThen(ethCompletable())
@@ -89,7 +89,7 @@ class TransactionListDataManagerTest : RxTest() {
         summary.outputsMap = HashMap()
         summary.time = 1000000L
         val transactionSummaries = listOf(summary)
-        `when`(payloadManager.getAllTransactions(0, 0)).thenReturn(transactionSummaries)
+        `when`(payloadManager.syncAllTransactions(0)).thenReturn(transactionSummaries)
         val itemAccount = ItemAccount()
         itemAccount.accountObject = account
         itemAccount.type = ItemAccount.TYPE.ALL_ACCOUNTS_AND_LEGACY
@@ -117,7 +117,7 @@ class TransactionListDataManagerTest : RxTest() {
         summary.outputsMap = HashMap()
         summary.time = 1000000L
         val transactionSummaries = listOf(summary)
-        `when`(payloadManager.getImportedAddressesTransactions(0, 0)).thenReturn(transactionSummaries)
+        `when`(payloadManager.syncImportedAddressesTransactions(0)).thenReturn(transactionSummaries)
         val itemAccount = ItemAccount()
         itemAccount.accountObject = account
         itemAccount.type = ItemAccount.TYPE.ALL_LEGACY
@@ -148,7 +148,7 @@ class TransactionListDataManagerTest : RxTest() {
         summary.outputsMap = HashMap()
         summary.time = 1000000L
         val transactionSummaries = listOf(summary)
-        `when`(payloadManager.getAccountTransactions(xPub, 0, 0)).thenReturn(transactionSummaries)
+        `when`(payloadManager.syncAccountTransactions(xPub, 0)).thenReturn(transactionSummaries)
         val itemAccount = ItemAccount()
         itemAccount.accountObject = account
         itemAccount.type = ItemAccount.TYPE.SINGLE_ACCOUNT
@@ -162,6 +162,34 @@ class TransactionListDataManagerTest : RxTest() {
         testObserver.assertNoErrors()
     }
 
+    @Test
+    @Throws(Exception::class)
+    fun fetchTransactionsAccountTagAllNextPage() {
+        // Arrange
+        val account = Account()
+        val summary = TransactionSummary()
+        summary.confirmations = 3
+        summary.direction = TransactionSummary.Direction.RECEIVED
+        summary.fee = BigInteger.ONE
+        summary.total = BigInteger.TEN
+        summary.hash = "hash"
+        summary.inputsMap = HashMap()
+        summary.outputsMap = HashMap()
+        summary.time = 1000000L
+        val transactionSummaries = listOf(summary)
+        `when`(payloadManager.getAllTransactions(50, 50)).thenReturn(transactionSummaries)
+        val itemAccount = ItemAccount()
+        itemAccount.accountObject = account
+        itemAccount.type = ItemAccount.TYPE.ALL_ACCOUNTS_AND_LEGACY
+        `when`(currencyState.cryptoCurrency).thenReturn(CryptoCurrency.BTC)
+        // Act
+        val testObserver = subject.fetchTransactions(itemAccount, 50, 50).test()
+        // Assert
+        verify(payloadManager).getAllTransactions(50, 50)
+        testObserver.assertComplete()
+        testObserver.assertNoErrors()
+    }
+
     @Test
     @Throws(Exception::class)
     fun fetchTransactionsAccountNoXpub() {
@@ -178,7 +206,7 @@ class TransactionListDataManagerTest : RxTest() {
         summary.outputsMap = HashMap()
         summary.time = 1000000L
         val transactionSummaries = listOf(summary)
-        `when`(payloadManager.getImportedAddressesTransactions(0, 0)).thenReturn(transactionSummaries)
+        `when`(payloadManager.syncImportedAddressesTransactions(0)).thenReturn(transactionSummaries)
         val itemAccount = ItemAccount()
         itemAccount.accountObject = account
         itemAccount.type = ItemAccount.TYPE.ALL_LEGACY
@@ -232,7 +260,7 @@ class TransactionListDataManagerTest : RxTest() {
     @Test
     fun clearTransactionList() {
         // Arrange
-        transactionListStore.list.add(mock(Displayable::class.java))
+        transactionListStore.insertTransactionIntoListAndSort(mock(Displayable::class.java))
         // Act
         subject.clearTransactionList()
         // Assert
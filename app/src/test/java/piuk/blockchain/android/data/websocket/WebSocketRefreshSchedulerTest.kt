@@ -0,0 +1,82 @@
+package piuk.blockchain.android.data.websocket
+
+import info.blockchain.balance.CryptoCurrency
+import io.reactivex.Completable
+import io.reactivex.schedulers.TestScheduler
+import io.reactivex.subjects.CompletableSubject
+import org.amshove.kluent.`should equal`
+import org.junit.Test
+import java.util.concurrent.TimeUnit
+
+class WebSocketRefreshSchedulerTest {
+
+    private val scheduler = TestScheduler()
+    private val subject = WebSocketRefreshScheduler(2, TimeUnit.SECONDS, scheduler)
+    private val refreshes = mutableListOf<String>()
+
+    private fun refresh(name: String) = Completable.fromAction { refreshes.add(name) }
+
+    @Test
+    fun `burst of messages results in a single refresh`() {
+        repeat(10) { subject.schedule(CryptoCurrency.BTC, refresh("btc$it")) }
+
+        refreshes `should equal` emptyList<String>()
+        scheduler.advanceTimeBy(2, TimeUnit.SECONDS)
+
+        refreshes `should equal` listOf("btc9")
+    }
+
+    @Test
+    fun `currencies are refreshed independently`() {
+        subject.schedule(CryptoCurrency.BTC, refresh("btc"))
+        subject.schedule(CryptoCurrency.BCH, refresh("bch"))
+
+        scheduler.advanceTimeBy(2, TimeUnit.SECONDS)
+
+        refreshes.sorted() `should equal` listOf("bch", "btc")
+    }
+
+    @Test
+    fun `messages in later windows refresh again`() {
+        subject.schedule(CryptoCurrency.BTC, refresh("first"))
+        scheduler.advanceTimeBy(2, TimeUnit.SECONDS)
+        subject.schedule(CryptoCurrency.BTC, refresh("second"))
+        scheduler.advanceTimeBy(2, TimeUnit.SECONDS)
+
+        refreshes `should equal` listOf("first", "second")
+    }
+
+    @Test
+    fun `running refresh is cancelled by the next one`() {
+        val inFlight = CompletableSubject.create()
+        var cancelled = false
+        subject.schedule(CryptoCurrency.BTC, inFlight.doOnDispose { cancelled = true })
+        scheduler.advanceTimeBy(2, TimeUnit.SECONDS)
+
+        subject.schedule(CryptoCurrency.BTC, refresh("next"))
+        scheduler.advanceTimeBy(2, TimeUnit.SECONDS)
+
+        cancelled `should equal` true
+        refreshes `should equal` listOf("next")
+    }
+
+    @Test
+    fun `failed refresh doesn't stop later refreshes`() {
+        subject.schedule(CryptoCurrency.BTC, Completable.error(RuntimeException()))
+        scheduler.advanceTimeBy(2, TimeUnit.SECONDS)
+        subject.schedule(CryptoCurrency.BTC, refresh("next"))
+        scheduler.advanceTimeBy(2, TimeUnit.SECONDS)
+
+        refreshes `should equal` listOf("next")
+    }
+
+    @Test
+    fun `dispose cancels pending refreshes`() {
+        subject.schedule(CryptoCurrency.BTC, refresh("btc"))
+        subject.dispose()
+
+        scheduler.advanceTimeBy(2, TimeUnit.SECONDS)
+
+        refreshes `should equal` emptyList<String>()
+    }
+}
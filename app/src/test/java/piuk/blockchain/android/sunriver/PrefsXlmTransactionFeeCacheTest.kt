@@ -0,0 +1,50 @@
+package piuk.blockchain.android.sunriver
+
+import com.nhaarman.mockito_kotlin.any
+import com.nhaarman.mockito_kotlin.doAnswer
+import com.nhaarman.mockito_kotlin.eq
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.whenever
+import org.amshove.kluent.`should equal`
+import org.junit.Test
+import piuk.blockchain.androidcore.utils.PersistentPrefs
+
+class PrefsXlmTransactionFeeCacheTest {
+
+    private var stored = ""
+
+    private val prefs = mock<PersistentPrefs>().apply {
+        whenever(getValue(any(), eq(""))).thenAnswer { stored }
+        doAnswer { stored = it.getArgument(1); null }.whenever(this).setValue(any(), any<String>())
+    }
+
+    private val subject = PrefsXlmTransactionFeeCache(prefs)
+
+    @Test
+    fun `empty cache has no fees`() {
+        subject.getFees(listOf("HASH")) `should equal` emptyMap()
+    }
+
+    @Test
+    fun `returns only the requested fees`() {
+        subject.putFees(mapOf("HASH1" to 100L, "HASH2" to 200L))
+
+        subject.getFees(listOf("HASH2", "HASH3")) `should equal` mapOf("HASH2" to 200L)
+    }
+
+    @Test
+    fun `fees are read back from the preference`() {
+        subject.putFees(mapOf("HASH1" to 100L))
+
+        PrefsXlmTransactionFeeCache(prefs).getFees(listOf("HASH1")) `should equal` mapOf("HASH1" to 100L)
+    }
+
+    @Test
+    fun `oldest fees are dropped once full`() {
+        subject.putFees((1..500).associate { "HASH$it" to it.toLong() })
+        subject.putFees(mapOf("HASH1" to 1L, "NEW" to 1000L))
+
+        subject.getFees(listOf("HASH1", "HASH2", "HASH3", "NEW")) `should equal`
+            mapOf("HASH1" to 1L, "HASH3" to 3L, "NEW" to 1000L)
+    }
+}
@@ -1,8 +1,16 @@
 package com.blockchain.nabu
 
+import com.blockchain.rx.SharedPoller
+import io.reactivex.Observable
 import io.reactivex.Single
 
 interface CurrentTier {
 
     fun usersCurrentTier(): Single<Int>
-}
\ No newline at end of file
+}
+
+/**
+ * The user's tier, refreshed on the one stream shared by every screen that polls it.
+ */
+fun CurrentTier.pollUsersCurrentTier(poller: SharedPoller): Observable<Int> =
+    poller.poll(CurrentTier::class) { usersCurrentTier() }
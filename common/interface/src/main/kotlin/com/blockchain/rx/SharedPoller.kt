@@ -0,0 +1,69 @@
+package com.blockchain.rx
+
+import io.reactivex.Observable
+import io.reactivex.Scheduler
+import io.reactivex.Single
+import io.reactivex.schedulers.Schedulers
+import java.util.concurrent.TimeUnit
+
+/**
+ * Polls each resource on one shared stream, no matter how many screens are watching it.
+ *
+ * A resource is polled every [interval] while the app is in the foreground, and every [backgroundInterval] while
+ * [inForeground] says it is not. Polling starts with the first subscriber and stops after the last one leaves, at which
+ * point the resource is forgotten. The last value is replayed to new subscribers, and failed polls are skipped until
+ * the next tick.
+ */
+class SharedPoller(
+    private val inForeground: Observable<Boolean>,
+    private val interval: Long = 1,
+    private val backgroundInterval: Long = 10,
+    private val unit: TimeUnit = TimeUnit.MINUTES,
+    private val scheduler: Scheduler = Schedulers.computation()
+) {
+
+    private val polls = HashMap<Any, Observable<*>>()
+
+    /**
+     * @param key Identifies the resource, all subscribers with an equal key share the same stream and must ask for
+     * the same type.
+     * @param source Reads the resource once. Only used by the first subscriber for a given [key] while it is being
+     * polled.
+     */
+    @Suppress("UNCHECKED_CAST")
+    @Synchronized
+    fun <T> poll(key: Any, source: () -> Single<T>): Observable<T> =
+        polls.getOrPut(key) { createPoll(key, source) } as Observable<T>
+
+    @Synchronized
+    private fun release(key: Any, poll: Observable<*>) {
+        if (polls[key] === poll) {
+            polls.remove(key)
+        }
+    }
+
+    private fun <T> createPoll(key: Any, source: () -> Single<T>): Observable<T> {
+        lateinit var poll: Observable<T>
+        poll = inForeground
+            .startWith(true)
+            .distinctUntilChanged()
+            .switchMap { foreground ->
+                if (foreground) {
+                    // Coming back to the foreground refreshes straight away
+                    Observable.interval(0, interval, unit, scheduler)
+                } else {
+                    Observable.interval(backgroundInterval, backgroundInterval, unit, scheduler)
+                }
+            }
+            .concatMapMaybe {
+                Single.defer(source)
+                    .toMaybe()
+                    .onErrorComplete()
+            }
+            // Runs when the last subscriber leaves, so the source and anything it holds aren't kept
+            .doFinally { release(key, poll) }
+            .replay(1)
+            .refCount()
+        return poll
+    }
+}
@@ -0,0 +1,149 @@
+package com.blockchain.rx
+
+import io.reactivex.Single
+import io.reactivex.schedulers.TestScheduler
+import io.reactivex.subjects.PublishSubject
+import org.amshove.kluent.`should equal`
+import org.junit.Test
+import java.util.concurrent.TimeUnit
+
+class SharedPollerTest {
+
+    private val scheduler = TestScheduler()
+    private val inForeground = PublishSubject.create<Boolean>()
+
+    private val subject = SharedPoller(
+        inForeground = inForeground,
+        interval = 1,
+        backgroundInterval = 10,
+        unit = TimeUnit.MINUTES,
+        scheduler = scheduler
+    )
+
+    private var calls = 0
+
+    private val source = { Single.fromCallable { ++calls } }
+
+    @Test
+    fun `polls straight away`() {
+        val test = subject.poll("KEY", source).test()
+
+        scheduler.triggerActions()
+
+        test.assertValues(1)
+    }
+
+    @Test
+    fun `polls each interval`() {
+        val test = subject.poll("KEY", source).test()
+
+        scheduler.advanceTimeBy(2, TimeUnit.MINUTES)
+
+        test.assertValues(1, 2, 3)
+    }
+
+    @Test
+    fun `subscribers to the same key share one poll`() {
+        val test1 = subject.poll("KEY", source).test()
+        val test2 = subject.poll("KEY", source).test()
+
+        scheduler.advanceTimeBy(1, TimeUnit.MINUTES)
+
+        test1.assertValues(1, 2)
+        test2.assertValues(1, 2)
+        calls `should equal` 2
+    }
+
+    @Test
+    fun `late subscriber gets the last value`() {
+        subject.poll("KEY", source).test()
+        scheduler.triggerActions()
+
+        subject.poll("KEY", source).test()
+            .assertValues(1)
+        calls `should equal` 1
+    }
+
+    @Test
+    fun `different keys are polled separately`() {
+        val test1 = subject.poll("KEY1", source).test()
+        val test2 = subject.poll("KEY2") { Single.just("A") }.test()
+
+        scheduler.triggerActions()
+
+        test1.assertValues(1)
+        test2.assertValues("A")
+    }
+
+    @Test
+    fun `stops polling when the last subscriber leaves`() {
+        val test1 = subject.poll("KEY", source).test()
+        val test2 = subject.poll("KEY", source).test()
+        scheduler.triggerActions()
+
+        test1.dispose()
+        scheduler.advanceTimeBy(1, TimeUnit.MINUTES)
+        calls `should equal` 2
+
+        test2.dispose()
+        scheduler.advanceTimeBy(10, TimeUnit.MINUTES)
+        calls `should equal` 2
+    }
+
+    @Test
+    fun `source is forgotten when the last subscriber leaves`() {
+        subject.poll("KEY", source).test()
+            .apply { scheduler.triggerActions() }
+            .dispose()
+
+        val test = subject.poll("KEY") { Single.just(100) }.test()
+        scheduler.triggerActions()
+
+        test.assertValues(100)
+        calls `should equal` 1
+    }
+
+    @Test
+    fun `backs off in the background`() {
+        val test = subject.poll("KEY", source).test()
+        scheduler.triggerActions()
+
+        inForeground.onNext(false)
+        scheduler.advanceTimeBy(9, TimeUnit.MINUTES)
+        test.assertValues(1)
+
+        scheduler.advanceTimeBy(1, TimeUnit.MINUTES)
+        test.assertValues(1, 2)
+    }
+
+    @Test
+    fun `polls straight away on coming back to the foreground`() {
+        val test = subject.poll("KEY", source).test()
+        scheduler.triggerActions()
+        inForeground.onNext(false)
+        scheduler.advanceTimeBy(5, TimeUnit.MINUTES)
+
+        inForeground.onNext(true)
+        scheduler.triggerActions()
+
+        test.assertValues(1, 2)
+    }
+
+    @Test
+    fun `failed poll is skipped`() {
+        var fail = true
+        val test = subject.poll("KEY") {
+            if (fail) {
+                fail = false
+                Single.error(RuntimeException())
+            } else {
+                Single.just("A")
+            }
+        }.test()
+
+        scheduler.advanceTimeBy(1, TimeUnit.MINUTES)
+
+        test.assertNoErrors()
+            .assertValues("A")
+    }
+}
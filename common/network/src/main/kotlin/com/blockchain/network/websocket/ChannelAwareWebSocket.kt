@@ -2,12 +2,20 @@ package com.blockchain.network.websocket
 
 import com.blockchain.serialization.JsonSerializable
 import com.squareup.moshi.JsonAdapter
+import com.squareup.moshi.JsonReader
 import com.squareup.moshi.Moshi
 import io.reactivex.Observable
 import io.reactivex.subjects.PublishSubject
+import okio.Buffer
 
 interface ChannelAwareWebSocket {
     fun openChannel(name: String, params: JsonSerializable? = null): WebSocketChannel<String>
+
+    /**
+     * Messages for the named channel, without subscribing to it. Shares the parsing of incoming
+     * frames with the open channels.
+     */
+    fun channelMessages(name: String, throwErrors: Boolean = true): WebSocketReceive<String>
 }
 
 interface WebSocketChannel<INCOMING> : WebSocketReceive<INCOMING> {
@@ -20,23 +28,27 @@ private class WebSocketChannelAdapter(private val underlingSocket: StringWebSock
     private val outAdapter = Moshi.Builder()
         .build().adapter(SubscribeUnsubscribeJson::class.java)
 
+    private val demultiplexer = ChannelDemultiplexer(underlingSocket)
+
     override fun openChannel(name: String, params: JsonSerializable?): WebSocketChannel<String> {
         underlingSocket.send(outAdapter.toJson(SubscribeUnsubscribeJson(name, "subscribe", params)))
-        return underlingSocket.asChannel(name, outAdapter)
+        return underlingSocket.asChannel(name, demultiplexer.channel(name, throwErrors = true), outAdapter)
     }
+
+    override fun channelMessages(name: String, throwErrors: Boolean): WebSocketReceive<String> =
+        demultiplexer.channel(name, throwErrors)
 }
 
 class ErrorFromServer(val fullJson: String) : Exception("Server returned error")
 
 private fun StringWebSocket.asChannel(
     name: String,
+    channelMessages: WebSocketReceive<String>,
     outAdapter: JsonAdapter<SubscribeUnsubscribeJson>
 ): WebSocketChannel<String> {
 
     return object : WebSocketChannel<String> {
 
-        val channelMessageFilter = this@asChannel.channelMessageFilter(name, throwErrors = true)
-
         private val closed = PublishSubject.create<Any>()
 
         override fun close(params: JsonSerializable?) {
@@ -45,7 +57,7 @@ private fun StringWebSocket.asChannel(
         }
 
         override val responses: Observable<String>
-            get() = channelMessageFilter.responses.takeUntil(closed)
+            get() = channelMessages.responses.takeUntil(closed)
     }
 }
 
@@ -58,32 +70,94 @@ fun WebSocketReceive<String>.channelMessageFilter(name: String, throwErrors: Boo
 
         override val responses: Observable<String>
             get() = this@channelMessageFilter.responses.filter { json ->
-                incomingAdapter.fromJson(json)
-                    ?.let {
-                        it.channel == name &&
-                            it.event != "subscribed" &&
-                            it.event != "unsubscribed" &&
-                            !handleError(it, json)
-                    } ?: false
+                ChannelFrame.peek(json).isMessageFor(name, throwErrors)
             }
+    }
+}
+
+/**
+ * Reads the channel and event of each incoming frame once, however many channels are listening,
+ * and passes the raw frame on to the channels it belongs to.
+ */
+internal class ChannelDemultiplexer(private val source: WebSocketReceive<String>) {
+
+    private val frames: Observable<ChannelFrame> by lazy {
+        source.responses
+            .map { ChannelFrame.peek(it) }
+            .share()
+    }
 
-        private fun handleError(message: IncomingMessage, json: String): Boolean {
-            return when {
-                message.event != "error" -> false
-                throwErrors -> throw ErrorFromServer(json)
-                else -> true
+    fun channel(name: String, throwErrors: Boolean): WebSocketReceive<String> =
+        object : WebSocketReceive<String> {
+            override val responses: Observable<String>
+                get() = frames
+                    .filter { it.isMessageFor(name, throwErrors) }
+                    .map { it.json }
+        }
+}
+
+/**
+ * The routing fields of a frame, read with a streaming reader which stops as soon as both have
+ * been found rather than parsing the whole message.
+ */
+internal class ChannelFrame(
+    val channel: String?,
+    val event: String?,
+    val json: String
+) {
+
+    fun isMessageFor(name: String, throwErrors: Boolean): Boolean =
+        channel == name &&
+            event != "subscribed" &&
+            event != "unsubscribed" &&
+            !handleError(throwErrors)
+
+    private fun handleError(throwErrors: Boolean): Boolean {
+        return when {
+            event != "error" -> false
+            throwErrors -> throw ErrorFromServer(json)
+            else -> true
+        }
+    }
+
+    companion object {
+
+        private val names = JsonReader.Options.of("channel", "event")
+
+        fun peek(json: String): ChannelFrame {
+            var channel: String? = null
+            var event: String? = null
+            val reader = JsonReader.of(Buffer().writeUtf8(json))
+            try {
+                if (reader.peek() == JsonReader.Token.BEGIN_OBJECT) {
+                    reader.beginObject()
+                    while ((channel == null || event == null) && reader.hasNext()) {
+                        when (reader.selectName(names)) {
+                            0 -> channel = reader.nextStringOrNull()
+                            1 -> event = reader.nextStringOrNull()
+                            else -> {
+                                reader.nextName()
+                                reader.skipValue()
+                            }
+                        }
+                    }
+                }
+            } finally {
+                reader.close()
             }
+            return ChannelFrame(channel, event, json)
         }
 
-        private val incomingAdapter = Moshi.Builder().build().adapter(IncomingMessage::class.java)
+        private fun JsonReader.nextStringOrNull(): String? =
+            if (peek() == JsonReader.Token.STRING) {
+                nextString()
+            } else {
+                skipValue()
+                null
+            }
     }
 }
 
-private class IncomingMessage(
-    val channel: String,
-    val event: String
-) : JsonSerializable
-
 private class SubscribeUnsubscribeJson(
     @Suppress("unused") val channel: String,
     @Suppress("unused") val action: String,
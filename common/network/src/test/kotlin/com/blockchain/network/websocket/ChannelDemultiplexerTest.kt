@@ -0,0 +1,98 @@
+package com.blockchain.network.websocket
+
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.times
+import com.nhaarman.mockito_kotlin.verify
+import io.reactivex.subjects.PublishSubject
+import org.amshove.kluent.`it returns`
+import org.amshove.kluent.`should equal`
+import org.junit.Test
+
+class ChannelDemultiplexerTest {
+
+    @Test
+    fun `channel and event are read`() {
+        ChannelFrame.peek("{\"seqnum\":1,\"channel\":\"A\",\"event\":\"snapshot\",\"quote\":{\"x\":[1,2]}}")
+            .apply {
+                channel `should equal` "A"
+                event `should equal` "snapshot"
+            }
+    }
+
+    @Test
+    fun `fields after nested values are read`() {
+        ChannelFrame.peek("{\"rates\":[{\"pair\":\"BTC-USD\",\"channel\":\"B\"}],\"channel\":\"A\"}")
+            .apply {
+                channel `should equal` "A"
+                event `should equal` null
+            }
+    }
+
+    @Test
+    fun `non-object frames have no channel`() {
+        ChannelFrame.peek("null").channel `should equal` null
+        ChannelFrame.peek("[\"channel\"]").channel `should equal` null
+    }
+
+    @Test
+    fun `non-string channel is ignored`() {
+        ChannelFrame.peek("{\"channel\":{\"name\":\"A\"},\"event\":null}")
+            .apply {
+                channel `should equal` null
+                event `should equal` null
+            }
+    }
+
+    @Test
+    fun `each frame is routed to its channel`() {
+        val subject = PublishSubject.create<String>()
+        val demultiplexer = ChannelDemultiplexer(mock {
+            on { responses } `it returns` subject
+        })
+
+        val a = demultiplexer.channel("A", throwErrors = true).responses.test()
+        val b = demultiplexer.channel("B", throwErrors = true).responses.test()
+
+        subject.onNext("{\"channel\":\"A\",\"event\":\"subscribed\"}")
+        subject.onNext("{\"channel\":\"A\",\"n\":1}")
+        subject.onNext("{\"channel\":\"B\",\"n\":2}")
+        subject.onNext("{\"channel\":\"C\",\"n\":3}")
+
+        a.values() `should equal` listOf("{\"channel\":\"A\",\"n\":1}")
+        b.values() `should equal` listOf("{\"channel\":\"B\",\"n\":2}")
+    }
+
+    @Test
+    fun `source is subscribed to once for all channels`() {
+        val subject = PublishSubject.create<String>()
+        val source = mock<WebSocketReceive<String>> {
+            on { responses } `it returns` subject
+        }
+        val demultiplexer = ChannelDemultiplexer(source)
+
+        demultiplexer.channel("A", throwErrors = true).responses.test()
+        demultiplexer.channel("B", throwErrors = true).responses.test()
+        demultiplexer.channel("C", throwErrors = false).responses.test()
+
+        verify(source, times(1)).responses
+        subject.hasObservers() `should equal` true
+    }
+
+    @Test
+    fun `an error only fails the channel it was for`() {
+        val subject = PublishSubject.create<String>()
+        val demultiplexer = ChannelDemultiplexer(mock {
+            on { responses } `it returns` subject
+        })
+
+        val a = demultiplexer.channel("A", throwErrors = true).responses.test()
+        val b = demultiplexer.channel("B", throwErrors = true).responses.test()
+
+        subject.onNext("{\"channel\":\"A\",\"event\":\"error\"}")
+        subject.onNext("{\"channel\":\"B\"}")
+
+        a.assertError(ErrorFromServer::class.java)
+        b.assertNoErrors()
+        b.values() `should equal` listOf("{\"channel\":\"B\"}")
+    }
+}
@@ -52,6 +52,7 @@ import piuk.blockchain.androidcore.data.access.LogoutTimer
 import piuk.blockchain.androidcore.data.auth.AuthDataManager
 import piuk.blockchain.androidcore.data.auth.AuthService
 import piuk.blockchain.androidcore.data.bitcoincash.BchDataStore
+import piuk.blockchain.androidcore.data.charts.ChartSeriesStore
 import piuk.blockchain.androidcore.data.contacts.ContactsDataManager
 import piuk.blockchain.androidcore.data.contacts.ContactsService
 import piuk.blockchain.androidcore.data.contacts.datastore.ContactsMapStore
@@ -94,6 +95,7 @@ import piuk.blockchain.androidcore.utils.MetadataUtils
 import piuk.blockchain.androidcore.utils.PrefsUtil
 import piuk.blockchain.androidcore.utils.PersistentPrefs
 import piuk.blockchain.androidcore.utils.SharedPreferencesFiatCurrencyPreference
+import java.io.File
 
 val coreModule = applicationContext {
 
@@ -272,6 +274,8 @@ val coreModule = applicationContext {
 
     factory { ExchangeRateService(get()) }
 
+    bean { ChartSeriesStore(File(get<Context>().cacheDir, "charts")) }
+
     bean { PrefsUtil(get()) }
 
     bean { PrefsUtil(get()) as PersistentPrefs }
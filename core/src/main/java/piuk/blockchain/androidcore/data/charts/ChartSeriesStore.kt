@@ -0,0 +1,150 @@
+package piuk.blockchain.androidcore.data.charts
+
+import info.blockchain.balance.CryptoCurrency
+import timber.log.Timber
+import java.io.BufferedInputStream
+import java.io.BufferedOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.io.FileInputStream
+import java.io.FileOutputStream
+import java.io.IOException
+
+/**
+ * Stores the price series shown in the charts, one file per currency pair and scale. Each file
+ * holds the start of the range the series covers followed by its timestamps and then its prices,
+ * so a series is read back with a single pass and no parsing. Series are kept in memory once read.
+ */
+class ChartSeriesStore(private val directory: File) {
+
+    private val series = mutableMapOf<String, ChartSeries>()
+
+    @Synchronized
+    fun get(cryptoCurrency: CryptoCurrency, fiatCurrency: String, scale: Int): ChartSeries? {
+        val key = key(cryptoCurrency, fiatCurrency, scale)
+        return series[key] ?: read(key)?.also { series[key] = it }
+    }
+
+    @Synchronized
+    fun put(cryptoCurrency: CryptoCurrency, fiatCurrency: String, scale: Int, chartSeries: ChartSeries) {
+        val key = key(cryptoCurrency, fiatCurrency, scale)
+        series[key] = chartSeries
+        write(key, chartSeries)
+    }
+
+    private fun read(key: String): ChartSeries? {
+        val file = File(directory, key)
+        if (!file.exists()) return null
+        return try {
+            DataInputStream(BufferedInputStream(FileInputStream(file))).use { input ->
+                if (input.readInt() != VERSION) return null
+                val start = input.readLong()
+                val size = input.readInt()
+                if (size < 0 || file.length() != HEADER_BYTES + size.toLong() * POINT_BYTES) {
+                    Timber.e("Corrupt chart series $key")
+                    file.delete()
+                    return null
+                }
+                val timestamps = LongArray(size) { input.readLong() }
+                val prices = DoubleArray(size) { input.readDouble() }
+                ChartSeries(start, timestamps, prices)
+            }
+        } catch (e: IOException) {
+            Timber.e(e, "Unable to read chart series $key")
+            file.delete()
+            null
+        }
+    }
+
+    private fun write(key: String, chartSeries: ChartSeries) {
+        try {
+            directory.mkdirs()
+            val temp = File(directory, "$key.tmp")
+            DataOutputStream(BufferedOutputStream(FileOutputStream(temp))).use { output ->
+                output.writeInt(VERSION)
+                output.writeLong(chartSeries.start)
+                output.writeInt(chartSeries.size)
+                chartSeries.timestamps.forEach { output.writeLong(it) }
+                chartSeries.prices.forEach { output.writeDouble(it) }
+            }
+            if (!temp.renameTo(File(directory, key))) {
+                Timber.e("Unable to save chart series $key")
+                temp.delete()
+            }
+        } catch (e: IOException) {
+            Timber.e(e, "Unable to save chart series $key")
+        }
+    }
+
+    private fun key(cryptoCurrency: CryptoCurrency, fiatCurrency: String, scale: Int) =
+        "${cryptoCurrency.symbol}_${fiatCurrency}_$scale"
+
+    companion object {
+
+        private const val VERSION = 1
+        // Version, start and size
+        private const val HEADER_BYTES = 4L + 8L + 4L
+        // Timestamp and price
+        private const val POINT_BYTES = 8L + 8L
+    }
+}
+
+/**
+ * A price series covering the range from [start], with the price at each of [timestamps] in the
+ * matching index of [prices]. Timestamps are in epoch-seconds and ascending.
+ */
+class ChartSeries(
+    val start: Long,
+    val timestamps: LongArray,
+    val prices: DoubleArray
+) {
+
+    val size: Int
+        get() = timestamps.size
+
+    val last: Long?
+        get() = timestamps.lastOrNull()
+
+    /**
+     * @return This series with the points of [newer] appended, replacing any of this series' points
+     * from the first timestamp of [newer] onwards
+     */
+    fun append(newer: ChartSeries): ChartSeries {
+        val first = newer.timestamps.firstOrNull() ?: return this
+        val keep = timestamps.indexOfFirst { it >= first }.let { if (it == -1) size else it }
+        return ChartSeries(
+            start,
+            timestamps.copyOfRange(0, keep) + newer.timestamps,
+            prices.copyOfRange(0, keep) + newer.prices
+        )
+    }
+
+    /**
+     * @return The points after [time] at least [scale] seconds apart, so a series of a finer scale
+     * can be used to extend one of a coarser scale
+     */
+    fun downsample(scale: Int, time: Long): ChartSeries {
+        var next = time + scale
+        val indices = timestamps.indices.filter { i ->
+            (timestamps[i] >= next).also { if (it) next = timestamps[i] + scale }
+        }
+        return ChartSeries(
+            time,
+            LongArray(indices.size) { timestamps[indices[it]] },
+            DoubleArray(indices.size) { prices[indices[it]] }
+        )
+    }
+
+    /**
+     * @return The part of this series from [time] onwards
+     */
+    fun from(time: Long): ChartSeries {
+        val first = timestamps.indexOfFirst { it >= time }.let { if (it == -1) size else it }
+        return ChartSeries(
+            maxOf(start, time),
+            timestamps.copyOfRange(first, size),
+            prices.copyOfRange(first, size)
+        )
+    }
+}
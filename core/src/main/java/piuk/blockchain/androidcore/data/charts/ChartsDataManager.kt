@@ -4,6 +4,7 @@ import info.blockchain.balance.CryptoCurrency
 import info.blockchain.wallet.prices.PriceApi
 import info.blockchain.wallet.prices.Scale
 import io.reactivex.Observable
+import io.reactivex.Single
 import piuk.blockchain.androidcore.data.charts.models.ChartDatumDto
 import piuk.blockchain.androidcore.data.rxjava.RxBus
 import piuk.blockchain.androidcore.data.rxjava.RxPinning
@@ -13,7 +14,11 @@ import java.util.Calendar
 import javax.inject.Inject
 
 @PresenterScope
-class ChartsDataManager @Inject constructor(private val historicPriceApi: PriceApi, rxBus: RxBus) {
+class ChartsDataManager @Inject constructor(
+    private val historicPriceApi: PriceApi,
+    private val chartSeriesStore: ChartSeriesStore,
+    rxBus: RxBus
+) {
 
     private val rxPinning = RxPinning(rxBus)
 
@@ -125,17 +130,68 @@ class ChartsDataManager @Inject constructor(private val historicPriceApi: PriceA
             proposedStartTime = getStartTimeForTimeSpan(TimeSpan.ALL_TIME, cryptoCurrency)
         }
 
-        return historicPriceApi.getHistoricPriceSeries(
+        val startTime = proposedStartTime
+        return Single.defer { getSeries(cryptoCurrency, fiatCurrency, startTime, scale) }
+            .toObservable()
+            .flatMapIterable { it.from(startTime).toChartData() }
+            .applySchedulers()
+    }
+
+    /**
+     * Returns the stored series if it covers [startTime], extended with any points since it was
+     * last updated. Those are taken from a stored series of a finer scale if one is up to date,
+     * otherwise only the missing tail is requested. The whole range is only requested if nothing
+     * is stored.
+     */
+    private fun getSeries(
+        cryptoCurrency: CryptoCurrency,
+        fiatCurrency: String,
+        startTime: Long,
+        scale: Int
+    ): Single<ChartSeries> {
+        val stored = chartSeriesStore.get(cryptoCurrency, fiatCurrency, scale)
+            ?.takeIf { it.start <= startTime }
+        val last = stored?.last
+            ?: return fetchSeries(cryptoCurrency, fiatCurrency, startTime, scale)
+                .doOnSuccess { chartSeriesStore.put(cryptoCurrency, fiatCurrency, scale, it) }
+
+        val now = System.currentTimeMillis() / 1000
+        if (now - last < scale) return Single.just(stored)
+
+        val finer = SCALES.filter { it < scale && scale % it == 0 }
+            .mapNotNull { chartSeriesStore.get(cryptoCurrency, fiatCurrency, it) }
+            .filter { it.start <= last }
+            .firstOrNull { (it.last ?: 0) > now - scale }
+            ?.downsample(scale, last)
+            ?.takeIf { it.size > 0 }
+
+        return (finer?.let { Single.just(it) } ?: fetchSeries(cryptoCurrency, fiatCurrency, last, scale))
+            .map { stored.append(it).from(startTime) }
+            .doOnSuccess { chartSeriesStore.put(cryptoCurrency, fiatCurrency, scale, it) }
+    }
+
+    private fun ChartSeries.toChartData(): List<ChartDatumDto> =
+        (0 until size).map { ChartDatumDto(timestamps[it], prices[it]) }
+
+    private fun fetchSeries(
+        cryptoCurrency: CryptoCurrency,
+        fiatCurrency: String,
+        startTime: Long,
+        scale: Int
+    ): Single<ChartSeries> =
+        historicPriceApi.getHistoricPriceSeries(
             cryptoCurrency.symbol,
             fiatCurrency,
-            proposedStartTime,
+            startTime,
             scale
-        ).toObservable()
-            .flatMapIterable { it }
-            .filter { it.price != null }
-            .map { ChartDatumDto(it) }
-            .applySchedulers()
-    }
+        ).map { data ->
+            val points = data.filter { it.timestamp != null && it.price != null }
+            ChartSeries(
+                startTime,
+                LongArray(points.size) { points[it].timestamp },
+                DoubleArray(points.size) { points[it].price!! }
+            )
+        }
 
     private fun getStartTimeForTimeSpan(
         timeSpan: TimeSpan,
@@ -168,4 +224,15 @@ class ChartsDataManager @Inject constructor(private val historicPriceApi: PriceA
             CryptoCurrency.PAX -> TODO("PAX is not yet supported - AND-2003")
         }
     }
+
+    companion object {
+
+        private val SCALES = listOf(
+            Scale.FIFTEEN_MINUTES,
+            Scale.ONE_HOUR,
+            Scale.TWO_HOURS,
+            Scale.ONE_DAY,
+            Scale.FIVE_DAYS
+        )
+    }
 }
@@ -7,8 +7,7 @@ import info.blockchain.wallet.prices.data.PriceDatum
  * non-null object. Passing a [PriceDatum] where the price is null will cause an exception to be
  * thrown.
  */
-class ChartDatumDto(priceDatum: PriceDatum) {
+class ChartDatumDto(val timestamp: Long, val price: Double) {
 
-    val timestamp: Long = priceDatum.timestamp
-    val price: Double = priceDatum.price!!
+    constructor(priceDatum: PriceDatum) : this(priceDatum.timestamp, priceDatum.price!!)
 }
\ No newline at end of file
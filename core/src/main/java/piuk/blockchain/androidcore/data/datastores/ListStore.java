@@ -15,8 +15,11 @@ public abstract class ListStore<T> {
         data = new ArrayList<>();
     }
 
+    /**
+     * @return A read only view of the stored list
+     */
     public List<T> getList() {
-        return data;
+        return Collections.unmodifiableList(data);
     }
 
     public void storeList(List<T> data) {
@@ -0,0 +1,96 @@
+package piuk.blockchain.androidcore.data.datastores.persistentstore
+
+import com.blockchain.data.datastores.PersistentStore
+import com.blockchain.utils.Optional
+import io.reactivex.Observable
+import io.reactivex.Scheduler
+import io.reactivex.schedulers.Schedulers
+import timber.log.Timber
+import java.util.concurrent.TimeUnit
+
+/**
+ * Returns data from local storage straight away if there is any, and refreshes it from the web in
+ * the background once it's older than [maxAge]. If nothing is stored, waits for the web instead.
+ * Fetches share the webcall in flight if there is one. [refresh] always makes a new one, and a
+ * response to an older webcall is never stored over the newer one.
+ *
+ * Unlike the other strategies this one keeps state between fetches, so a single instance should be
+ * held for each store, and [memorySource] must read the store when subscribed to.
+ */
+class StaleWhileRevalidateFetchStrategy<T>(
+    private val webSource: Observable<T>,
+    private val memorySource: Observable<Optional<T>>,
+    private val memoryStore: PersistentStore<T>,
+    maxAge: Long,
+    timeUnit: TimeUnit,
+    private val scheduler: Scheduler = Schedulers.computation()
+) : FetchStrategy<T>() {
+
+    private val maxAgeMillis = timeUnit.toMillis(maxAge)
+
+    private var inFlight: Observable<T>? = null
+
+    private var latestWebCall = 0L
+
+    @Volatile
+    private var lastUpdated: Long? = null
+
+    override fun fetch(): Observable<T> = memorySource.flatMap { optional ->
+        when (optional) {
+            is Optional.Some -> {
+                if (isStale()) revalidate()
+                Observable.just(optional.element)
+            }
+            else -> fromWeb()
+        }
+    }
+
+    /**
+     * Fetches from the web regardless of age. Doesn't join a webcall already in flight, as that
+     * may have started before a change the caller wants to see, ie after an update.
+     */
+    fun refresh(): Observable<T> = Observable.defer { newWebCall() }
+
+    private fun isStale(): Boolean {
+        val now = scheduler.now(TimeUnit.MILLISECONDS)
+        // Data stored by someone else is treated as fresh from when it was first seen
+        val updated = lastUpdated ?: now.also { lastUpdated = it }
+        return now - updated >= maxAgeMillis
+    }
+
+    private fun revalidate() {
+        fromWeb().subscribe({ }, { Timber.e(it, "Background refresh failed") })
+    }
+
+    @Synchronized
+    private fun fromWeb(): Observable<T> = inFlight ?: newWebCall()
+
+    @Synchronized
+    private fun newWebCall(): Observable<T> {
+        val webCall = ++latestWebCall
+        return webSource
+            .flatMap {
+                if (isLatest(webCall)) {
+                    memoryStore.store(it)
+                        .doOnNext { lastUpdated = scheduler.now(TimeUnit.MILLISECONDS) }
+                } else {
+                    // Overtaken by a newer webcall, whose response is the one to keep
+                    Observable.just(it)
+                }
+            }
+            .doFinally { onWebCallFinished(webCall) }
+            .replay(1)
+            .refCount()
+            .also { inFlight = it }
+    }
+
+    @Synchronized
+    private fun isLatest(webCall: Long) = webCall == latestWebCall
+
+    @Synchronized
+    private fun onWebCallFinished(webCall: Long) {
+        if (isLatest(webCall)) {
+            inFlight = null
+        }
+    }
+}
@@ -40,6 +40,19 @@ class ExchangeRateDataManager @Inject constructor(
             .map { FiatValue.fromMajor(fiat, it * value.toBigDecimal()) }
             .subscribeOn(Schedulers.io())
 
+    /**
+     * Returns the price of one unit of [cryptoCurrency] at each of the given times, batching the
+     * lookups so a list of transactions doesn't make a request per row.
+     */
+    fun getHistoricPrices(
+        cryptoCurrency: CryptoCurrency,
+        fiat: String,
+        timesInSeconds: Collection<Long>
+    ): Single<Map<Long, FiatValue>> =
+        exchangeRateDataStore.getHistoricPrices(cryptoCurrency, fiat, timesInSeconds)
+            .map { prices -> prices.mapValues { FiatValue.fromMajor(fiat, it.value) } }
+            .subscribeOn(Schedulers.io())
+
     fun getCurrencyLabels() = exchangeRateDataStore.getCurrencyLabels()
 
     @Deprecated("Use CryptoValue.toFiat")
@@ -16,4 +16,12 @@ class ExchangeRateService(private val priceApi: PriceApi) {
         timeInSeconds: Long
     ): Single<Double> =
         priceApi.getHistoricPrice(cryptoCurrency.symbol, currency, timeInSeconds)
-}
\ No newline at end of file
+
+    fun getHistoricPriceSeries(
+        cryptoCurrency: CryptoCurrency,
+        currency: String,
+        startTimeInSeconds: Long,
+        scale: Int
+    ): Single<List<PriceDatum>> =
+        priceApi.getHistoricPriceSeries(cryptoCurrency.symbol, currency, startTimeInSeconds, scale)
+}
@@ -3,79 +3,194 @@ package piuk.blockchain.androidcore.data.exchangerate.datastore
 import info.blockchain.balance.CryptoCurrency
 import info.blockchain.wallet.prices.data.PriceDatum
 import io.reactivex.Completable
+import io.reactivex.Observable
 import io.reactivex.Single
 import piuk.blockchain.androidcore.data.exchangerate.ExchangeRateService
 import piuk.blockchain.androidcore.utils.PrefsUtil
 import timber.log.Timber
 import java.math.BigDecimal
+import java.util.concurrent.ConcurrentHashMap
 
+/**
+ * Holds the latest price of each [CryptoCurrency] in every fiat currency. Prices are read for
+ * every fiat conversion, so they're kept in memory. The whole table is persisted in a single
+ * preference after each update and read back the first time a price is needed, so prices from the
+ * previous session are available until the first update succeeds.
+ */
 class ExchangeRateDataStore(
     private val exchangeRateService: ExchangeRateService,
-    private val prefsUtil: PrefsUtil
+    private val prefsUtil: PrefsUtil,
+    private val currentTimeInSeconds: () -> Long = { System.currentTimeMillis() / 1000 }
 ) {
 
-    // Ticker data
-    private var btcTickerData: Map<String, PriceDatum>? = null
-    private var ethTickerData: Map<String, PriceDatum>? = null
-    private var bchTickerData: Map<String, PriceDatum>? = null
-    private var xlmTickerData: Map<String, PriceDatum>? = null
-    private var paxTickerData: Map<String, PriceDatum>? = null
+    // Prices from the last update, by fiat currency
+    private val prices = ConcurrentHashMap<CryptoCurrency, Map<String, Double>>()
+
+    private val lastKnownPrices: Map<String, Double> by lazy { loadLastKnownPrices() }
+
+    private val historicPrices = HistoricPriceCache(prefsUtil)
 
     fun updateExchangeRates(): Completable = Single.merge(
         exchangeRateService.getExchangeRateMap(CryptoCurrency.BTC)
-            .doOnSuccess { btcTickerData = it.toMap() },
+            .doOnSuccess { updatePrices(CryptoCurrency.BTC, it) },
         exchangeRateService.getExchangeRateMap(CryptoCurrency.BCH)
-            .doOnSuccess { bchTickerData = it.toMap() },
+            .doOnSuccess { updatePrices(CryptoCurrency.BCH, it) },
         exchangeRateService.getExchangeRateMap(CryptoCurrency.ETHER)
-            .doOnSuccess { ethTickerData = it.toMap() },
+            .doOnSuccess { updatePrices(CryptoCurrency.ETHER, it) },
         exchangeRateService.getExchangeRateMap(CryptoCurrency.XLM)
-            .doOnSuccess { xlmTickerData = it.toMap() }
+            .doOnSuccess { updatePrices(CryptoCurrency.XLM, it) }
     ).mergeWith(exchangeRateService.getExchangeRateMap(CryptoCurrency.PAX)
-        .doOnSuccess { paxTickerData = it.toMap() }).ignoreElements()
+        .doOnSuccess { updatePrices(CryptoCurrency.PAX, it) }).ignoreElements()
+        .doOnComplete { saveLastKnownPrices() }
 
-    fun getCurrencyLabels(): Array<String> = btcTickerData!!.keys.toTypedArray()
+    fun getCurrencyLabels(): Array<String> = prices[CryptoCurrency.BTC]!!.keys.toTypedArray()
 
     fun getLastPrice(cryptoCurrency: CryptoCurrency, currencyName: String): Double {
-        var currency = currencyName
-        if (currency.isEmpty()) {
-            currency = "USD"
-        }
-
-        val tickerData = cryptoCurrency.tickerData()
+        val currency = if (currencyName.isEmpty()) "USD" else currencyName
 
-        val prefsKey = "LAST_KNOWN_${cryptoCurrency.symbol}_VALUE_FOR_CURRENCY_$currency"
+        return prices[cryptoCurrency]?.get(currency)
+            ?: lastKnownPrices[priceKey(cryptoCurrency, currency)]
+            ?: 0.0
+    }
 
-        val lastKnown = try {
-            prefsUtil.getValue(prefsKey, "0.0").toDouble()
-        } catch (e: NumberFormatException) {
-            Timber.e(e)
-            prefsUtil.setValue(prefsKey, "0.0")
-            0.0
-        }
+    private fun updatePrices(cryptoCurrency: CryptoCurrency, tickerData: Map<String, PriceDatum>) {
+        prices[cryptoCurrency] = tickerData.entries
+            .mapNotNull { (currency, datum) -> datum.price?.let { currency to it } }
+            .toMap()
+    }
 
-        val lastPrice: Double? = tickerData?.get(currency)?.price
+    private fun loadLastKnownPrices(): Map<String, Double> =
+        prefsUtil.getValue(KEY_LAST_KNOWN_PRICES, "")
+            .split(ENTRY_SEPARATOR)
+            .filter { it.isNotEmpty() }
+            .mapNotNull { entry ->
+                val key = entry.substringBefore(VALUE_SEPARATOR)
+                val price = entry.substringAfter(VALUE_SEPARATOR).toDoubleOrNull()
+                if (price == null) {
+                    Timber.e("Invalid last known price $entry")
+                    null
+                } else {
+                    key to price
+                }
+            }
+            .toMap()
 
-        if (lastPrice != null) {
-            prefsUtil.setValue("$prefsKey$currency", lastPrice.toString())
+    private fun saveLastKnownPrices() {
+        val table = lastKnownPrices.toMutableMap()
+        prices.forEach { (cryptoCurrency, fiatPrices) ->
+            fiatPrices.forEach { (currency, price) -> table[priceKey(cryptoCurrency, currency)] = price }
         }
-
-        return lastPrice ?: lastKnown
+        prefsUtil.setValue(
+            KEY_LAST_KNOWN_PRICES,
+            table.entries.joinToString(ENTRY_SEPARATOR) { "${it.key}$VALUE_SEPARATOR${it.value}" }
+        )
     }
 
-    private fun CryptoCurrency.tickerData() =
-        when (this) {
-            CryptoCurrency.BTC -> btcTickerData
-            CryptoCurrency.ETHER -> ethTickerData
-            CryptoCurrency.BCH -> bchTickerData
-            CryptoCurrency.XLM -> xlmTickerData
-            CryptoCurrency.PAX -> paxTickerData
-        }
+    private fun priceKey(cryptoCurrency: CryptoCurrency, currency: String) =
+        "${cryptoCurrency.symbol}_$currency"
 
     fun getHistoricPrice(
         cryptoCurrency: CryptoCurrency,
         fiat: String,
         timeInSeconds: Long
     ): Single<BigDecimal> =
-        exchangeRateService.getHistoricPrice(cryptoCurrency, fiat, timeInSeconds)
-            .map { it.toBigDecimal() }
+        fetchHistoricPrice(cryptoCurrency, fiat, timeInSeconds)
+            .doFinally { historicPrices.flush() }
+
+    private fun fetchHistoricPrice(
+        cryptoCurrency: CryptoCurrency,
+        fiat: String,
+        timeInSeconds: Long
+    ): Single<BigDecimal> {
+        val key = historicPriceKey(cryptoCurrency, fiat, timeInSeconds, currentTimeInSeconds())
+        return historicPrices.get(key)
+            ?.let { Single.just(it.toBigDecimal()) }
+            ?: exchangeRateService.getHistoricPrice(cryptoCurrency, fiat, timeInSeconds)
+                .doOnSuccess { historicPrices.putAll(mapOf(key to it)) }
+                .map { it.toBigDecimal() }
+    }
+
+    /**
+     * Looks up the prices at several times at once, ie for a page of transactions. Prices which
+     * aren't cached are requested as one price series per bucket size, starting from the earliest
+     * missing time, rather than one request per time. Only the buckets of the requested times are
+     * kept from each series, and new prices are persisted once, after all of them are known.
+     *
+     * @return The price at each of the given times
+     */
+    fun getHistoricPrices(
+        cryptoCurrency: CryptoCurrency,
+        fiat: String,
+        timesInSeconds: Collection<Long>
+    ): Single<Map<Long, BigDecimal>> {
+        val now = currentTimeInSeconds()
+        val keys = timesInSeconds.distinct().associate {
+            it to historicPriceKey(cryptoCurrency, fiat, it, now)
+        }
+
+        val missing = keys.filter { historicPrices.get(it.value) == null }.keys
+        val missingKeys = missing.map { keys.getValue(it) }.toSet()
+        val fetchMissing = if (missing.isEmpty()) {
+            Completable.complete()
+        } else {
+            Single.merge(
+                missing.groupBy { HistoricPriceCache.bucketScale(it, now) }
+                    .map { (scale, times) ->
+                        exchangeRateService.getHistoricPriceSeries(
+                            cryptoCurrency,
+                            fiat,
+                            HistoricPriceCache.bucketStart(times.min()!!, scale),
+                            scale
+                        ).map { series -> series.toBuckets(cryptoCurrency, fiat, scale) }
+                    }
+            ).doOnNext { buckets -> historicPrices.putAll(buckets.filterKeys { it in missingKeys }) }
+                .ignoreElements()
+        }
+
+        return fetchMissing.andThen(
+            Observable.fromIterable(keys.entries)
+                .concatMapSingle { (time, key) ->
+                    // Falls back to a single lookup where the series had a gap
+                    historicPrices.get(key)
+                        ?.let { Single.just(time to it.toBigDecimal()) }
+                        ?: fetchHistoricPrice(cryptoCurrency, fiat, time).map { time to it }
+                }
+                .toList()
+                .map { it.toMap() }
+        ).doFinally { historicPrices.flush() }
+    }
+
+    private fun List<PriceDatum>.toBuckets(
+        cryptoCurrency: CryptoCurrency,
+        fiat: String,
+        scale: Int
+    ): Map<String, Double> {
+        val buckets = mutableMapOf<String, Double>()
+        forEach { datum ->
+            val timestamp = datum.timestamp
+            val price = datum.price
+            if (timestamp != null && price != null) {
+                val key = HistoricPriceCache.key(cryptoCurrency, fiat, timestamp, scale)
+                if (!buckets.containsKey(key)) {
+                    buckets[key] = price
+                }
+            }
+        }
+        return buckets
+    }
+
+    private fun historicPriceKey(cryptoCurrency: CryptoCurrency, fiat: String, timeInSeconds: Long, now: Long) =
+        HistoricPriceCache.key(
+            cryptoCurrency,
+            fiat,
+            timeInSeconds,
+            HistoricPriceCache.bucketScale(timeInSeconds, now)
+        )
+
+    companion object {
+
+        private const val KEY_LAST_KNOWN_PRICES = "LAST_KNOWN_PRICES"
+        private const val ENTRY_SEPARATOR = ","
+        private const val VALUE_SEPARATOR = "="
+    }
 }
@@ -0,0 +1,90 @@
+package piuk.blockchain.androidcore.data.exchangerate.datastore
+
+import info.blockchain.balance.CryptoCurrency
+import info.blockchain.wallet.prices.Scale
+import piuk.blockchain.androidcore.utils.PrefsUtil
+import timber.log.Timber
+
+/**
+ * Historic prices never change, so they're kept for a currency pair in buckets of an hour for the
+ * last [HOURLY_BUCKET_AGE] seconds and of a day before that. The most recently used
+ * [MAX_ENTRIES] buckets are persisted in a single preference, which is read the first time a
+ * price is looked up. New prices are only kept in memory until [flush] is called, so a lookup of
+ * many prices rewrites the preference once.
+ */
+internal class HistoricPriceCache(private val prefsUtil: PrefsUtil) {
+
+    private val prices: LinkedHashMap<String, Double> by lazy { load() }
+
+    private var dirty = false
+
+    @Synchronized
+    fun get(key: String): Double? = prices[key]
+
+    @Synchronized
+    fun putAll(entries: Map<String, Double>) {
+        if (entries.isEmpty()) return
+        prices.putAll(entries)
+        val iterator = prices.keys.iterator()
+        while (prices.size > MAX_ENTRIES && iterator.hasNext()) {
+            iterator.next()
+            iterator.remove()
+        }
+        dirty = true
+    }
+
+    /**
+     * Persists the prices added since the last flush, if any.
+     */
+    @Synchronized
+    fun flush() {
+        if (!dirty) return
+        dirty = false
+        save()
+    }
+
+    private fun load(): LinkedHashMap<String, Double> {
+        val map = LinkedHashMap<String, Double>(16, 0.75f, true)
+        prefsUtil.getValue(KEY_HISTORIC_PRICES, "")
+            .split(ENTRY_SEPARATOR)
+            .filter { it.isNotEmpty() }
+            .forEach { entry ->
+                val price = entry.substringAfter(VALUE_SEPARATOR).toDoubleOrNull()
+                if (price == null) {
+                    Timber.e("Invalid historic price $entry")
+                } else {
+                    map[entry.substringBefore(VALUE_SEPARATOR)] = price
+                }
+            }
+        return map
+    }
+
+    private fun save() {
+        prefsUtil.setValue(
+            KEY_HISTORIC_PRICES,
+            prices.entries.joinToString(ENTRY_SEPARATOR) { "${it.key}$VALUE_SEPARATOR${it.value}" }
+        )
+    }
+
+    companion object {
+
+        const val HOURLY_BUCKET_AGE = 30L * Scale.ONE_DAY
+        private const val MAX_ENTRIES = 1000
+        private const val KEY_HISTORIC_PRICES = "HISTORIC_PRICES"
+        private const val ENTRY_SEPARATOR = ","
+        private const val VALUE_SEPARATOR = "="
+
+        /**
+         * @return The width of the bucket holding the price at [timeInSeconds], from
+         * [info.blockchain.wallet.prices.Scale], so it can be used as the scale of a series request
+         */
+        fun bucketScale(timeInSeconds: Long, nowInSeconds: Long): Int =
+            if (nowInSeconds - timeInSeconds <= HOURLY_BUCKET_AGE) Scale.ONE_HOUR else Scale.ONE_DAY
+
+        fun bucketStart(timeInSeconds: Long, scale: Int): Long =
+            timeInSeconds - timeInSeconds % scale
+
+        fun key(cryptoCurrency: CryptoCurrency, fiat: String, timeInSeconds: Long, scale: Int) =
+            "${cryptoCurrency.symbol}_${fiat}_${scale}_${bucketStart(timeInSeconds, scale)}"
+    }
+}
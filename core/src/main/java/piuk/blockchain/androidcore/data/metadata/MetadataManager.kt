@@ -3,10 +3,13 @@ package piuk.blockchain.androidcore.data.metadata
 import com.blockchain.serialization.Saveable
 import com.google.common.base.Optional
 import info.blockchain.wallet.exceptions.InvalidCredentialsException
+import info.blockchain.wallet.exceptions.MetadataException
+import info.blockchain.wallet.metadata.Metadata
 import io.reactivex.Completable
 import io.reactivex.Observable
 import io.reactivex.schedulers.Schedulers
 import org.bitcoinj.core.NetworkParameters
+import org.bitcoinj.crypto.DeterministicKey
 import piuk.blockchain.androidcore.data.payload.PayloadDataManager
 import piuk.blockchain.androidcore.data.rxjava.RxBus
 import piuk.blockchain.androidcore.data.rxjava.RxPinning
@@ -26,14 +29,30 @@ import piuk.blockchain.androidcore.utils.extensions.applySchedulers
  * derived from 'guid + sharedkey + wallet password'. This will allow us to retrieve these derived
  * keys with just a user's credentials and not derive them again.
  *
+ * The [Metadata] node for each type is cached along with its encryption key and magic hash, so
+ * repeated reads and writes don't derive the keys or fetch the magic hash again. Decrypted entries
+ * read or saved, ie by [prefetchMetadata], are reused for [ENTRY_MAX_AGE_MILLIS] so that changes
+ * from other devices still show up. The caches are dropped when the metadata node changes and on
+ * [clearCachedMetadata].
  */
 class MetadataManager(
     private val payloadDataManager: PayloadDataManager,
     private val metadataUtils: MetadataUtils,
-    rxBus: RxBus
+    rxBus: RxBus,
+    private val currentTimeMillis: () -> Long = System::currentTimeMillis
 ) {
     private val rxPinning = RxPinning(rxBus)
 
+    private val metadataNodes = mutableMapOf<Int, Metadata>()
+    private var metadataNodesKey: DeterministicKey? = null
+    private val metadataEntries = mutableMapOf<Int, MetadataEntry>()
+
+    private class MetadataEntry(
+        val metadataHDNode: DeterministicKey,
+        val value: Optional<String>,
+        val timeMillis: Long
+    )
+
     fun attemptMetadataSetup() = initMetadataNodesObservable()
 
     fun decryptAndSetupMetadata(
@@ -41,6 +60,7 @@ class MetadataManager(
         secondPassword: String
     ): Completable {
         payloadDataManager.decryptHDWallet(networkParameters, secondPassword)
+        clearCachedMetadata()
         return payloadDataManager.generateNodes()
             .andThen(initMetadataNodesObservable())
     }
@@ -48,28 +68,99 @@ class MetadataManager(
     fun fetchMetadata(metadataType: Int): Observable<Optional<String>> =
         rxPinning.call<Optional<String>> {
             payloadDataManager.getMetadataNodeFactory().map { nodeFactory ->
-                metadataUtils.getMetadataNode(nodeFactory.metadataNode, metadataType)
-                    .metadataOptional
+                val metadataHDNode = nodeFactory.metadataNode
+                getCachedEntry(metadataHDNode, metadataType)
+                    ?: getMetadataNode(metadataHDNode, metadataType).metadataOptional
+                        .also { cacheEntry(metadataHDNode, metadataType, it) }
             }
         }.subscribeOn(Schedulers.io())
 
+    /**
+     * Fetches and decrypts the given metadata types concurrently, so that calls to [fetchMetadata]
+     * for them shortly after are served from memory. Failures are ignored, those types are fetched
+     * again when they're next needed.
+     */
+    fun prefetchMetadata(metadataTypes: List<Int>): Completable =
+        Observable.fromIterable(metadataTypes)
+            .flatMap({ metadataType ->
+                fetchMetadata(metadataType)
+                    .onErrorResumeNext(Observable.empty())
+            }, PREFETCH_CONCURRENCY)
+            .ignoreElements()
+
     fun saveToMetadata(data: String, metadataType: Int): Completable = rxPinning.call {
         payloadDataManager.getMetadataNodeFactory().flatMapCompletable {
             Completable.fromCallable {
-                metadataUtils.getMetadataNode(it.metadataNode, metadataType).putMetadata(data)
+                putMetadata(it.metadataNode, metadataType, data)
             }
         }.applySchedulers()
     }
 
     fun saveToMetadata(saveable: Saveable): Completable = rxPinning.call {
+        val metadataType = saveable.getMetadataType()
+        val data = saveable.toJson()
         payloadDataManager.getMetadataNodeFactory().flatMapCompletable {
             Completable.fromCallable {
-                metadataUtils.getMetadataNode(it.metadataNode, saveable.getMetadataType())
-                    .putMetadata(saveable.toJson())
+                putMetadata(it.metadataNode, metadataType, data)
             }
         }.applySchedulers()
     }
 
+    /**
+     * Drops the cached metadata nodes and entries, ie on logout.
+     */
+    fun clearCachedMetadata() {
+        synchronized(metadataNodes) {
+            metadataNodes.clear()
+            metadataNodesKey = null
+            metadataEntries.clear()
+        }
+    }
+
+    private fun putMetadata(metadataHDNode: DeterministicKey, metadataType: Int, data: String) {
+        try {
+            getMetadataNode(metadataHDNode, metadataType).putMetadata(data)
+            cacheEntry(metadataHDNode, metadataType, Optional.of(data))
+        } catch (e: MetadataException) {
+            // The node's magic hash may be stale, the next save starts from a fresh node
+            synchronized(metadataNodes) {
+                metadataNodes.remove(metadataType)
+            }
+            throw e
+        }
+    }
+
+    private fun getCachedEntry(metadataHDNode: DeterministicKey, metadataType: Int): Optional<String>? =
+        synchronized(metadataNodes) {
+            metadataEntries[metadataType]
+                ?.takeIf {
+                    it.metadataHDNode == metadataHDNode &&
+                        currentTimeMillis() - it.timeMillis < ENTRY_MAX_AGE_MILLIS
+                }
+                ?.value
+        }
+
+    private fun cacheEntry(metadataHDNode: DeterministicKey, metadataType: Int, value: Optional<String>) {
+        synchronized(metadataNodes) {
+            // Drops entries read for a previous node or wallet, ie by a fetch in flight during a logout
+            if (metadataNodesKey == metadataHDNode) {
+                metadataEntries[metadataType] = MetadataEntry(metadataHDNode, value, currentTimeMillis())
+            }
+        }
+    }
+
+    private fun getMetadataNode(metadataHDNode: DeterministicKey, metadataType: Int): Metadata =
+        synchronized(metadataNodes) {
+            if (metadataNodesKey != metadataHDNode) {
+                metadataNodes.clear()
+                metadataEntries.clear()
+                metadataNodesKey = metadataHDNode
+            }
+            metadataNodes.getOrPut(metadataType) {
+                metadataUtils.getMetadataNode(metadataHDNode, metadataType)
+            }
+        }
+
     /**
      * Loads or derives the stored nodes/keys from the metadata service.
      *
@@ -96,4 +187,7 @@ class MetadataManager(
                 }
             }.flatMapCompletable { Completable.complete() }
     }.applySchedulers()
-}
\ No newline at end of file
+}
+
+private const val PREFETCH_CONCURRENCY = 4
+private const val ENTRY_MAX_AGE_MILLIS = 30_000L
@@ -3,7 +3,6 @@ package piuk.blockchain.androidcore.data.payments
 import info.blockchain.api.data.UnspentOutputs
 import info.blockchain.balance.CryptoCurrency
 import info.blockchain.wallet.api.dust.DustService
-import info.blockchain.wallet.exceptions.ApiException
 import info.blockchain.wallet.exceptions.TransactionHashApiException
 import info.blockchain.wallet.payment.Payment
 import info.blockchain.wallet.payment.SpendableUnspentOutputs
@@ -59,7 +58,10 @@ class PaymentService(
         val response = payment.publishSimpleTransaction(tx).execute()
 
         when {
-            response.isSuccessful -> tx.hashAsString
+            response.isSuccessful -> {
+                payment.invalidateUnspentCoins(CryptoCurrency.BTC)
+                tx.hashAsString
+            }
             else -> throw TransactionHashApiException.fromResponse(tx.hashAsString, response)
         }
     }
@@ -103,7 +105,10 @@ class PaymentService(
             return@flatMapObservable Observable.fromCallable {
                 val response = payment.publishTransactionWithSecret(CryptoCurrency.BCH, tx, it.lockSecret).execute()
                 when {
-                    response.isSuccessful -> tx.hashAsString
+                    response.isSuccessful -> {
+                        payment.invalidateUnspentCoins(CryptoCurrency.BCH)
+                        tx.hashAsString
+                    }
                     else -> throw TransactionHashApiException.fromResponse(tx.hashAsString, response)
                 }
             }
@@ -111,44 +116,29 @@ class PaymentService(
 
     /**
      * Returns an [UnspentOutputs] object containing all the unspent outputs for a given
-     * Bitcoin address.
+     * Bitcoin address. Recently fetched outputs are served from memory until a transaction
+     * invalidates them.
      *
      * @param address The BTC address you wish to query, as a String
      * @return An [Observable] wrapping an [UnspentOutputs] object
      */
     @WebRequest
     internal fun getUnspentOutputs(address: String): Observable<UnspentOutputs> {
-        return Observable.fromCallable {
-            val response = payment.getUnspentCoins(listOf(address)).execute()
-            when {
-                response.isSuccessful -> response.body()
-                response.code() == 500 -> // If no unspent outputs available server responds with 500
-                    UnspentOutputs.fromJson("{\"unspent_outputs\":[]}")
-                else -> throw ApiException(response.code().toString())
-            }
-        }
+        return Observable.fromCallable { payment.getCachedUnspentCoins(listOf(address)) }
     }
 
     /**
      * Returns an [UnspentOutputs] object containing all the unspent outputs for a given
      * Bitcoin Cash address. Please note that this method only accepts a valid Base58 (ie Legacy)
-     * BCH address. BECH32 is not accepted by the endpoint.
+     * BCH address. BECH32 is not accepted by the endpoint. Recently fetched outputs are served
+     * from memory until a transaction invalidates them.
      *
      * @param address The BCH address you wish to query, as a Base58 address String
      * @return An [Observable] wrapping an [UnspentOutputs] object
      */
     @WebRequest
     internal fun getUnspentBchOutputs(address: String): Observable<UnspentOutputs> {
-        return Observable.fromCallable {
-            val response = payment.getUnspentBchCoins(listOf(address)).execute()
-
-            when {
-                response.isSuccessful -> response.body()
-                response.code() == 500 -> // If no unspent outputs available server responds with 500
-                    UnspentOutputs.fromJson("{\"unspent_outputs\":[]}")
-                else -> throw ApiException(response.code().toString())
-            }
-        }
+        return Observable.fromCallable { payment.getCachedUnspentBchCoins(listOf(address)) }
     }
 
     /**
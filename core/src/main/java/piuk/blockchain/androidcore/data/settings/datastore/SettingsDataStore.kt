@@ -2,17 +2,28 @@ package piuk.blockchain.androidcore.data.settings.datastore
 
 import info.blockchain.wallet.api.data.Settings
 import io.reactivex.Observable
-import piuk.blockchain.androidcore.data.datastores.persistentstore.DefaultFetchStrategy
-import piuk.blockchain.androidcore.data.datastores.persistentstore.FreshFetchStrategy
+import piuk.blockchain.androidcore.data.datastores.persistentstore.StaleWhileRevalidateFetchStrategy
+import java.util.concurrent.TimeUnit
 
 class SettingsDataStore(
-    private val memoryStore: SettingsMemoryStore,
-    private val webSource: Observable<Settings>
+    memoryStore: SettingsMemoryStore,
+    webSource: Observable<Settings>
 ) {
 
-    fun getSettings(): Observable<Settings> =
-        DefaultFetchStrategy(webSource, memoryStore.getSettings(), memoryStore).fetch()
+    private val fetchStrategy = StaleWhileRevalidateFetchStrategy(
+        webSource,
+        Observable.defer { memoryStore.getSettings() },
+        memoryStore,
+        MAX_AGE_SECONDS,
+        TimeUnit.SECONDS
+    )
 
-    fun fetchSettings(): Observable<Settings> =
-        FreshFetchStrategy(webSource, memoryStore).fetch()
-}
\ No newline at end of file
+    fun getSettings(): Observable<Settings> = fetchStrategy.fetch()
+
+    fun fetchSettings(): Observable<Settings> = fetchStrategy.refresh()
+
+    companion object {
+
+        private const val MAX_AGE_SECONDS = 60L
+    }
+}
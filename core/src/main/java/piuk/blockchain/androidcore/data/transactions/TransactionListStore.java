@@ -2,35 +2,75 @@ package piuk.blockchain.androidcore.data.transactions;
 
 import info.blockchain.wallet.multiaddress.TransactionSummary;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
-import javax.inject.Inject;
-import javax.inject.Singleton;
-
-import piuk.blockchain.androidcore.data.datastores.ListStore;
 import piuk.blockchain.androidcore.data.transactions.models.Displayable;
 
 /**
  * Contains both a list of {@link TransactionSummary} objects and also a Map of transaction
  * confirmations keyed to their Transaction's hash.
+ * <p>
+ * The list is kept sorted by date, newest first, and de-duplicated by hash. New transactions are
+ * inserted at their binary searched position rather than re-sorting the whole list.
  */
-public class TransactionListStore extends ListStore<Displayable> {
+public class TransactionListStore {
 
+    private final DisplayableDateComparator comparator = new DisplayableDateComparator();
+    private final ArrayList<Displayable> data = new ArrayList<>();
+    private final HashMap<String, Displayable> byHash = new HashMap<>();
     private HashMap<String, Integer> txConfirmationsMap = new HashMap<>();
 
-    public void insertTransactionIntoListAndSort(Displayable transaction) {
-        insertObjectIntoList(transaction);
-        getTxConfirmationsMap().put(transaction.getHash(), transaction.getConfirmations());
-        sort(new DisplayableDateComparator());
+    /**
+     * @return An unmodifiable snapshot of the transactions, sorted by date
+     */
+    public synchronized List<Displayable> getList() {
+        return Collections.unmodifiableList(new ArrayList<>(data));
+    }
+
+    public synchronized void clearList() {
+        data.clear();
+        byHash.clear();
+    }
+
+    public synchronized void insertTransactionIntoListAndSort(Displayable transaction) {
+        insert(transaction);
     }
 
-    public void insertTransactions(List<Displayable> transactions) {
-        insertBulk(transactions);
-        for (Displayable summary : transactions) {
-            getTxConfirmationsMap().put(summary.getHash(), summary.getConfirmations());
+    public synchronized void insertTransactions(List<Displayable> transactions) {
+        for (Displayable transaction : transactions) {
+            insert(transaction);
+        }
+    }
+
+    /**
+     * Replaces the contents of the list with the given transactions. Transactions which are
+     * already present are kept in place rather than removed and inserted again.
+     */
+    public synchronized void replaceTransactions(List<Displayable> transactions) {
+        Set<String> retained = new HashSet<>();
+        for (Displayable transaction : transactions) {
+            retained.add(transaction.getHash());
+        }
+
+        int kept = 0;
+        for (int i = 0; i < data.size(); i++) {
+            Displayable existing = data.get(i);
+            if (existing.getHash() != null && retained.contains(existing.getHash())) {
+                data.set(kept++, existing);
+            } else {
+                byHash.remove(existing.getHash());
+            }
+        }
+        data.subList(kept, data.size()).clear();
+
+        for (Displayable transaction : transactions) {
+            insert(transaction);
         }
-        sort(new DisplayableDateComparator());
     }
 
     /**
@@ -41,4 +81,70 @@ public class TransactionListStore extends ListStore<Displayable> {
         return txConfirmationsMap;
     }
 
+    private void insert(Displayable transaction) {
+        String hash = transaction.getHash();
+        txConfirmationsMap.put(hash, transaction.getConfirmations());
+
+        // Transactions without a hash can't be matched, so are always added
+        Displayable existing = hash != null ? byHash.get(hash) : null;
+        if (existing != null) {
+            if (existing.equals(transaction)) {
+                return;
+            }
+            int position = indexOf(existing);
+            if (existing.getTimeStamp() == transaction.getTimeStamp()) {
+                data.set(position, transaction);
+                byHash.put(hash, transaction);
+                return;
+            }
+            data.remove(position);
+        }
+
+        int position = upperBound(transaction);
+        data.add(position, transaction);
+        if (hash != null) {
+            byHash.put(hash, transaction);
+        }
+    }
+
+    /**
+     * @return The position after the last transaction not older than the given one, which keeps
+     * transactions with equal dates in insertion order
+     */
+    private int upperBound(Displayable transaction) {
+        int low = 0;
+        int high = data.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(data.get(mid), transaction) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int indexOf(Displayable transaction) {
+        int low = 0;
+        int high = data.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(data.get(mid), transaction) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low; i < data.size(); i++) {
+            if (data.get(i) == transaction) {
+                return i;
+            }
+            if (comparator.compare(data.get(i), transaction) != 0) {
+                break;
+            }
+        }
+        // The date of a stored transaction changed underneath us
+        return data.indexOf(transaction);
+    }
 }
@@ -19,8 +19,14 @@ public class MetadataUtils {
         // Empty constructor for injection
     }
 
+    /**
+     * Derives the node without fetching its magic hash, which is picked up by the first read or
+     * write instead.
+     */
     public Metadata getMetadataNode(DeterministicKey metaDataHDNode, int type) throws IOException, MetadataException {
-        return new Metadata.Builder(metaDataHDNode, type).build();
+        return new Metadata.Builder(metaDataHDNode, type)
+                .setFetchMagicHash(false)
+                .build();
     }
 
 }
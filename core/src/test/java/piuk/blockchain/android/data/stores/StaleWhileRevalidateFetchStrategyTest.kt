@@ -0,0 +1,152 @@
+package piuk.blockchain.android.data.stores
+
+import com.blockchain.data.datastores.PersistentStore
+import com.blockchain.utils.Optional
+import io.reactivex.Observable
+import io.reactivex.schedulers.TestScheduler
+import io.reactivex.subjects.PublishSubject
+import org.amshove.kluent.`should equal`
+import org.junit.Test
+import piuk.blockchain.android.testutils.RxTest
+import piuk.blockchain.androidcore.data.datastores.persistentstore.StaleWhileRevalidateFetchStrategy
+import java.util.concurrent.TimeUnit
+
+class StaleWhileRevalidateFetchStrategyTest : RxTest() {
+
+    private val scheduler = TestScheduler()
+    private val memoryStore = TestStore()
+    private var webCalls = 0
+    private var webSource: Observable<String> = Observable.just("WEB")
+
+    private val subject = StaleWhileRevalidateFetchStrategy(
+        Observable.defer { webCalls++; webSource },
+        Observable.defer { Observable.just(memoryStore.optional()) },
+        memoryStore,
+        1,
+        TimeUnit.MINUTES,
+        scheduler
+    )
+
+    @Test
+    fun `fetch should call web source when nothing is stored`() {
+        subject.fetch().test().assertValue("WEB")
+
+        webCalls `should equal` 1
+        memoryStore.value `should equal` "WEB"
+    }
+
+    @Test
+    fun `fetch should return fresh data without calling web source`() {
+        memoryStore.store("MEMORY")
+
+        subject.fetch().test().assertValue("MEMORY")
+        scheduler.advanceTimeBy(59, TimeUnit.SECONDS)
+        subject.fetch().test().assertValue("MEMORY")
+
+        webCalls `should equal` 0
+    }
+
+    @Test
+    fun `fetch should return stale data and revalidate in the background`() {
+        memoryStore.store("MEMORY")
+        subject.fetch().test()
+        scheduler.advanceTimeBy(1, TimeUnit.MINUTES)
+
+        subject.fetch().test().assertValue("MEMORY")
+
+        webCalls `should equal` 1
+        memoryStore.value `should equal` "WEB"
+        subject.fetch().test().assertValue("WEB")
+        webCalls `should equal` 1
+    }
+
+    @Test
+    fun `failed revalidation still returns stored data`() {
+        memoryStore.store("MEMORY")
+        subject.fetch().test()
+        scheduler.advanceTimeBy(1, TimeUnit.MINUTES)
+        webSource = Observable.error(RuntimeException())
+
+        subject.fetch().test().assertValue("MEMORY").assertNoErrors()
+
+        memoryStore.value `should equal` "MEMORY"
+    }
+
+    @Test
+    fun `concurrent fetches share one web call`() {
+        val response = PublishSubject.create<String>()
+        webSource = response
+
+        val first = subject.fetch().test()
+        val second = subject.fetch().test()
+        response.onNext("WEB")
+        response.onComplete()
+
+        webCalls `should equal` 1
+        first.assertValue("WEB")
+        second.assertValue("WEB")
+    }
+
+    @Test
+    fun `refresh does not join a web call started before it`() {
+        val revalidation = PublishSubject.create<String>()
+        val refreshed = PublishSubject.create<String>()
+        memoryStore.store("MEMORY")
+        subject.fetch().test()
+        scheduler.advanceTimeBy(1, TimeUnit.MINUTES)
+        webSource = revalidation
+        subject.fetch().test()
+
+        webSource = refreshed
+        val refresh = subject.refresh().test()
+        refreshed.onNext("UPDATED")
+        refreshed.onComplete()
+        revalidation.onNext("OLD")
+        revalidation.onComplete()
+
+        webCalls `should equal` 2
+        refresh.assertValue("UPDATED")
+        memoryStore.value `should equal` "UPDATED"
+    }
+
+    @Test
+    fun `fetch joins the web call started by refresh`() {
+        val response = PublishSubject.create<String>()
+        webSource = response
+
+        val refresh = subject.refresh().test()
+        val fetch = subject.fetch().test()
+        response.onNext("WEB")
+        response.onComplete()
+
+        webCalls `should equal` 1
+        refresh.assertValue("WEB")
+        fetch.assertValue("WEB")
+    }
+
+    @Test
+    fun `refresh calls web source again once the previous call is finished`() {
+        memoryStore.store("MEMORY")
+
+        subject.refresh().test().assertValue("WEB")
+        subject.refresh().test().assertValue("WEB")
+
+        webCalls `should equal` 2
+    }
+
+    private class TestStore : PersistentStore<String> {
+
+        var value: String? = null
+
+        fun optional(): Optional<String> = value?.let { Optional.Some(it) } ?: Optional.None
+
+        override fun store(data: String): Observable<String> {
+            value = data
+            return Observable.just(data)
+        }
+
+        override fun invalidate() {
+            value = null
+        }
+    }
+}
@@ -3,28 +3,41 @@ package piuk.blockchain.androidcore.data.charts
 import com.nhaarman.mockito_kotlin.eq
 import com.nhaarman.mockito_kotlin.verify
 import com.nhaarman.mockito_kotlin.verifyNoMoreInteractions
+import com.nhaarman.mockito_kotlin.verifyZeroInteractions
 import com.nhaarman.mockito_kotlin.whenever
 import info.blockchain.balance.CryptoCurrency
 import info.blockchain.wallet.prices.PriceApi
 import info.blockchain.wallet.prices.Scale
 import info.blockchain.wallet.prices.data.PriceDatum
 import io.reactivex.Single
+import org.amshove.kluent.`should equal`
 import org.amshove.kluent.any
 import org.amshove.kluent.mock
 import org.junit.Before
+import org.junit.Rule
 import org.junit.Test
+import org.junit.rules.TemporaryFolder
 import piuk.blockchain.android.testutils.RxTest
 import piuk.blockchain.androidcore.data.rxjava.RxBus
+import java.io.DataOutputStream
+import java.io.File
+import java.io.FileOutputStream
 
 class ChartsDataManagerTest : RxTest() {
 
+    @get:Rule
+    val folder = TemporaryFolder()
+
     private lateinit var subject: ChartsDataManager
+    private lateinit var chartSeriesStore: ChartSeriesStore
     private val historicPriceApi: PriceApi = mock()
     private val rxBus = RxBus()
+    private val now = System.currentTimeMillis() / 1000
 
     @Before
     fun setUp() {
-        subject = ChartsDataManager(historicPriceApi, rxBus)
+        chartSeriesStore = ChartSeriesStore(folder.root)
+        subject = ChartsDataManager(historicPriceApi, chartSeriesStore, rxBus)
     }
 
     @Test
@@ -188,4 +201,123 @@ class ChartsDataManagerTest : RxTest() {
         )
         verifyNoMoreInteractions(historicPriceApi)
     }
-}
\ No newline at end of file
+
+    @Test
+    fun `up to date series is read from the store`() {
+        // Arrange
+        chartSeriesStore.put(
+            CryptoCurrency.BTC,
+            "USD",
+            Scale.ONE_DAY,
+            series(now - 400 * Scale.ONE_DAY, now - 2 * Scale.ONE_DAY to 5000.0, now - 100 to 5100.0)
+        )
+        // Act
+        val testObserver = subject.getYearPrice(CryptoCurrency.BTC, "USD").test()
+        // Assert
+        testObserver.values().map { it.price } `should equal` listOf(5000.0, 5100.0)
+        verifyZeroInteractions(historicPriceApi)
+    }
+
+    @Test
+    fun `only the missing tail is requested`() {
+        // Arrange
+        val last = now - 3 * Scale.ONE_DAY
+        chartSeriesStore.put(
+            CryptoCurrency.BTC,
+            "USD",
+            Scale.ONE_DAY,
+            series(now - 400 * Scale.ONE_DAY, last - Scale.ONE_DAY to 4900.0, last to 5000.0)
+        )
+        val tail = listOf(
+            priceDatum(last, 5001.0),
+            priceDatum(last + Scale.ONE_DAY, 5100.0),
+            priceDatum(last + 2 * Scale.ONE_DAY, 5200.0)
+        )
+        whenever(historicPriceApi.getHistoricPriceSeries("BTC", "USD", last, Scale.ONE_DAY))
+            .thenReturn(Single.just(tail))
+        // Act
+        val testObserver = subject.getYearPrice(CryptoCurrency.BTC, "USD").test()
+        // Assert
+        testObserver.values().map { it.price } `should equal` listOf(4900.0, 5001.0, 5100.0, 5200.0)
+        verify(historicPriceApi).getHistoricPriceSeries("BTC", "USD", last, Scale.ONE_DAY)
+        verifyNoMoreInteractions(historicPriceApi)
+        chartSeriesStore.get(CryptoCurrency.BTC, "USD", Scale.ONE_DAY)!!.size `should equal` 4
+    }
+
+    @Test
+    fun `finer series is downsampled to extend a coarser one`() {
+        // Arrange
+        val last = now - 3 * Scale.ONE_HOUR
+        chartSeriesStore.put(
+            CryptoCurrency.BTC,
+            "USD",
+            Scale.ONE_HOUR,
+            series(now - 8 * Scale.ONE_DAY, last to 5000.0)
+        )
+        chartSeriesStore.put(
+            CryptoCurrency.BTC,
+            "USD",
+            Scale.FIFTEEN_MINUTES,
+            series(
+                now - 2 * Scale.ONE_DAY,
+                *(0..12).map { last + it * Scale.FIFTEEN_MINUTES to 5000.0 + it }.toTypedArray()
+            )
+        )
+        // Act
+        val testObserver = subject.getWeekPrice(CryptoCurrency.BTC, "USD").test()
+        // Assert
+        testObserver.values().map { it.price } `should equal` listOf(5000.0, 5004.0, 5008.0, 5012.0)
+        verifyZeroInteractions(historicPriceApi)
+    }
+
+    @Test
+    fun `series is persisted`() {
+        // Arrange
+        val data = listOf(priceDatum(now - Scale.ONE_DAY, 5000.0), PriceDatum())
+        whenever(
+            historicPriceApi.getHistoricPriceSeries(
+                eq("BTC"),
+                eq("USD"),
+                any(),
+                eq(Scale.ONE_DAY)
+            )
+        ).thenReturn(Single.just(data))
+        // Act
+        subject.getYearPrice(CryptoCurrency.BTC, "USD").test()
+        // Assert
+        ChartSeriesStore(folder.root).get(CryptoCurrency.BTC, "USD", Scale.ONE_DAY)!!.apply {
+            timestamps.toList() `should equal` listOf(now - Scale.ONE_DAY)
+            prices.toList() `should equal` listOf(5000.0)
+        }
+    }
+
+    @Test
+    fun `corrupt series file is discarded`() {
+        // Arrange
+        val file = File(folder.root, "BTC_USD_${Scale.ONE_DAY}")
+        DataOutputStream(FileOutputStream(file)).use { output ->
+            output.writeInt(1)
+            output.writeLong(now)
+            output.writeInt(Int.MAX_VALUE)
+            output.writeLong(now)
+        }
+        // Act
+        val series = ChartSeriesStore(folder.root).get(CryptoCurrency.BTC, "USD", Scale.ONE_DAY)
+        // Assert
+        series `should equal` null
+        file.exists() `should equal` false
+    }
+
+    private fun series(start: Long, vararg points: Pair<Long, Double>) =
+        ChartSeries(
+            start,
+            points.map { it.first }.toLongArray(),
+            points.map { it.second }.toDoubleArray()
+        )
+
+    private fun priceDatum(timestamp: Long, price: Double): PriceDatum =
+        mock(PriceDatum::class).apply {
+            whenever(this.timestamp).thenReturn(timestamp)
+            whenever(this.price).thenReturn(price)
+        }
+}
@@ -0,0 +1,237 @@
+package piuk.blockchain.androidcore.data.exchangerate.datastore
+
+import com.nhaarman.mockito_kotlin.any
+import com.nhaarman.mockito_kotlin.argumentCaptor
+import com.nhaarman.mockito_kotlin.eq
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.never
+import com.nhaarman.mockito_kotlin.times
+import com.nhaarman.mockito_kotlin.verify
+import com.nhaarman.mockito_kotlin.whenever
+import info.blockchain.balance.CryptoCurrency
+import info.blockchain.wallet.prices.Scale
+import info.blockchain.wallet.prices.data.PriceDatum
+import io.reactivex.Single
+import org.amshove.kluent.`it returns`
+import org.amshove.kluent.`should equal`
+import org.junit.Before
+import org.junit.Test
+import piuk.blockchain.androidcore.data.exchangerate.ExchangeRateService
+import piuk.blockchain.androidcore.utils.PrefsUtil
+import java.math.BigDecimal
+
+class ExchangeRateDataStoreTest {
+
+    private val exchangeRateService: ExchangeRateService = mock()
+    private val prefsUtil: PrefsUtil = mock()
+    private val subject = ExchangeRateDataStore(exchangeRateService, prefsUtil) { NOW }
+
+    @Before
+    fun setUp() {
+        whenever(prefsUtil.getValue("LAST_KNOWN_PRICES", "")).thenReturn("")
+        whenever(prefsUtil.getValue("HISTORIC_PRICES", "")).thenReturn("")
+        CryptoCurrency.values().forEach {
+            whenever(exchangeRateService.getExchangeRateMap(it)).thenReturn(Single.just(emptyMap()))
+        }
+    }
+
+    @Test
+    fun `prices come from the last update`() {
+        givenPrices(CryptoCurrency.BTC, "USD" to 5000.0, "GBP" to 4000.0)
+        givenPrices(CryptoCurrency.ETHER, "USD" to 200.0)
+
+        subject.updateExchangeRates().test().assertComplete()
+
+        subject.getLastPrice(CryptoCurrency.BTC, "GBP") `should equal` 4000.0
+        subject.getLastPrice(CryptoCurrency.ETHER, "USD") `should equal` 200.0
+        subject.getLastPrice(CryptoCurrency.ETHER, "GBP") `should equal` 0.0
+    }
+
+    @Test
+    fun `empty currency is USD`() {
+        givenPrices(CryptoCurrency.BTC, "USD" to 5000.0)
+
+        subject.updateExchangeRates().test()
+
+        subject.getLastPrice(CryptoCurrency.BTC, "") `should equal` 5000.0
+    }
+
+    @Test
+    fun `reading prices doesn't touch preferences`() {
+        givenPrices(CryptoCurrency.BTC, "USD" to 5000.0)
+        subject.updateExchangeRates().test()
+
+        repeat(100) { subject.getLastPrice(CryptoCurrency.BTC, "USD") }
+
+        verify(prefsUtil).getValue("LAST_KNOWN_PRICES", "")
+        verify(prefsUtil).setValue(any(), any<String>())
+    }
+
+    @Test
+    fun `prices are persisted in one write per update`() {
+        givenPrices(CryptoCurrency.BTC, "USD" to 5000.0, "GBP" to 4000.0)
+        givenPrices(CryptoCurrency.XLM, "USD" to 0.1)
+
+        subject.updateExchangeRates().test()
+
+        argumentCaptor<String>().apply {
+            verify(prefsUtil).setValue(eq("LAST_KNOWN_PRICES"), capture())
+            firstValue.split(",").toSet() `should equal` setOf("BTC_USD=5000.0", "BTC_GBP=4000.0", "XLM_USD=0.1")
+        }
+    }
+
+    @Test
+    fun `last known prices are used until the first update`() {
+        whenever(prefsUtil.getValue("LAST_KNOWN_PRICES", "")).thenReturn("BTC_USD=5000.0,ETH_USD=invalid")
+
+        subject.getLastPrice(CryptoCurrency.BTC, "USD") `should equal` 5000.0
+        subject.getLastPrice(CryptoCurrency.ETHER, "USD") `should equal` 0.0
+        subject.getLastPrice(CryptoCurrency.BTC, "GBP") `should equal` 0.0
+
+        verify(prefsUtil).getValue("LAST_KNOWN_PRICES", "")
+        verify(prefsUtil, never()).setValue(any(), any<String>())
+    }
+
+    @Test
+    fun `last known prices are kept for currencies missing from an update`() {
+        whenever(prefsUtil.getValue("LAST_KNOWN_PRICES", "")).thenReturn("ETH_EUR=150.0")
+        givenPrices(CryptoCurrency.BTC, "USD" to 5000.0)
+
+        subject.updateExchangeRates().test()
+
+        argumentCaptor<String>().apply {
+            verify(prefsUtil).setValue(eq("LAST_KNOWN_PRICES"), capture())
+            firstValue.split(",").toSet() `should equal` setOf("ETH_EUR=150.0", "BTC_USD=5000.0")
+        }
+        subject.getLastPrice(CryptoCurrency.ETHER, "EUR") `should equal` 150.0
+    }
+
+    @Test
+    fun `historic price is only requested once per hour`() {
+        val time = NOW - 5 * Scale.ONE_DAY
+        whenever(exchangeRateService.getHistoricPrice(CryptoCurrency.BTC, "USD", time))
+            .thenReturn(Single.just(4000.0))
+
+        subject.getHistoricPrice(CryptoCurrency.BTC, "USD", time).test().assertValue(BigDecimal.valueOf(4000.0))
+        subject.getHistoricPrice(CryptoCurrency.BTC, "USD", time + 60).test().assertValue(BigDecimal.valueOf(4000.0))
+
+        verify(exchangeRateService, times(1)).getHistoricPrice(any(), any(), any())
+        verify(prefsUtil).setValue(eq("HISTORIC_PRICES"), any<String>())
+    }
+
+    @Test
+    fun `historic prices are read from the persisted cache`() {
+        val time = NOW - 100 * Scale.ONE_DAY
+        val day = time - time % Scale.ONE_DAY
+        whenever(prefsUtil.getValue("HISTORIC_PRICES", "")).thenReturn("ETH_GBP_${Scale.ONE_DAY}_$day=150.0")
+
+        subject.getHistoricPrice(CryptoCurrency.ETHER, "GBP", time).test().assertValue(BigDecimal.valueOf(150.0))
+
+        verify(exchangeRateService, never()).getHistoricPrice(any(), any(), any())
+    }
+
+    @Test
+    fun `historic prices are batched into one series per bucket size`() {
+        val recent = NOW - NOW % Scale.ONE_HOUR - 2 * Scale.ONE_HOUR
+        val old = NOW - NOW % Scale.ONE_DAY - 60 * Scale.ONE_DAY
+        givenSeries(
+            Scale.ONE_HOUR,
+            recent,
+            recent to 5000.0,
+            recent + Scale.ONE_HOUR to 5100.0
+        )
+        givenSeries(Scale.ONE_DAY, old, old to 3000.0)
+
+        subject.getHistoricPrices(
+            CryptoCurrency.BTC,
+            "USD",
+            listOf(recent + 10, recent + Scale.ONE_HOUR + 10, old + 10)
+        ).test().values().single() `should equal` mapOf(
+            recent + 10 to BigDecimal.valueOf(5000.0),
+            recent + Scale.ONE_HOUR + 10 to BigDecimal.valueOf(5100.0),
+            old + 10 to BigDecimal.valueOf(3000.0)
+        )
+
+        verify(exchangeRateService, times(2)).getHistoricPriceSeries(any(), any(), any(), any())
+        verify(exchangeRateService, never()).getHistoricPrice(any(), any(), any())
+    }
+
+    @Test
+    fun `cached historic prices are not requested again`() {
+        val recent = NOW - NOW % Scale.ONE_HOUR - 2 * Scale.ONE_HOUR
+        givenSeries(Scale.ONE_HOUR, recent, recent to 5000.0)
+        subject.getHistoricPrices(CryptoCurrency.BTC, "USD", listOf(recent)).test()
+
+        subject.getHistoricPrices(CryptoCurrency.BTC, "USD", listOf(recent + 60)).test()
+            .assertValue(mapOf(recent + 60 to BigDecimal.valueOf(5000.0)))
+
+        verify(exchangeRateService, times(1)).getHistoricPriceSeries(any(), any(), any(), any())
+    }
+
+    @Test
+    fun `gaps in the series fall back to a single lookup`() {
+        val recent = NOW - NOW % Scale.ONE_HOUR - 2 * Scale.ONE_HOUR
+        val gap = recent + Scale.ONE_HOUR
+        givenSeries(Scale.ONE_HOUR, recent, recent to 5000.0)
+        whenever(exchangeRateService.getHistoricPrice(CryptoCurrency.BTC, "USD", gap))
+            .thenReturn(Single.just(5050.0))
+
+        subject.getHistoricPrices(CryptoCurrency.BTC, "USD", listOf(recent, gap)).test()
+            .assertValue(mapOf(recent to BigDecimal.valueOf(5000.0), gap to BigDecimal.valueOf(5050.0)))
+    }
+
+    @Test
+    fun `only requested buckets are kept from a long series`() {
+        val old = NOW - NOW % Scale.ONE_DAY - 1500L * Scale.ONE_DAY
+        givenSeries(
+            Scale.ONE_DAY,
+            old,
+            *(0 until 1500).map { old + it * Scale.ONE_DAY to 3000.0 + it }.toTypedArray()
+        )
+
+        subject.getHistoricPrices(CryptoCurrency.BTC, "USD", listOf(old + 10)).test()
+            .assertValue(mapOf(old + 10 to BigDecimal.valueOf(3000.0)))
+
+        verify(exchangeRateService, never()).getHistoricPrice(any(), any(), any())
+        argumentCaptor<String>().apply {
+            verify(prefsUtil).setValue(eq("HISTORIC_PRICES"), capture())
+            firstValue `should equal` "BTC_USD_${Scale.ONE_DAY}_$old=3000.0"
+        }
+    }
+
+    @Test
+    fun `historic prices are persisted in one write per lookup`() {
+        val recent = NOW - NOW % Scale.ONE_HOUR - 2 * Scale.ONE_HOUR
+        val gap = recent + Scale.ONE_HOUR
+        givenSeries(Scale.ONE_HOUR, recent, recent to 5000.0)
+        whenever(exchangeRateService.getHistoricPrice(CryptoCurrency.BTC, "USD", gap))
+            .thenReturn(Single.just(5050.0))
+
+        subject.getHistoricPrices(CryptoCurrency.BTC, "USD", listOf(recent, gap)).test()
+        subject.getHistoricPrices(CryptoCurrency.BTC, "USD", listOf(recent, gap)).test()
+
+        verify(prefsUtil, times(1)).setValue(eq("HISTORIC_PRICES"), any<String>())
+    }
+
+    private fun givenSeries(scale: Int, start: Long, vararg prices: Pair<Long, Double>) {
+        val series = prices.map { (timestamp, price) ->
+            mock<PriceDatum> {
+                on { this.timestamp } `it returns` timestamp
+                on { this.price } `it returns` price
+            }
+        }
+        whenever(exchangeRateService.getHistoricPriceSeries(CryptoCurrency.BTC, "USD", start, scale))
+            .thenReturn(Single.just(series))
+    }
+
+    private fun givenPrices(cryptoCurrency: CryptoCurrency, vararg prices: Pair<String, Double>) {
+        val tickerData = prices.map { (currency, price) ->
+            currency to mock<PriceDatum> { on { this.price } `it returns` price }
+        }.toMap()
+        whenever(exchangeRateService.getExchangeRateMap(cryptoCurrency)).thenReturn(Single.just(tickerData))
+    }
+
+    companion object {
+        private const val NOW = 1_550_000_000L
+    }
+}
@@ -1,10 +1,14 @@
 package piuk.blockchain.androidcore.data.metadata
 
+import com.nhaarman.mockito_kotlin.doThrow
 import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.times
 import com.nhaarman.mockito_kotlin.verify
 import com.nhaarman.mockito_kotlin.verifyNoMoreInteractions
 import com.nhaarman.mockito_kotlin.whenever
+import com.google.common.base.Optional
 import info.blockchain.wallet.exceptions.InvalidCredentialsException
+import info.blockchain.wallet.exceptions.MetadataException
 import info.blockchain.wallet.metadata.Metadata
 import info.blockchain.wallet.metadata.MetadataNodeFactory
 import io.reactivex.Completable
@@ -26,6 +30,7 @@ class MetadataManagerTest {
     private val metadataUtils: MetadataUtils = mock()
     private val rxBus: RxBus = RxBus()
     private val networkParameters = BitcoinMainNetParams.get()
+    private var currentTimeMillis = 0L
 
     @Suppress("unused")
     @get:Rule
@@ -40,7 +45,7 @@ class MetadataManagerTest {
             payloadDataManager,
             metadataUtils,
             rxBus
-        )
+        ) { currentTimeMillis }
     }
 
     @Test
@@ -143,4 +148,206 @@ class MetadataManagerTest {
         verify(metadataUtils).getMetadataNode(node, type)
         verify(metadata).putMetadata(data)
     }
-}
\ No newline at end of file
+
+    @Test
+    fun `metadata node is reused for the same type`() {
+        // Arrange
+        val type = 1337
+        val factory: MetadataNodeFactory = mock()
+        val node: DeterministicKey = mock()
+        val metadata: Metadata = mock()
+        whenever(payloadDataManager.getMetadataNodeFactory()).thenReturn(Observable.just(factory))
+        whenever(factory.metadataNode).thenReturn(node)
+        whenever(metadataUtils.getMetadataNode(node, type)).thenReturn(metadata)
+        // Act
+        subject.saveToMetadata("DATA", type).test().assertComplete()
+        subject.saveToMetadata("DATA2", type).test().assertComplete()
+        // Assert
+        verify(metadataUtils).getMetadataNode(node, type)
+        verify(metadata).putMetadata("DATA")
+        verify(metadata).putMetadata("DATA2")
+    }
+
+    @Test
+    fun `metadata node is derived again for a new metadata node`() {
+        // Arrange
+        val type = 1337
+        val factory: MetadataNodeFactory = mock()
+        val node1: DeterministicKey = mock()
+        val node2: DeterministicKey = mock()
+        whenever(payloadDataManager.getMetadataNodeFactory()).thenReturn(Observable.just(factory))
+        whenever(factory.metadataNode).thenReturn(node1, node2)
+        whenever(metadataUtils.getMetadataNode(node1, type)).thenReturn(mock())
+        whenever(metadataUtils.getMetadataNode(node2, type)).thenReturn(mock())
+        // Act
+        subject.saveToMetadata("DATA", type).test().assertComplete()
+        subject.saveToMetadata("DATA", type).test().assertComplete()
+        // Assert
+        verify(metadataUtils).getMetadataNode(node1, type)
+        verify(metadataUtils).getMetadataNode(node2, type)
+    }
+
+    @Test
+    fun `metadata node is derived again after a failed save`() {
+        // Arrange
+        val type = 1337
+        val factory: MetadataNodeFactory = mock()
+        val node: DeterministicKey = mock()
+        val failing: Metadata = mock()
+        whenever(payloadDataManager.getMetadataNodeFactory()).thenReturn(Observable.just(factory))
+        whenever(factory.metadataNode).thenReturn(node)
+        whenever(metadataUtils.getMetadataNode(node, type)).thenReturn(failing, mock())
+        doThrow(MetadataException("409")).whenever(failing).putMetadata("DATA")
+        // Act
+        subject.saveToMetadata("DATA", type).test().assertError(MetadataException::class.java)
+        subject.saveToMetadata("DATA", type).test().assertComplete()
+        // Assert
+        verify(metadataUtils, times(2)).getMetadataNode(node, type)
+    }
+
+    @Test
+    fun `clearCachedMetadata drops cached nodes`() {
+        // Arrange
+        val type = 1337
+        val factory: MetadataNodeFactory = mock()
+        val node: DeterministicKey = mock()
+        whenever(payloadDataManager.getMetadataNodeFactory()).thenReturn(Observable.just(factory))
+        whenever(factory.metadataNode).thenReturn(node)
+        whenever(metadataUtils.getMetadataNode(node, type)).thenReturn(mock())
+        // Act
+        subject.saveToMetadata("DATA", type).test().assertComplete()
+        subject.clearCachedMetadata()
+        subject.saveToMetadata("DATA", type).test().assertComplete()
+        // Assert
+        verify(metadataUtils, times(2)).getMetadataNode(node, type)
+    }
+
+    @Test
+    fun `prefetched metadata is served from memory`() {
+        // Arrange
+        val factory: MetadataNodeFactory = mock()
+        val node: DeterministicKey = mock()
+        val metadata1: Metadata = mock()
+        val metadata2: Metadata = mock()
+        whenever(payloadDataManager.getMetadataNodeFactory()).thenReturn(Observable.just(factory))
+        whenever(factory.metadataNode).thenReturn(node)
+        whenever(metadataUtils.getMetadataNode(node, 1)).thenReturn(metadata1)
+        whenever(metadataUtils.getMetadataNode(node, 2)).thenReturn(metadata2)
+        whenever(metadata1.metadataOptional).thenReturn(Optional.of("ONE"))
+        whenever(metadata2.metadataOptional).thenReturn(Optional.absent())
+        // Act
+        subject.prefetchMetadata(listOf(1, 2)).test().assertComplete()
+        val testObserver1 = subject.fetchMetadata(1).test()
+        val testObserver2 = subject.fetchMetadata(2).test()
+        // Assert
+        testObserver1.assertValue(Optional.of("ONE"))
+        testObserver2.assertValue(Optional.absent())
+        verify(metadata1).metadataOptional
+        verify(metadata2).metadataOptional
+    }
+
+    @Test
+    fun `prefetch ignores failures`() {
+        // Arrange
+        val factory: MetadataNodeFactory = mock()
+        val node: DeterministicKey = mock()
+        val metadata1: Metadata = mock()
+        val metadata2: Metadata = mock()
+        whenever(payloadDataManager.getMetadataNodeFactory()).thenReturn(Observable.just(factory))
+        whenever(factory.metadataNode).thenReturn(node)
+        whenever(metadataUtils.getMetadataNode(node, 1)).thenReturn(metadata1)
+        whenever(metadataUtils.getMetadataNode(node, 2)).thenReturn(metadata2)
+        whenever(metadata1.metadataOptional).thenThrow(MetadataException("500"))
+        whenever(metadata2.metadataOptional).thenReturn(Optional.of("TWO"))
+        // Act
+        val testObserver = subject.prefetchMetadata(listOf(1, 2)).test()
+        // Assert
+        testObserver.assertComplete()
+        subject.fetchMetadata(2).test().assertValue(Optional.of("TWO"))
+        verify(metadata2).metadataOptional
+    }
+
+    @Test
+    fun `saved metadata is served from memory`() {
+        // Arrange
+        val type = 1337
+        val factory: MetadataNodeFactory = mock()
+        val node: DeterministicKey = mock()
+        val metadata: Metadata = mock()
+        whenever(payloadDataManager.getMetadataNodeFactory()).thenReturn(Observable.just(factory))
+        whenever(factory.metadataNode).thenReturn(node)
+        whenever(metadataUtils.getMetadataNode(node, type)).thenReturn(metadata)
+        // Act
+        subject.saveToMetadata("DATA", type).test().assertComplete()
+        val testObserver = subject.fetchMetadata(type).test()
+        // Assert
+        testObserver.assertValue(Optional.of("DATA"))
+        verify(metadata).putMetadata("DATA")
+        verifyNoMoreInteractions(metadata)
+    }
+
+    @Test
+    fun `metadata entries are fetched again once old`() {
+        // Arrange
+        val type = 1337
+        val factory: MetadataNodeFactory = mock()
+        val node: DeterministicKey = mock()
+        val metadata: Metadata = mock()
+        whenever(payloadDataManager.getMetadataNodeFactory()).thenReturn(Observable.just(factory))
+        whenever(factory.metadataNode).thenReturn(node)
+        whenever(metadataUtils.getMetadataNode(node, type)).thenReturn(metadata)
+        whenever(metadata.metadataOptional).thenReturn(Optional.of("ONE"), Optional.of("TWO"))
+        // Act
+        subject.fetchMetadata(type).test().assertValue(Optional.of("ONE"))
+        currentTimeMillis += 29_999
+        subject.fetchMetadata(type).test().assertValue(Optional.of("ONE"))
+        currentTimeMillis += 1
+        val testObserver = subject.fetchMetadata(type).test()
+        // Assert
+        testObserver.assertValue(Optional.of("TWO"))
+        verify(metadata, times(2)).metadataOptional
+    }
+
+    @Test
+    fun `metadata entries are not served for a new metadata node`() {
+        // Arrange
+        val type = 1337
+        val factory: MetadataNodeFactory = mock()
+        val node1: DeterministicKey = mock()
+        val node2: DeterministicKey = mock()
+        val metadata1: Metadata = mock()
+        val metadata2: Metadata = mock()
+        whenever(payloadDataManager.getMetadataNodeFactory()).thenReturn(Observable.just(factory))
+        whenever(factory.metadataNode).thenReturn(node1, node2)
+        whenever(metadataUtils.getMetadataNode(node1, type)).thenReturn(metadata1)
+        whenever(metadataUtils.getMetadataNode(node2, type)).thenReturn(metadata2)
+        whenever(metadata1.metadataOptional).thenReturn(Optional.of("ONE"))
+        whenever(metadata2.metadataOptional).thenReturn(Optional.of("TWO"))
+        // Act
+        subject.fetchMetadata(type).test().assertValue(Optional.of("ONE"))
+        val testObserver = subject.fetchMetadata(type).test()
+        // Assert
+        testObserver.assertValue(Optional.of("TWO"))
+    }
+
+    @Test
+    fun `metadata fetched while clearing the cache is not kept`() {
+        // Arrange
+        val type = 1337
+        val factory: MetadataNodeFactory = mock()
+        val node: DeterministicKey = mock()
+        val metadata: Metadata = mock()
+        whenever(payloadDataManager.getMetadataNodeFactory()).thenReturn(Observable.just(factory))
+        whenever(factory.metadataNode).thenReturn(node)
+        whenever(metadataUtils.getMetadataNode(node, type)).thenReturn(metadata)
+        whenever(metadata.metadataOptional).thenAnswer {
+            subject.clearCachedMetadata()
+            Optional.of("ONE")
+        }.thenReturn(Optional.of("TWO"))
+        // Act
+        subject.fetchMetadata(type).test().assertValue(Optional.of("ONE"))
+        val testObserver = subject.fetchMetadata(type).test()
+        // Assert
+        testObserver.assertValue(Optional.of("TWO"))
+    }
+}
@@ -16,7 +16,6 @@ import info.blockchain.wallet.payment.Payment
 import info.blockchain.wallet.payment.SpendableUnspentOutputs
 import io.reactivex.Single
 import junit.framework.Assert.assertEquals
-import junit.framework.Assert.assertTrue
 import okhttp3.MediaType
 import okhttp3.ResponseBody
 import org.amshove.kluent.`should be instance of`
@@ -120,6 +119,7 @@ class PaymentServiceTest {
             mockEcKeys
         )
         verify(payment).publishSimpleTransaction(mockTx)
+        verify(payment).invalidateUnspentCoins(CryptoCurrency.BTC)
         verifyNoMoreInteractions(payment)
         verify(environmentSettings, atLeastOnce()).bitcoinNetworkParameters
         verify(environmentSettings, never()).bitcoinCashNetworkParameters
@@ -306,6 +306,7 @@ class PaymentServiceTest {
             mockEcKeys
         )
         verify(payment).publishTransactionWithSecret(CryptoCurrency.BCH, mockTx, "SECRET")
+        verify(payment).invalidateUnspentCoins(CryptoCurrency.BCH)
         verifyNoMoreInteractions(payment)
         verify(environmentSettings, atLeastOnce()).bitcoinCashNetworkParameters
         verify(environmentSettings, never()).bitcoinNetworkParameters
@@ -446,36 +447,15 @@ class PaymentServiceTest {
     fun getUnspentOutputsSuccess() {
         // Arrange
         val address = "ADDRESS"
-        val mockCall = mock<Call<UnspentOutputs>>()
         val mockOutputs = mock(UnspentOutputs::class.java)
-        val response = Response.success(mockOutputs)
-        whenever(mockCall.execute()).thenReturn(response)
-        whenever(payment.getUnspentCoins(listOf(address))).thenReturn(mockCall)
+        whenever(payment.getCachedUnspentCoins(listOf(address))).thenReturn(mockOutputs)
         // Act
         val testObserver = subject.getUnspentOutputs(address).test()
         // Assert
         testObserver.assertComplete()
         testObserver.assertNoErrors()
         assertEquals(mockOutputs, testObserver.values()[0])
-        verify(payment).getUnspentCoins(listOf(address))
-        verifyNoMoreInteractions(payment)
-    }
-
-    @Test
-    fun getUnspentOutputs500Error() {
-        // Arrange
-        val address = "ADDRESS"
-        val mockCall = mock<Call<UnspentOutputs>>()
-        val response = Response.error<UnspentOutputs>(500, mock(ResponseBody::class.java))
-        whenever(mockCall.execute()).thenReturn(response)
-        whenever(payment.getUnspentCoins(listOf(address))).thenReturn(mockCall)
-        // Act
-        val testObserver = subject.getUnspentOutputs(address).test()
-        // Assert
-        testObserver.assertComplete()
-        testObserver.assertNoErrors()
-        assertTrue(testObserver.values()[0].unspentOutputs.isEmpty())
-        verify(payment).getUnspentCoins(listOf(address))
+        verify(payment).getCachedUnspentCoins(listOf(address))
         verifyNoMoreInteractions(payment)
     }
 
@@ -483,10 +463,7 @@ class PaymentServiceTest {
     fun getUnspentOutputsFailed() {
         // Arrange
         val address = "ADDRESS"
-        val mockCall = mock<Call<UnspentOutputs>>()
-        val response = Response.error<UnspentOutputs>(404, mock(ResponseBody::class.java))
-        whenever(mockCall.execute()).thenReturn(response)
-        whenever(payment.getUnspentCoins(listOf(address))).thenReturn(mockCall)
+        whenever(payment.getCachedUnspentCoins(listOf(address))).thenThrow(ApiException("404"))
         // Act
         val testObserver = subject.getUnspentOutputs(address).test()
         // Assert
@@ -494,7 +471,7 @@ class PaymentServiceTest {
         testObserver.assertTerminated()
         testObserver.assertNoValues()
         testObserver.assertError(ApiException::class.java)
-        verify(payment).getUnspentCoins(listOf(address))
+        verify(payment).getCachedUnspentCoins(listOf(address))
         verifyNoMoreInteractions(payment)
     }
 
@@ -502,36 +479,15 @@ class PaymentServiceTest {
     fun getUnspentBchOutputsSuccess() {
         // Arrange
         val address = "ADDRESS"
-        val mockCall = mock<Call<UnspentOutputs>>()
         val mockOutputs = mock(UnspentOutputs::class.java)
-        val response = Response.success(mockOutputs)
-        whenever(mockCall.execute()).thenReturn(response)
-        whenever(payment.getUnspentBchCoins(listOf(address))).thenReturn(mockCall)
+        whenever(payment.getCachedUnspentBchCoins(listOf(address))).thenReturn(mockOutputs)
         // Act
         val testObserver = subject.getUnspentBchOutputs(address).test()
         // Assert
         testObserver.assertComplete()
         testObserver.assertNoErrors()
         assertEquals(mockOutputs, testObserver.values()[0])
-        verify(payment).getUnspentBchCoins(listOf(address))
-        verifyNoMoreInteractions(payment)
-    }
-
-    @Test
-    fun getUnspentBchOutputs500Error() {
-        // Arrange
-        val address = "ADDRESS"
-        val mockCall = mock<Call<UnspentOutputs>>()
-        val response = Response.error<UnspentOutputs>(500, mock(ResponseBody::class.java))
-        whenever(mockCall.execute()).thenReturn(response)
-        whenever(payment.getUnspentBchCoins(listOf(address))).thenReturn(mockCall)
-        // Act
-        val testObserver = subject.getUnspentBchOutputs(address).test()
-        // Assert
-        testObserver.assertComplete()
-        testObserver.assertNoErrors()
-        assertTrue(testObserver.values()[0].unspentOutputs.isEmpty())
-        verify(payment).getUnspentBchCoins(listOf(address))
+        verify(payment).getCachedUnspentBchCoins(listOf(address))
         verifyNoMoreInteractions(payment)
     }
 
@@ -539,10 +495,7 @@ class PaymentServiceTest {
     fun getUnspentBchOutputsFailed() {
         // Arrange
         val address = "ADDRESS"
-        val mockCall = mock<Call<UnspentOutputs>>()
-        val response = Response.error<UnspentOutputs>(404, mock(ResponseBody::class.java))
-        whenever(mockCall.execute()).thenReturn(response)
-        whenever(payment.getUnspentBchCoins(listOf(address))).thenReturn(mockCall)
+        whenever(payment.getCachedUnspentBchCoins(listOf(address))).thenThrow(ApiException("404"))
         // Act
         val testObserver = subject.getUnspentBchOutputs(address).test()
         // Assert
@@ -550,7 +503,7 @@ class PaymentServiceTest {
         testObserver.assertTerminated()
         testObserver.assertNoValues()
         testObserver.assertError(ApiException::class.java)
-        verify(payment).getUnspentBchCoins(listOf(address))
+        verify(payment).getCachedUnspentBchCoins(listOf(address))
         verifyNoMoreInteractions(payment)
     }
 
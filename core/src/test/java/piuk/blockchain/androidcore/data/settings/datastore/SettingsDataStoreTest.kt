@@ -16,7 +16,7 @@ class SettingsDataStoreTest : RxTest() {
     private val memoryStore: SettingsMemoryStore = mock()
 
     @Test
-    fun `getSettings using DefaultFetchStrategy from websource`() {
+    fun `getSettings from websource when nothing is stored`() {
         // Arrange
         val mockSettings: Settings = mock()
         webSource = Observable.just(mockSettings)
@@ -0,0 +1,88 @@
+package piuk.blockchain.androidcore.data.transactions
+
+import info.blockchain.wallet.multiaddress.TransactionSummary
+import org.amshove.kluent.`should equal`
+import org.junit.Test
+import piuk.blockchain.androidcore.data.transactions.models.BtcDisplayable
+import piuk.blockchain.androidcore.data.transactions.models.Displayable
+import java.math.BigInteger
+
+class TransactionListStoreTest {
+
+    private val subject = TransactionListStore()
+
+    @Test
+    fun `transactions are sorted newest first`() {
+        subject.insertTransactions(listOf(tx("a", 100), tx("b", 300), tx("c", 200)))
+
+        subject.list.map { it.hash } `should equal` listOf("b", "c", "a")
+    }
+
+    @Test
+    fun `single insert is placed by date`() {
+        subject.insertTransactions(listOf(tx("a", 300), tx("b", 100)))
+
+        subject.insertTransactionIntoListAndSort(tx("c", 200))
+
+        subject.list.map { it.hash } `should equal` listOf("a", "c", "b")
+    }
+
+    @Test
+    fun `equal dates keep insertion order`() {
+        subject.insertTransactions(listOf(tx("a", 100), tx("b", 100), tx("c", 100)))
+
+        subject.list.map { it.hash } `should equal` listOf("a", "b", "c")
+    }
+
+    @Test
+    fun `duplicates are replaced in place`() {
+        subject.insertTransactions(listOf(tx("a", 300), tx("b", 200)))
+
+        subject.insertTransactionIntoListAndSort(tx("b", 200, confirmations = 3))
+
+        subject.list.size `should equal` 2
+        subject.list[1].confirmations `should equal` 3
+        subject.txConfirmationsMap["b"] `should equal` 3
+    }
+
+    @Test
+    fun `duplicate with a new date is moved`() {
+        subject.insertTransactions(listOf(tx("a", 300), tx("b", 200), tx("c", 100)))
+
+        subject.insertTransactionIntoListAndSort(tx("c", 400))
+
+        subject.list.map { it.hash } `should equal` listOf("c", "a", "b")
+    }
+
+    @Test
+    fun `replace keeps unchanged transactions`() {
+        val a = tx("a", 300)
+        subject.insertTransactions(listOf(a, tx("b", 200), tx("c", 100)))
+
+        subject.replaceTransactions(listOf(tx("d", 400), tx("a", 300), tx("c", 100)))
+
+        subject.list.map { it.hash } `should equal` listOf("d", "a", "c")
+        (subject.list[1] === a) `should equal` true
+    }
+
+    @Test
+    fun `clear removes everything`() {
+        subject.insertTransactions(listOf(tx("a", 300), tx("b", 200)))
+
+        subject.clearList()
+
+        subject.list.isEmpty() `should equal` true
+    }
+
+    private fun tx(hash: String, time: Long, confirmations: Int = 0): Displayable =
+        BtcDisplayable(TransactionSummary().apply {
+            this.direction = TransactionSummary.Direction.RECEIVED
+            this.time = time
+            this.total = BigInteger.TEN
+            this.fee = BigInteger.ONE
+            this.hash = hash
+            this.inputsMap = HashMap()
+            this.outputsMap = HashMap()
+            this.confirmations = confirmations
+        })
+}
@@ -0,0 +1,19 @@
+package piuk.blockchain.androidcoreui
+
+import io.reactivex.Observable
+
+/**
+ * Emits whether the app is in the foreground, starting with the current state.
+ */
+fun ApplicationLifeCycle.inForeground(): Observable<Boolean> =
+    Observable.create { emitter ->
+        val listener = object : ApplicationLifeCycle.LifeCycleListener {
+
+            override fun onBecameForeground() = emitter.onNext(true)
+
+            override fun onBecameBackground() = emitter.onNext(false)
+        }
+        addListener(listener)
+        emitter.setCancellable { removeListener(listener) }
+        emitter.onNext(isForeground)
+    }
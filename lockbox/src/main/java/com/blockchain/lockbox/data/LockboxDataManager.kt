@@ -33,6 +33,11 @@ class LockboxDataManager(
             }
             .defaultIfEmpty(emptyList())
             .toSingle()
+
+    companion object {
+
+        const val METADATA_TYPE = LockboxMetadata.MetaDataType
+    }
 }
 
 private fun Device.accounts() =
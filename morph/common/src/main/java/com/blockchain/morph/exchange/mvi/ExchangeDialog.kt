@@ -9,6 +9,7 @@ import info.blockchain.balance.compareTo
 import info.blockchain.balance.times
 import info.blockchain.balance.withMajorValue
 import io.reactivex.Observable
+import java.math.MathContext
 
 /**
  * The dialog is the conversation between the User and the System.
@@ -57,7 +58,51 @@ private fun ExchangeViewState.clearQuote() =
         toFiat = if (fix != Fix.COUNTER_FIAT) toFiat.toZero() else toFiat,
         fromCrypto = if (fix != Fix.BASE_CRYPTO) fromCrypto.toZero() else fromCrypto,
         toCrypto = if (fix != Fix.COUNTER_CRYPTO) toCrypto.toZero() else toCrypto
+    ).let {
+        if (upToDate) it else it.estimateFromLastQuote()
+    }
+
+/**
+ * Works out the values the user didn't enter from the rates of the last quote, so they can be shown
+ * while a quote for the new value is on its way. They are left out of date, and don't match a quote,
+ * so nothing can be traded on them.
+ */
+private fun ExchangeViewState.estimateFromLastQuote(): ExchangeViewState {
+    val quote = lastQuote ?: return this
+    if (quote.from.cryptoValue.currency != fromCrypto.currency ||
+        quote.to.cryptoValue.currency != toCrypto.currency ||
+        quote.from.fiatValue.currencyCode != fromFiat.currencyCode ||
+        quote.to.fiatValue.currencyCode != toFiat.currencyCode ||
+        quote.baseToFiatRate.signum() == 0 ||
+        quote.baseToCounterRate.signum() == 0 ||
+        quote.counterToFiatRate.signum() == 0
+    ) {
+        return this
+    }
+    val base = when (fix) {
+        Fix.BASE_CRYPTO -> fromCrypto.toBigDecimal()
+        Fix.BASE_FIAT -> fromFiat.toBigDecimal().divide(quote.baseToFiatRate, MathContext.DECIMAL64)
+        Fix.COUNTER_CRYPTO -> toCrypto.toBigDecimal().divide(quote.baseToCounterRate, MathContext.DECIMAL64)
+        Fix.COUNTER_FIAT -> toFiat.toBigDecimal()
+            .divide(quote.counterToFiatRate * quote.baseToCounterRate, MathContext.DECIMAL64)
+    }
+    val counter = base * quote.baseToCounterRate
+    return copy(
+        fromCrypto = if (fix == Fix.BASE_CRYPTO) fromCrypto else fromCrypto.currency.withMajorValue(base),
+        fromFiat = if (fix == Fix.BASE_FIAT) {
+            fromFiat
+        } else {
+            FiatValue.fromMajor(fromFiat.currencyCode, base * quote.baseToFiatRate)
+        },
+        toCrypto = if (fix == Fix.COUNTER_CRYPTO) toCrypto else toCrypto.currency.withMajorValue(counter),
+        toFiat = if (fix == Fix.COUNTER_FIAT) {
+            toFiat
+        } else {
+            FiatValue.fromMajor(toFiat.currencyCode, counter * quote.counterToFiatRate)
+        },
+        upToDate = false
     )
+}
 
 private fun ExchangeViewState.setSpendable(cryptoValue: CryptoValue): ExchangeViewState {
     if (cryptoValue.currency != fromAccount.cryptoCurrency) {
@@ -184,6 +229,11 @@ data class ExchangeViewState(
     val fromFiat: FiatValue,
     val toFiat: FiatValue,
     val latestQuote: Quote?,
+    /**
+     * The last quote applied, which unlike [latestQuote] is kept when the quote is cleared, so that
+     * values can be estimated from its rates until the next quote arrives.
+     */
+    val lastQuote: Quote? = latestQuote,
     val minTradeLimit: FiatValue? = null,
     val maxTradeLimit: FiatValue? = null,
     val maxTierLimit: FiatValue? = null,
@@ -280,6 +330,7 @@ private fun ExchangeViewState.map(intent: SimpleFieldUpdateIntent): ExchangeView
         )
         Fix.COUNTER_CRYPTO -> copy(toCrypto = toCrypto.currency.withMajorValue(intent.userValue), upToDate = false)
     }.copy(decimalCursor = intent.decimalCursor)
+        .estimateFromLastQuote()
 }
 
 private fun ExchangeViewState.toggleFiatCrypto() = copy(fix = fix.toggleFiatCrypto())
@@ -355,6 +406,7 @@ private fun ExchangeViewState.mapQuote(intent: QuoteIntent) =
             toCrypto = intent.quote.to.cryptoValue,
             toFiat = intent.quote.to.fiatValue,
             latestQuote = intent.quote,
+            lastQuote = intent.quote,
             upToDate = true)
     } else {
         this
@@ -0,0 +1,152 @@
+package com.blockchain.morph.exchange.mvi
+
+import com.blockchain.testutils.bitcoin
+import com.blockchain.testutils.cad
+import com.blockchain.testutils.ether
+import info.blockchain.balance.CryptoCurrency
+import org.amshove.kluent.`should be`
+import org.amshove.kluent.`should equal`
+import org.junit.Test
+
+class EstimateFromLastQuoteTest {
+
+    private val quote = Quote(
+        fix = Fix.BASE_CRYPTO,
+        from = 1.bitcoin() `equivalent to` 5000.cad(),
+        to = 20.ether() `equivalent to` 4900.cad(),
+        baseToFiatRate = 5000.toBigDecimal(),
+        baseToCounterRate = 20.toBigDecimal(),
+        counterToFiatRate = 245.toBigDecimal()
+    )
+
+    @Test
+    fun `"from crypto" entered`() {
+        given(
+            initial("CAD", CryptoCurrency.BTC to CryptoCurrency.ETHER)
+        ).on(
+            SetFixIntent(Fix.BASE_CRYPTO),
+            SimpleFieldUpdateIntent(1.toBigDecimal()),
+            quote.toIntent(),
+            SimpleFieldUpdateIntent(2.toBigDecimal())
+        ) {
+            assertValue {
+                it.from `should equal` value(
+                    userEntered(2.bitcoin()),
+                    outOfDate(10000.cad())
+                )
+                it.to `should equal` value(
+                    outOfDate(40.ether()),
+                    outOfDate(9800.cad())
+                )
+                it.isValid `should be` false
+                true
+            }
+        }
+    }
+
+    @Test
+    fun `"from fiat" entered`() {
+        given(
+            initial("CAD", CryptoCurrency.BTC to CryptoCurrency.ETHER)
+        ).onLastStateAfter(
+            SetFixIntent(Fix.BASE_CRYPTO),
+            SimpleFieldUpdateIntent(1.toBigDecimal()),
+            quote.toIntent(),
+            SetFixIntent(Fix.BASE_FIAT),
+            SimpleFieldUpdateIntent(2500.toBigDecimal())
+        ) {
+            fromFiat `should equal` 2500.cad()
+            fromCrypto `should equal` 0.5.bitcoin()
+            toCrypto `should equal` 10.ether()
+            toFiat `should equal` 2450.cad()
+            upToDate `should be` false
+        }
+    }
+
+    @Test
+    fun `"to crypto" entered`() {
+        given(
+            initial("CAD", CryptoCurrency.BTC to CryptoCurrency.ETHER)
+        ).onLastStateAfter(
+            SetFixIntent(Fix.BASE_CRYPTO),
+            SimpleFieldUpdateIntent(1.toBigDecimal()),
+            quote.toIntent(),
+            SetFixIntent(Fix.COUNTER_CRYPTO),
+            SimpleFieldUpdateIntent(10.toBigDecimal())
+        ) {
+            fromFiat `should equal` 2500.cad()
+            fromCrypto `should equal` 0.5.bitcoin()
+            toCrypto `should equal` 10.ether()
+            toFiat `should equal` 2450.cad()
+        }
+    }
+
+    @Test
+    fun `"to fiat" entered`() {
+        given(
+            initial("CAD", CryptoCurrency.BTC to CryptoCurrency.ETHER)
+        ).onLastStateAfter(
+            SetFixIntent(Fix.BASE_CRYPTO),
+            SimpleFieldUpdateIntent(1.toBigDecimal()),
+            quote.toIntent(),
+            SetFixIntent(Fix.COUNTER_FIAT),
+            SimpleFieldUpdateIntent(2450.toBigDecimal())
+        ) {
+            fromFiat `should equal` 2500.cad()
+            fromCrypto `should equal` 0.5.bitcoin()
+            toCrypto `should equal` 10.ether()
+            toFiat `should equal` 2450.cad()
+        }
+    }
+
+    @Test
+    fun `estimates are kept when the mismatched quote is cleared`() {
+        given(
+            initial("CAD", CryptoCurrency.BTC to CryptoCurrency.ETHER)
+        ).onLastStateAfter(
+            SetFixIntent(Fix.BASE_CRYPTO),
+            SimpleFieldUpdateIntent(1.toBigDecimal()),
+            quote.toIntent(),
+            SimpleFieldUpdateIntent(2.toBigDecimal()),
+            ClearQuoteIntent,
+            SimpleFieldUpdateIntent(3.toBigDecimal())
+        ) {
+            latestQuote `should be` null
+            fromFiat `should equal` 15000.cad()
+            toCrypto `should equal` 60.ether()
+            toFiat `should equal` 14700.cad()
+        }
+    }
+
+    @Test
+    fun `up to date values are cleared when the quote times out`() {
+        given(
+            initial("CAD", CryptoCurrency.BTC to CryptoCurrency.ETHER)
+        ).onLastStateAfter(
+            SetFixIntent(Fix.BASE_CRYPTO),
+            SimpleFieldUpdateIntent(1.toBigDecimal()),
+            quote.toIntent(),
+            ClearQuoteIntent
+        ) {
+            fromFiat `should equal` 0.cad()
+            toCrypto `should equal` 0.ether()
+            toFiat `should equal` 0.cad()
+        }
+    }
+
+    @Test
+    fun `no estimate after the accounts are swapped`() {
+        given(
+            initial("CAD", CryptoCurrency.BTC to CryptoCurrency.ETHER)
+        ).onLastStateAfter(
+            SetFixIntent(Fix.BASE_CRYPTO),
+            SimpleFieldUpdateIntent(1.toBigDecimal()),
+            quote.toIntent(),
+            SwapIntent(),
+            SimpleFieldUpdateIntent(2.toBigDecimal())
+        ) {
+            fromCrypto `should equal` 2.ether()
+            toCrypto `should equal` 0.bitcoin()
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.nhaarman.mockito_kotlin.whenever
 import info.blockchain.balance.CryptoValue
 import info.blockchain.balance.FiatValue
 import io.reactivex.Single
+import org.amshove.kluent.`should be`
 import org.amshove.kluent.`should equal`
 import org.junit.Before
 import org.junit.Test
@@ -50,6 +51,23 @@ class MergingMorphTradeDataManagerTest {
         }
     }
 
+    @Test
+    fun `get trades interleaves two lists in any order`() {
+        // Arrange
+        val first = listOf(getMorphTrade(1), getMorphTrade(5), getMorphTrade(3))
+        val second = listOf(getMorphTrade(2), getMorphTrade(4), getMorphTrade(6), getMorphTrade(3))
+        whenever(firstTradeManager.getTrades()).thenReturn(Single.just(first))
+        whenever(secondTradeDataManager.getTrades()).thenReturn(Single.just(second))
+        // Act
+        val testObserver = subject.getTrades().test()
+        // Assert
+        testObserver.values().single().apply {
+            map { it.timestamp } `should equal` listOf(6L, 5L, 4L, 3L, 3L, 2L, 1L)
+            get(3) `should be` first[2]
+            get(4) `should be` second[3]
+        }
+    }
+
     @Test
     fun `get trades, first data manager failing doesn't affect second`() {
         // Arrange
@@ -2,10 +2,10 @@ package com.blockchain.morph.homebrew
 
 import com.blockchain.morph.exchange.service.ExchangeRateStream
 import com.blockchain.morph.quote.ExchangeQuoteRequest
+import com.blockchain.network.websocket.ChannelAwareWebSocket
 import com.blockchain.network.websocket.WebSocket
 import com.blockchain.network.websocket.WebSocketChannel
 import com.blockchain.network.websocket.channelAware
-import com.blockchain.network.websocket.channelMessageFilter
 import com.blockchain.network.websocket.toJsonReceive
 import com.blockchain.serialization.JsonSerializable
 import com.squareup.moshi.Moshi
@@ -16,14 +16,16 @@ import java.util.concurrent.atomic.AtomicReference
 
 private const val ChannelNameExchangeRate = "exchange_rate"
 
-class ExchangeWebSocket(underlyingSocket: WebSocket<String, String>, moshi: Moshi) : ExchangeRateStream {
+class ExchangeWebSocket(
+    underlyingSocket: WebSocket<String, String>,
+    moshi: Moshi,
+    private val channelAware: ChannelAwareWebSocket = underlyingSocket.channelAware()
+) : ExchangeRateStream {
 
-    private val ratesSocket = underlyingSocket
-        .channelMessageFilter(ChannelNameExchangeRate, throwErrors = false)
+    private val ratesSocket = channelAware
+        .channelMessages(ChannelNameExchangeRate, throwErrors = false)
         .toJsonReceive<ExchangeRateJson>(moshi)
 
-    private val channelAware = underlyingSocket.channelAware()
-
     override fun updateQuoteRequest(quoteRequest: ExchangeQuoteRequest) {
         updateExchangeRatesParameters(quoteRequest.mapToExchangeRateSocketParameters())
     }
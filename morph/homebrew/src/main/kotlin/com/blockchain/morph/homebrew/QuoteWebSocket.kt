@@ -2,7 +2,7 @@ package com.blockchain.morph.homebrew
 
 import com.blockchain.morph.quote.ExchangeQuoteRequest
 import com.blockchain.network.websocket.WebSocket
-import com.blockchain.network.websocket.toJsonSocket
+import com.blockchain.network.websocket.toJsonReceive
 import com.squareup.moshi.Moshi
 import io.reactivex.Observable
 
@@ -10,15 +10,23 @@ import com.blockchain.morph.exchange.mvi.Quote
 import com.blockchain.morph.exchange.service.ExchangeRateStream
 import com.blockchain.morph.exchange.service.QuoteService
 import com.blockchain.morph.exchange.service.QuoteStream
+import com.blockchain.network.websocket.ChannelAwareWebSocket
 import com.blockchain.network.websocket.ConnectionEvent
 import com.blockchain.network.websocket.WebSocketChannel
 import com.blockchain.network.websocket.channelAware
 import com.blockchain.network.websocket.openAsDisposable
 
-class QuoteWebSocketStream(underlyingSocket: WebSocket<String, String>, moshi: Moshi) : QuoteStream {
+private const val ChannelNameConversion = "conversion"
 
-    private val socket = underlyingSocket.toJsonSocket<String, QuoteMessageJson>(moshi)
-    private val channelAware = underlyingSocket.channelAware()
+class QuoteWebSocketStream(
+    underlyingSocket: WebSocket<String, String>,
+    moshi: Moshi,
+    private val channelAware: ChannelAwareWebSocket = underlyingSocket.channelAware()
+) : QuoteStream {
+
+    private val socket = channelAware
+        .channelMessages(ChannelNameConversion, throwErrors = false)
+        .toJsonReceive<QuoteMessageJson>(moshi)
 
     override fun updateQuoteRequest(quoteRequest: ExchangeQuoteRequest) {
         updateSocketParameters(quoteRequest.mapToSocketParameters())
@@ -38,15 +46,16 @@ class QuoteWebSocketStream(underlyingSocket: WebSocket<String, String>, moshi: M
         if (oldParams == newSocketParameters) return
         params = newSocketParameters
         oldParams?.let { conversionChannel?.close(QuoteWebSocketUnsubscribeParams(it.pair, "conversionPair")) }
-        conversionChannel = channelAware.openChannel("conversion", newSocketParameters)
+        conversionChannel = channelAware.openChannel(ChannelNameConversion, newSocketParameters)
     }
 }
 
 class QuoteWebSocket(
     private val underlyingSocket: WebSocket<String, String>,
     moshi: Moshi,
-    private val quoteWebSocketStream: QuoteStream = QuoteWebSocketStream(underlyingSocket, moshi),
-    private val exchangeRateStream: ExchangeRateStream = ExchangeWebSocket(underlyingSocket, moshi)
+    channelAware: ChannelAwareWebSocket = underlyingSocket.channelAware(),
+    private val quoteWebSocketStream: QuoteStream = QuoteWebSocketStream(underlyingSocket, moshi, channelAware),
+    private val exchangeRateStream: ExchangeRateStream = ExchangeWebSocket(underlyingSocket, moshi, channelAware)
 ) : QuoteService,
     QuoteStream by quoteWebSocketStream,
     ExchangeRateStream by exchangeRateStream {
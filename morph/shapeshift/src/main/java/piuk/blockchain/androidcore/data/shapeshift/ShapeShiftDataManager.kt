@@ -47,6 +47,21 @@ class ShapeShiftDataManager(
                 }.subscribeOn(Schedulers.io())
         }
 
+    /**
+     * Initializes the ShapeShift trade metadata unless it has already been loaded. Once loaded, trades are
+     * only changed through this class, so fetching the metadata again would not find anything new.
+     *
+     * @return A [Completable] object
+     */
+    fun initShapeshiftTradeDataIfNeeded(): Completable =
+        Completable.defer {
+            if (shapeShiftDataStore.tradeData != null) {
+                Completable.complete()
+            } else {
+                initShapeshiftTradeData()
+            }
+        }
+
     /**
      * Clears all data in the [ShapeShiftDataStore]
      */
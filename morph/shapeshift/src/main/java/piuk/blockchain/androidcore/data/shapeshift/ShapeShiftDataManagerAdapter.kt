@@ -22,7 +22,7 @@ internal class ShapeShiftDataManagerAdapter(
 
     override fun getTrades(): Single<List<MorphTrade>> {
         return shapeShiftDataManager
-            .initShapeshiftTradeData()
+            .initShapeshiftTradeDataIfNeeded()
             .andThen(
                 shapeShiftDataManager.getTradesList()
                     .flatMapIterable { it }
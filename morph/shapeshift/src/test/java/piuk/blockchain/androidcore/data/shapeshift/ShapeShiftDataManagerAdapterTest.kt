@@ -33,7 +33,7 @@ class ShapeShiftDataManagerAdapterTest {
     @Test
     fun `getTrades returns mapped trade list from underlying data manager`() {
         val shapeShiftDataManager = mock<ShapeShiftDataManager> {
-            on { initShapeshiftTradeData() } `it returns` Completable.complete()
+            on { initShapeshiftTradeDataIfNeeded() } `it returns` Completable.complete()
             on { getTradesList() } `it returns` Observable.just(listOf(Trade().apply { hashOut = "X" }))
         }
         ShapeShiftDataManagerAdapter(shapeShiftDataManager)
@@ -7,6 +7,7 @@ import com.nhaarman.mockito_kotlin.atLeastOnce
 import com.nhaarman.mockito_kotlin.mock
 import com.nhaarman.mockito_kotlin.verify
 import com.nhaarman.mockito_kotlin.verifyNoMoreInteractions
+import com.nhaarman.mockito_kotlin.verifyZeroInteractions
 import com.nhaarman.mockito_kotlin.whenever
 import info.blockchain.wallet.shapeshift.ShapeShiftApi
 import info.blockchain.wallet.shapeshift.ShapeShiftTrades
@@ -61,6 +62,31 @@ class ShapeShiftDataManagerTest {
         // Assert
     }
 
+    @Test
+    fun `initShapeshiftTradeDataIfNeeded initialized`() {
+        // Arrange
+        whenever(shapeShiftDataStore.tradeData).thenReturn(mock())
+        // Act
+        val testObserver = subject.initShapeshiftTradeDataIfNeeded().test()
+        // Assert
+        testObserver.assertComplete()
+        testObserver.assertNoErrors()
+        verifyZeroInteractions(metadataManager)
+    }
+
+    @Test
+    fun `initShapeshiftTradeDataIfNeeded uninitialized`() {
+        // Arrange
+        whenever(shapeShiftDataStore.tradeData).thenReturn(null)
+        whenever(metadataManager.fetchMetadata(ShapeShiftTrades.METADATA_TYPE_EXTERNAL))
+            .thenReturn(Observable.error(Throwable()))
+        // Act
+        val testObserver = subject.initShapeshiftTradeDataIfNeeded().test()
+        // Assert
+        testObserver.assertError(Throwable::class.java)
+        verify(metadataManager).fetchMetadata(ShapeShiftTrades.METADATA_TYPE_EXTERNAL)
+    }
+
     @Test
     fun `getState initialized null`() {
         // Arrange
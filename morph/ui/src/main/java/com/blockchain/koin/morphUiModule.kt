@@ -36,6 +36,7 @@ val morphUiModule = applicationContext {
                     allAccountList = get(),
                     tradeLimitService = get(),
                     currentTier = get(),
+                    sharedPoller = get(),
                     transactionExecutor = get("Priority"),
                     maximumSpendableCalculator = get("Priority"),
                     currencyPreference = get(),
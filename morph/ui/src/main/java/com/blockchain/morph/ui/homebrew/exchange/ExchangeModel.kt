@@ -27,6 +27,7 @@ import com.blockchain.morph.exchange.service.TradeLimitService
 import com.blockchain.morph.quote.ExchangeQuoteRequest
 import com.blockchain.nabu.CurrentTier
 import com.blockchain.nabu.EthEligibility
+import com.blockchain.nabu.pollUsersCurrentTier
 import info.blockchain.balance.AccountReference
 import info.blockchain.balance.CryptoCurrency
 import info.blockchain.balance.CryptoValue
@@ -39,6 +40,7 @@ import io.reactivex.rxkotlin.subscribeBy
 import io.reactivex.subjects.BehaviorSubject
 import io.reactivex.subjects.PublishSubject
 import com.blockchain.preferences.FiatCurrencyPreference
+import com.blockchain.rx.SharedPoller
 import io.reactivex.rxkotlin.withLatestFrom
 import timber.log.Timber
 import java.util.concurrent.TimeUnit
@@ -49,6 +51,7 @@ class ExchangeModel(
     private val allAccountList: AllAccountList,
     private val tradeLimitService: TradeLimitService,
     private val currentTier: CurrentTier,
+    private val sharedPoller: SharedPoller,
     private val ethEligibility: EthEligibility,
     private val transactionExecutor: TransactionExecutorWithoutFees,
     private val maximumSpendableCalculator: MaximumSpendableCalculator,
@@ -118,23 +121,19 @@ class ExchangeModel(
                 is ExchangeRate.CryptoToFiat -> inputEventSink.onNext(FiatExchangeRateIntent(it))
             }
         }
-        dialogDisposable += tradeLimitService.getTradesLimits(fiatCurrency)
+        val tradesLimits = sharedPoller.poll(TradesLimitsPollKey(fiatCurrency)) {
+            tradeLimitService.getTradesLimits(fiatCurrency)
+        }
+        dialogDisposable += tradesLimits
+            .firstElement()
             .subscribeBy {
                 inputEventSink.onNext(SetTradeLimits(it.minOrder, it.maxOrder))
             }
-        dialogDisposable += Observable.interval(1, TimeUnit.MINUTES)
-            .startWith(0L)
-            .flatMapSingle {
-                tradeLimitService.getTradesLimits(fiatCurrency)
-            }
+        dialogDisposable += tradesLimits
             .subscribeBy {
                 inputEventSink.onNext(SetTierLimit(it.minAvailable()))
             }
-        dialogDisposable += Observable.interval(1, TimeUnit.MINUTES)
-            .startWith(0L)
-            .flatMapSingle {
-                currentTier.usersCurrentTier()
-            }
+        dialogDisposable += currentTier.pollUsersCurrentTier(sharedPoller)
             .subscribeBy {
                 inputEventSink.onNext(SetUserTier(it))
             }
@@ -148,10 +147,15 @@ class ExchangeModel(
             .subscribeBy {
                 newViewModel(it)
             }
+        // Typing an amount changes the state on each key, so only the request it settles on is sent.
+        // Values are estimated from the last quote in the meantime.
         dialogDisposable += exchangeViewStates
+            .debounce(QUOTE_REQUEST_DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)
             .subscribeBy {
                 quoteService.updateQuoteRequest(it.toExchangeQuoteRequest(it.fromFiat.currencyCode))
-
+            }
+        dialogDisposable += exchangeViewStates
+            .subscribeBy {
                 updateMaxSpendable(it.fromAccount)
             }
 
@@ -201,8 +205,15 @@ class ExchangeModel(
     fun fixAsCrypto() {
         inputEventSink.onNext(SetFixIntent(Fix.BASE_CRYPTO))
     }
+
+    companion object {
+
+        private const val QUOTE_REQUEST_DEBOUNCE_MILLIS = 200L
+    }
 }
 
+private data class TradesLimitsPollKey(val fiatCurrency: String)
+
 private fun ExchangeViewState.toExchangeQuoteRequest(
     currency: String
 ): ExchangeQuoteRequest = when (fix) {
@@ -20,7 +20,7 @@ val sunriverModule = applicationContext {
 
         factory { XlmSecretAccess(get()) }
 
-        factory { XlmDataManager(get(), get(), get(), get(), get(), get()) }
+        factory { XlmDataManager(get(), get(), get(), get(), get(), get(), get()) }
             .bind(DefaultAccountDataManager::class)
             .bind(AsyncAddressBalanceReporter::class)
 
@@ -28,7 +28,7 @@ val sunriverModule = applicationContext {
 
         factory { get<XlmDataManager>().updateLastTxOnSend(get()).logMemoType(get()) }
 
-        factory { HorizonProxy(getProperty("HorizonURL")) }
+        bean { HorizonProxy(getProperty("HorizonURL")) }
 
         bean { XlmMetaDataInitializer(get(), get(), get(), get()) }
 
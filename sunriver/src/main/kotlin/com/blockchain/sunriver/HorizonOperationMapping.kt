@@ -9,27 +9,33 @@ import org.stellar.sdk.responses.operations.CreateAccountOperationResponse
 import org.stellar.sdk.responses.operations.OperationResponse
 import org.stellar.sdk.responses.operations.PaymentOperationResponse
 
-internal fun List<OperationResponse>.map(accountId: String, horizonProxy: HorizonProxy): List<XlmTransaction> =
+internal fun List<OperationResponse>.supported(): List<OperationResponse> =
     filter { it is CreateAccountOperationResponse || it is PaymentOperationResponse }
-        .map { mapOperationResponse(it, accountId, horizonProxy) }
+
+/**
+ * @param fees The fees paid, in stroops, by the transactions of the supported operations, keyed by
+ * transaction hash
+ */
+internal fun List<OperationResponse>.map(accountId: String, fees: Map<String, Long>): List<XlmTransaction> =
+    supported()
+        .map { mapOperationResponse(it, accountId, fees) }
 
 internal fun mapOperationResponse(
     operationResponse: OperationResponse,
     usersAccountId: String,
-    horizonProxy: HorizonProxy
+    fees: Map<String, Long>
 ): XlmTransaction =
     when (operationResponse) {
-        is CreateAccountOperationResponse -> operationResponse.mapCreate(usersAccountId, horizonProxy)
-        is PaymentOperationResponse -> operationResponse.mapPayment(usersAccountId, horizonProxy)
+        is CreateAccountOperationResponse -> operationResponse.mapCreate(usersAccountId, fees)
+        is PaymentOperationResponse -> operationResponse.mapPayment(usersAccountId, fees)
         else -> throw IllegalArgumentException("Unsupported operation type ${operationResponse.javaClass.simpleName}")
     }
 
 private fun CreateAccountOperationResponse.mapCreate(
     usersAccountId: String,
-    horizonProxy: HorizonProxy
+    fees: Map<String, Long>
 ): XlmTransaction {
-    val transactionResponse = horizonProxy.getTransaction(transactionHash)
-    val fee = CryptoValue.lumensFromStroop(transactionResponse.feePaid.toBigInteger())
+    val fee = CryptoValue.lumensFromStroop(fees.getValue(transactionHash).toBigInteger())
     return XlmTransaction(
         timeStamp = createdAt,
         value = deltaValueForAccount(usersAccountId, funder, startingBalance),
@@ -42,10 +48,9 @@ private fun CreateAccountOperationResponse.mapCreate(
 
 private fun PaymentOperationResponse.mapPayment(
     usersAccountId: String,
-    horizonProxy: HorizonProxy
+    fees: Map<String, Long>
 ): XlmTransaction {
-    val transactionResponse = horizonProxy.getTransaction(transactionHash)
-    val fee = CryptoValue.lumensFromStroop(transactionResponse.feePaid.toBigInteger())
+    val fee = CryptoValue.lumensFromStroop(fees.getValue(transactionHash).toBigInteger())
     return XlmTransaction(
         timeStamp = createdAt,
         value = deltaValueForAccount(usersAccountId, from, amount),
@@ -5,6 +5,7 @@ import info.blockchain.balance.CryptoCurrency
 import info.blockchain.balance.CryptoValue
 import info.blockchain.balance.compareTo
 import info.blockchain.balance.withMajorValue
+import org.stellar.sdk.Account
 import org.stellar.sdk.AssetTypeNative
 import org.stellar.sdk.CreateAccountOperation
 import org.stellar.sdk.KeyPair
@@ -23,13 +24,25 @@ import org.stellar.sdk.responses.operations.OperationResponse
 import java.io.IOException
 import java.math.BigDecimal
 import java.math.BigInteger
+import java.util.concurrent.ConcurrentHashMap
 
 private val basePerOperationFee = CryptoValue.lumensFromStroop(100.toBigInteger())
 
-internal class HorizonProxy(url: String) {
+internal class HorizonProxy(
+    url: String,
+    private val currentTimeMillis: () -> Long = System::currentTimeMillis
+) {
 
     private val server = Server(url)
 
+    /**
+     * The last response for each account id, null if the account did not exist. Validating a send
+     * asks about the same accounts over and over, so these are used for [ACCOUNT_SNAPSHOT_MAX_AGE_MILLIS].
+     */
+    private val accountSnapshots = ConcurrentHashMap<String, AccountSnapshot>()
+
+    private class AccountSnapshot(val account: AccountResponse?, val timeMillis: Long)
+
     init {
         if (url.contains("test")) {
             Network.useTestNetwork()
@@ -63,8 +76,12 @@ internal class HorizonProxy(url: String) {
         }
 
     private fun findAccount(keyPair: KeyPair): AccountResponse? {
+        val now = currentTimeMillis()
+        accountSnapshots[keyPair.accountId]
+            ?.takeIf { now - it.timeMillis < ACCOUNT_SNAPSHOT_MAX_AGE_MILLIS }
+            ?.let { return it.account }
         val accounts = server.accounts()
-        return try {
+        val account = try {
             accounts.account(keyPair)
         } catch (e: ErrorResponse) {
             if (e.code == 404) {
@@ -73,6 +90,12 @@ internal class HorizonProxy(url: String) {
                 throw e
             }
         }
+        accountSnapshots[keyPair.accountId] = AccountSnapshot(account, now)
+        return account
+    }
+
+    private fun forgetAccounts(vararg accountIds: String) {
+        accountIds.forEach { accountSnapshots.remove(it) }
     }
 
     fun getTransactionList(accountId: String): List<OperationResponse> = try {
@@ -90,6 +113,26 @@ internal class HorizonProxy(url: String) {
         }
     }
 
+    /**
+     * @return The fees paid, in stroops, by the most recent transactions of the account, keyed by
+     * transaction hash. Covers at least the transactions of the operations in [getTransactionList].
+     */
+    fun getTransactionFees(accountId: String): Map<String, Long> = try {
+        server.transactions()
+            .order(RequestBuilder.Order.DESC)
+            .limit(50)
+            .forAccount(KeyPair.fromAccountId(accountId))
+            .execute()
+            .records
+            .associate { it.hash to it.feePaid }
+    } catch (e: ErrorResponse) {
+        if (e.code == 404) {
+            emptyMap()
+        } else {
+            throw e
+        }
+    }
+
     @Throws(IOException::class, TooManyRequestsException::class)
     fun getTransaction(hash: String): TransactionResponse =
         server.transactions()
@@ -111,12 +154,15 @@ internal class HorizonProxy(url: String) {
         timeout: Long,
         perOperationFee: CryptoValue? = null
     ): SendResult {
+        // The transaction needs the current sequence number and destination, so neither is taken from a snapshot
+        forgetAccounts(source.accountId, destinationAccountId)
         val result = dryRunTransaction(source, destinationAccountId, amount, memo, perOperationFee, timeout)
         if (!result.success || result.transaction == null) {
             return result
         }
         result.transaction.sign(source)
         val submitTransactionResponse = server.submitTransaction(result.transaction)
+        forgetAccounts(source.accountId, destinationAccountId)
         return if (submitTransactionResponse.isSuccess) {
             SendResult(
                 true,
@@ -166,7 +212,7 @@ internal class HorizonProxy(url: String) {
                 failureValue = newAccountMinBalance
             )
         }
-        val account = server.accounts().account(source)
+        val account = findAccount(source) ?: server.accounts().account(source)
         val transaction =
             createUnsignedTransaction(
                 account,
@@ -243,7 +289,8 @@ internal class HorizonProxy(url: String) {
         timeout: Long,
         perOperationFee: CryptoValue? = null
     ): Transaction =
-        Transaction.Builder(source)
+        // Building increments the sequence number of the account, which mustn't change the snapshot
+        Transaction.Builder(Account(source.keypair, source.sequenceNumber))
             .setTimeout(timeout)
             .addOperation(buildTransactionOperation(destination, destinationAccountExists, amount.toPlainString()))
             .setOperationFee((perOperationFee ?: basePerOperationFee).amount.toInt())
@@ -270,6 +317,7 @@ internal class HorizonProxy(url: String) {
 
     companion object {
         const val XLM_DEFAULT_TIMEOUT_SECS: Long = 10
+        private const val ACCOUNT_SNAPSHOT_MAX_AGE_MILLIS = 10_000L
     }
 }
 
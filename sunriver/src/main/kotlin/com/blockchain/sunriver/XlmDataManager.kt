@@ -29,7 +29,8 @@ class XlmDataManager internal constructor(
     private val xlmSecretAccess: XlmSecretAccess,
     private val memoMapper: MemoMapper,
     private val xlmFeesFetcher: XlmFeesFetcher,
-    private val xlmTimeoutFetcher: XlmTransactionTimeoutFetcher
+    private val xlmTimeoutFetcher: XlmTransactionTimeoutFetcher,
+    private val feeCache: XlmTransactionFeeCache
 ) : TransactionSender,
     DefaultAccountDataManager,
     AsyncAddressBalanceReporter,
@@ -132,16 +133,35 @@ class XlmDataManager internal constructor(
 
     fun getTransactionList(accountReference: AccountReference.Xlm): Single<List<XlmTransaction>> =
         Single.fromCallable {
-            horizonProxy.getTransactionList(accountReference.accountId)
-                .map(accountReference.accountId, horizonProxy)
+            val accountId = accountReference.accountId
+            val operations = horizonProxy.getTransactionList(accountId).supported()
+            operations.map(accountId, transactionFees(accountId, operations.map { it.transactionHash }.toSet()))
         }.subscribeOn(Schedulers.io())
 
+    /**
+     * Finds the fees paid by the transactions with the [hashes] in the cache first, then in a single
+     * page of the account's transactions. Only transactions in neither are fetched one by one.
+     */
+    private fun transactionFees(accountId: String, hashes: Set<String>): Map<String, Long> {
+        val fees = feeCache.getFees(hashes).toMutableMap()
+        if (fees.size == hashes.size) return fees
+        val fetched = horizonProxy.getTransactionFees(accountId)
+            .filterKeys { it in hashes && it !in fees }
+            .toMutableMap()
+        hashes.filter { it !in fees && it !in fetched }
+            .forEach { fetched[it] = horizonProxy.getTransaction(it).feePaid }
+        feeCache.putFees(fetched)
+        return fees + fetched
+    }
+
     /**
      * See also [getOperationFee]
      */
     fun getTransactionFee(hash: String): Single<CryptoValue> =
-        Single.fromCallable { horizonProxy.getTransaction(hash) }
-            .map { CryptoValue.lumensFromStroop(it.feePaid.toBigInteger()) }
+        Single.fromCallable {
+            feeCache.getFees(listOf(hash))[hash]
+                ?: horizonProxy.getTransaction(hash).feePaid.also { feeCache.putFees(mapOf(hash to it)) }
+        }.map { CryptoValue.lumensFromStroop(it.toBigInteger()) }
             .subscribeOn(Schedulers.io())
 
     /**
@@ -160,6 +180,11 @@ class XlmDataManager internal constructor(
 
     private fun maybeDefaultXlmAccount() =
         maybeWallet.map(XlmMetaData::default)
+
+    companion object {
+
+        const val METADATA_TYPE = XlmMetaData.MetaDataType
+    }
 }
 
 internal fun HorizonProxy.SendResult.mapToSendFundsResult(sendDetails: SendDetails): SendFundsResult =
@@ -0,0 +1,15 @@
+package com.blockchain.sunriver
+
+/**
+ * Remembers the fees paid by transactions, in stroops. A transaction's fee never changes once it's
+ * in the ledger, so entries never need to be refreshed.
+ */
+interface XlmTransactionFeeCache {
+
+    /**
+     * @return The fees known for any of the [hashes], keyed by transaction hash
+     */
+    fun getFees(hashes: Collection<String>): Map<String, Long>
+
+    fun putFees(fees: Map<String, Long>)
+}
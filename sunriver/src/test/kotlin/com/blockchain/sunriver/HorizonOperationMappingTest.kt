@@ -2,7 +2,6 @@ package com.blockchain.sunriver
 
 import com.blockchain.testutils.lumens
 import com.blockchain.testutils.stroops
-import com.nhaarman.mockito_kotlin.any
 import com.nhaarman.mockito_kotlin.mock
 import org.amshove.kluent.`it returns`
 import org.amshove.kluent.`should equal`
@@ -10,7 +9,6 @@ import org.amshove.kluent.`should throw`
 import org.amshove.kluent.mock
 import org.junit.Test
 import org.stellar.sdk.KeyPair
-import org.stellar.sdk.responses.TransactionResponse
 import org.stellar.sdk.responses.operations.CreateAccountOperationResponse
 import org.stellar.sdk.responses.operations.ManageDataOperationResponse
 import org.stellar.sdk.responses.operations.PaymentOperationResponse
@@ -22,7 +20,7 @@ class HorizonOperationMappingTest {
     fun `map response rejects unsupported types`() {
         val unsupportedResponse: ManageDataOperationResponse = mock();
         {
-            mapOperationResponse(unsupportedResponse, "", givenHorizonProxy(100))
+            mapOperationResponse(unsupportedResponse, "", emptyMap())
         } `should throw` IllegalArgumentException::class
     }
 
@@ -36,7 +34,7 @@ class HorizonOperationMappingTest {
             on { transactionHash } `it returns` "ABCD"
             on { createdAt } `it returns` "TIME"
             on { amount } `it returns` 50.lumens().toStringWithoutSymbol(Locale.US)
-        }, myAccount, givenHorizonProxy(100))
+        }, myAccount, mapOf("ABCD" to 100L))
             .apply {
                 hash `should equal` "ABCD"
                 timeStamp `should equal` "TIME"
@@ -57,7 +55,7 @@ class HorizonOperationMappingTest {
             on { transactionHash } `it returns` "ABCD"
             on { createdAt } `it returns` "TIME"
             on { amount } `it returns` 50.lumens().toStringWithoutSymbol(Locale.US)
-        }, myAccount, givenHorizonProxy(100))
+        }, myAccount, mapOf("ABCD" to 100L))
             .apply {
                 hash `should equal` "ABCD"
                 timeStamp `should equal` "TIME"
@@ -78,7 +76,7 @@ class HorizonOperationMappingTest {
             on { transactionHash } `it returns` "ABCD"
             on { createdAt } `it returns` "TIME"
             on { startingBalance } `it returns` 100.lumens().toStringWithoutSymbol(Locale.US)
-        }, myAccount, givenHorizonProxy(100))
+        }, myAccount, mapOf("ABCD" to 100L))
             .apply {
                 hash `should equal` "ABCD"
                 timeStamp `should equal` "TIME"
@@ -99,7 +97,7 @@ class HorizonOperationMappingTest {
             on { transactionHash } `it returns` "ABCD"
             on { createdAt } `it returns` "TIME"
             on { startingBalance } `it returns` 100.lumens().toStringWithoutSymbol(Locale.US)
-        }, myAccount, givenHorizonProxy(100))
+        }, myAccount, mapOf("ABCD" to 100L))
             .apply {
                 hash `should equal` "ABCD"
                 timeStamp `should equal` "TIME"
@@ -109,13 +107,4 @@ class HorizonOperationMappingTest {
                 value `should equal` (-100).lumens()
             }
     }
-
-    private fun givenHorizonProxy(fee: Long): HorizonProxy {
-        val mockTx: TransactionResponse = mock {
-            on { feePaid } `it returns` fee
-        }
-        return mock {
-            on { getTransaction(any()) } `it returns` mockTx
-        }
-    }
 }
@@ -231,6 +231,40 @@ class HorizonProxyTest : AutoCloseKoinTest() {
         } `should throw` ErrorResponse::class
     }
 
+    @Test
+    fun `get xlm transaction fees`() {
+        server.expect().get().withPath(
+            "/accounts/GC7GSOOQCBBWNUOB6DIWNVM7537UKQ353H6LCU3DB54NUTVFR2T6OHF4/transactions?order=desc&limit=50"
+        ).andReturn(
+            200,
+            getStringFromResource("transactions/transaction_page.json")
+        )
+            .once()
+
+        val proxy = get<HorizonProxy>()
+
+        proxy.getTransactionFees("GC7GSOOQCBBWNUOB6DIWNVM7537UKQ353H6LCU3DB54NUTVFR2T6OHF4") `should equal` mapOf(
+            "2dcb356e88d0c778a0c5ed8d33543f167994744ed0019b96553c310449133aba" to 100L,
+            "29dabd8e43b8a3bb11db04f89c55c044aca7c308dbfc1140f1e81d3bce1c86ae" to 200L,
+            "e6cd1028bf28ad7c436aea7cfdd50f830bfc2d13f79d54835aa754cea8a16811" to 300L
+        )
+    }
+
+    @Test
+    fun `get xlm transaction fees if not found`() {
+        server.expect().get().withPath(
+            "/accounts/GC7GSOOQCBBWNUOB6DIWNVM7537UKQ353H6LCU3DB54NUTVFR2T6OHF4/transactions?order=desc&limit=50"
+        ).andReturn(
+            404,
+            getStringFromResource("accounts/not_found.json")
+        )
+            .once()
+
+        val proxy = get<HorizonProxy>()
+
+        proxy.getTransactionFees("GC7GSOOQCBBWNUOB6DIWNVM7537UKQ353H6LCU3DB54NUTVFR2T6OHF4") `should equal` emptyMap()
+    }
+
     @Test
     fun `get specific transaction by hash`() {
         server.expect().get().withPath("/transactions/2dcb356e88d0c778a0c5ed8d33543f167994744ed0019b96553c310449133aba")
@@ -364,6 +398,97 @@ class HorizonProxyTest : AutoCloseKoinTest() {
         server.requestCount `should be` 2
     }
 
+    @Test
+    fun `repeated dry runs and balance checks fetch each account once`() {
+        server.givenAccountExists("GC7GSOOQCBBWNUOB6DIWNVM7537UKQ353H6LCU3DB54NUTVFR2T6OHF4")
+        server.givenAccountExists("GCO724H2FOHPBFF4OQ6IB5GB3CVE4W3UGDY4RIHHG6UPQ2YZSSCINMAI")
+
+        val proxy = get<HorizonProxy>()
+
+        val source = KeyPair.fromSecretSeed("SAD6LOTFMPIGAPOF2SPQSYD4OIGIE5XVVX3FW3K7QVFUTRSUUHMZQ76I")
+        repeat(3) {
+            proxy.dryRunTransaction(
+                source,
+                "GCO724H2FOHPBFF4OQ6IB5GB3CVE4W3UGDY4RIHHG6UPQ2YZSSCINMAI",
+                123.4567891.lumens(),
+                Memo.none()
+            ).success `should be` true
+        }
+        proxy.getBalance("GC7GSOOQCBBWNUOB6DIWNVM7537UKQ353H6LCU3DB54NUTVFR2T6OHF4") `should equal`
+            109969.99997.lumens()
+        proxy.accountExists("GCO724H2FOHPBFF4OQ6IB5GB3CVE4W3UGDY4RIHHG6UPQ2YZSSCINMAI") `should be` true
+
+        server.requestCount `should be` 2
+    }
+
+    @Test
+    fun `dry runs do not change the sequence number`() {
+        server.givenAccountExists("GC7GSOOQCBBWNUOB6DIWNVM7537UKQ353H6LCU3DB54NUTVFR2T6OHF4")
+        server.givenAccountExists("GCO724H2FOHPBFF4OQ6IB5GB3CVE4W3UGDY4RIHHG6UPQ2YZSSCINMAI")
+
+        val proxy = get<HorizonProxy>()
+
+        val source = KeyPair.fromSecretSeed("SAD6LOTFMPIGAPOF2SPQSYD4OIGIE5XVVX3FW3K7QVFUTRSUUHMZQ76I")
+        val sequenceNumbers = (1..2).map {
+            proxy.dryRunTransaction(
+                source,
+                "GCO724H2FOHPBFF4OQ6IB5GB3CVE4W3UGDY4RIHHG6UPQ2YZSSCINMAI",
+                123.4567891.lumens(),
+                Memo.none()
+            ).transaction!!.sequenceNumber
+        }
+
+        sequenceNumbers[1] `should equal` sequenceNumbers[0]
+    }
+
+    @Test
+    fun `accounts are fetched again once the snapshot is too old`() {
+        server.givenAccountExists("GC7GSOOQCBBWNUOB6DIWNVM7537UKQ353H6LCU3DB54NUTVFR2T6OHF4")
+
+        var time = 0L
+        val proxy = HorizonProxy(server.url(""), { time })
+
+        proxy.getBalance("GC7GSOOQCBBWNUOB6DIWNVM7537UKQ353H6LCU3DB54NUTVFR2T6OHF4") `should equal`
+            109969.99997.lumens()
+        time = 9_999L
+        proxy.getBalance("GC7GSOOQCBBWNUOB6DIWNVM7537UKQ353H6LCU3DB54NUTVFR2T6OHF4") `should equal`
+            109969.99997.lumens()
+        server.requestCount `should be` 1
+
+        time = 10_000L
+        server.givenAccountDoesNotExist("GC7GSOOQCBBWNUOB6DIWNVM7537UKQ353H6LCU3DB54NUTVFR2T6OHF4")
+        proxy.getBalance("GC7GSOOQCBBWNUOB6DIWNVM7537UKQ353H6LCU3DB54NUTVFR2T6OHF4") `should equal`
+            CryptoValue.ZeroXlm
+        server.requestCount `should be` 2
+    }
+
+    @Test
+    fun `send fetches the accounts again after a dry run`() {
+        server.givenAccountExists("GC7GSOOQCBBWNUOB6DIWNVM7537UKQ353H6LCU3DB54NUTVFR2T6OHF4")
+        server.givenAccountExists("GCO724H2FOHPBFF4OQ6IB5GB3CVE4W3UGDY4RIHHG6UPQ2YZSSCINMAI")
+        server.givenAccountExists("GC7GSOOQCBBWNUOB6DIWNVM7537UKQ353H6LCU3DB54NUTVFR2T6OHF4")
+        server.givenAccountExists("GCO724H2FOHPBFF4OQ6IB5GB3CVE4W3UGDY4RIHHG6UPQ2YZSSCINMAI")
+        server.givenPostWillBeSuccessful()
+
+        val proxy = get<HorizonProxy>()
+
+        val source = KeyPair.fromSecretSeed("SAD6LOTFMPIGAPOF2SPQSYD4OIGIE5XVVX3FW3K7QVFUTRSUUHMZQ76I")
+        proxy.dryRunTransaction(
+            source,
+            "GCO724H2FOHPBFF4OQ6IB5GB3CVE4W3UGDY4RIHHG6UPQ2YZSSCINMAI",
+            123.4567891.lumens(),
+            Memo.none()
+        ).success `should be` true
+        proxy.sendTransaction(
+            source,
+            "GCO724H2FOHPBFF4OQ6IB5GB3CVE4W3UGDY4RIHHG6UPQ2YZSSCINMAI",
+            123.4567891.lumens(),
+            10
+        ).success `should be` true
+
+        server.requestCount `should be` 5
+    }
+
     private val fee = 100.stroops()
     private val minimumBalance = 1.lumens()
 
@@ -17,6 +17,7 @@ import com.nhaarman.mockito_kotlin.any
 import com.nhaarman.mockito_kotlin.anyOrNull
 import com.nhaarman.mockito_kotlin.eq
 import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.never
 import com.nhaarman.mockito_kotlin.verify
 import com.nhaarman.mockito_kotlin.verifyNoMoreInteractions
 import com.nhaarman.mockito_kotlin.verifyZeroInteractions
@@ -463,6 +464,68 @@ class XlmDataManagerTransactionListTest {
             .testSingle() `should equal` getXlmList()
     }
 
+    @Test
+    fun `get transactions resolves fees with one page of transactions and caches them`() {
+        val feeCache = mock<XlmTransactionFeeCache>()
+        val horizonProxy =
+            givenTransactions(1, "GC24LNYWXIYYB6OGCMAZZ5RX6WPI2F74ZV7HNBV4ADALLXJRT7ZTLHP2" to getResponseList())
+        givenXlmDataManager(horizonProxy, feeCache = feeCache)
+            .getTransactionList(AccountReference.Xlm("", "GC24LNYWXIYYB6OGCMAZZ5RX6WPI2F74ZV7HNBV4ADALLXJRT7ZTLHP2"))
+            .testSingle() `should equal` getXlmList()
+        verify(horizonProxy).getTransactionFees("GC24LNYWXIYYB6OGCMAZZ5RX6WPI2F74ZV7HNBV4ADALLXJRT7ZTLHP2")
+        verify(horizonProxy, never()).getTransaction(any())
+        verify(feeCache).putFees(mapOf("transactionHash" to 1L))
+    }
+
+    @Test
+    fun `get transactions with cached fees makes no fee requests`() {
+        val horizonProxy: HorizonProxy = mock {
+            on { getTransactionList("GC24LNYWXIYYB6OGCMAZZ5RX6WPI2F74ZV7HNBV4ADALLXJRT7ZTLHP2") } `it returns`
+                getResponseList()
+        }
+        givenXlmDataManager(
+            horizonProxy,
+            feeCache = mock {
+                on { getFees(setOf("transactionHash")) } `it returns` mapOf("transactionHash" to 1L)
+            }
+        )
+            .getTransactionList(AccountReference.Xlm("", "GC24LNYWXIYYB6OGCMAZZ5RX6WPI2F74ZV7HNBV4ADALLXJRT7ZTLHP2"))
+            .testSingle() `should equal` getXlmList()
+        verify(horizonProxy, never()).getTransactionFees(any())
+        verify(horizonProxy, never()).getTransaction(any())
+    }
+
+    @Test
+    fun `get transactions fetches fees missing from the page of transactions individually`() {
+        val mockTx: TransactionResponse = mock { on { feePaid } `it returns` 1L }
+        val horizonProxy: HorizonProxy = mock {
+            on { getTransactionList("GC24LNYWXIYYB6OGCMAZZ5RX6WPI2F74ZV7HNBV4ADALLXJRT7ZTLHP2") } `it returns`
+                getResponseList()
+            on { getTransactionFees("GC24LNYWXIYYB6OGCMAZZ5RX6WPI2F74ZV7HNBV4ADALLXJRT7ZTLHP2") } `it returns`
+                mapOf("otherHash" to 2L)
+            on { getTransaction("transactionHash") } `it returns` mockTx
+        }
+        val feeCache = mock<XlmTransactionFeeCache>()
+        givenXlmDataManager(horizonProxy, feeCache = feeCache)
+            .getTransactionList(AccountReference.Xlm("", "GC24LNYWXIYYB6OGCMAZZ5RX6WPI2F74ZV7HNBV4ADALLXJRT7ZTLHP2"))
+            .testSingle() `should equal` getXlmList()
+        verify(horizonProxy).getTransaction("transactionHash")
+        verify(feeCache).putFees(mapOf("transactionHash" to 1L))
+    }
+
+    @Test
+    fun `get transaction fee from cache`() {
+        val horizonProxy: HorizonProxy = mock()
+        givenXlmDataManager(
+            horizonProxy,
+            feeCache = mock {
+                on { getFees(listOf("HASH")) } `it returns` mapOf("HASH" to 99L)
+            }
+        ).getTransactionFee("HASH")
+            .testSingle() `should equal` 99.stroops()
+        verifyZeroInteractions(horizonProxy)
+    }
+
     @Test
     fun `get transaction fee`() {
         givenXlmDataManager(
@@ -1108,12 +1171,12 @@ private fun givenTransactions(
     vararg transactions: Pair<String, List<OperationResponse>>
 ): HorizonProxy {
     val horizonProxy: HorizonProxy = mock()
-    val mockTx: TransactionResponse = mock { on { feePaid } `it returns` fee }
     transactions
         .forEach { pair ->
             whenever(horizonProxy.getTransactionList(pair.first)) `it returns` pair.second
+            whenever(horizonProxy.getTransactionFees(pair.first)) `it returns`
+                pair.second.supported().associate { it.transactionHash to fee }
         }
-    whenever(horizonProxy.getTransaction(any())) `it returns` mockTx
     return horizonProxy
 }
 
@@ -1154,15 +1217,18 @@ private fun verifyNoInteractionsBeforeSubscribe(function: XlmDataManager.() -> U
     val horizonProxy = mock<HorizonProxy>()
     val metaDataInitializer = mock<XlmMetaDataInitializer>()
     val fees = mock<XlmFeesFetcher>()
+    val feeCache = mock<XlmTransactionFeeCache>()
     val xlmDataManager = givenXlmDataManager(
         horizonProxy,
         metaDataInitializer,
-        feesFetcher = fees
+        feesFetcher = fees,
+        feeCache = feeCache
     )
     function(xlmDataManager)
     verifyZeroInteractions(horizonProxy)
     verifyZeroInteractions(metaDataInitializer)
     verifyZeroInteractions(fees)
+    verifyZeroInteractions(feeCache)
 }
 
 private fun givenXlmDataManager(
@@ -1171,7 +1237,8 @@ private fun givenXlmDataManager(
     secretAccess: XlmSecretAccess = givenNoExpectedSecretAccess(),
     memoMapper: MemoMapper = givenAllMemosMapToNone(),
     feesFetcher: XlmFeesFetcher = givenXlmFees(999.stroops()),
-    timeoutFetcher: XlmTransactionTimeoutFetcher = givenTimeoutFetcher(10)
+    timeoutFetcher: XlmTransactionTimeoutFetcher = givenTimeoutFetcher(10),
+    feeCache: XlmTransactionFeeCache = mock()
 ): XlmDataManager =
     XlmDataManager(
         horizonProxy,
@@ -1179,7 +1246,8 @@ private fun givenXlmDataManager(
         secretAccess,
         memoMapper,
         feesFetcher,
-        timeoutFetcher
+        timeoutFetcher,
+        feeCache
     )
 
 private fun givenTimeoutFetcher(timeout: Long): XlmTransactionTimeoutFetcher =
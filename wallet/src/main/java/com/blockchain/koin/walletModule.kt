@@ -8,10 +8,12 @@ import info.blockchain.wallet.payload.BalanceManagerBch
 import info.blockchain.wallet.payload.BalanceManagerBtc
 import info.blockchain.wallet.payload.PayloadManager
 import info.blockchain.wallet.payload.PayloadManagerWiper
+import info.blockchain.wallet.payment.Payment
 import info.blockchain.wallet.prices.CurrentPriceApi
 import info.blockchain.wallet.prices.PriceApi
 import info.blockchain.wallet.prices.PriceEndpoints
 import info.blockchain.wallet.prices.toCachedIndicativeFiatPriceService
+import info.blockchain.wallet.util.DoubleEncryptionFactory
 import org.koin.KoinContext
 import org.koin.dsl.module.applicationContext
 import org.koin.standalone.StandAloneContext
@@ -44,6 +46,8 @@ val walletModule = applicationContext {
         object : PayloadManagerWiper {
             override fun wipe() {
                 (StandAloneContext.koinContext as KoinContext).releaseContext("Payload")
+                DoubleEncryptionFactory.clearCaches()
+                Payment.clearCaches()
             }
         } as PayloadManagerWiper
     }
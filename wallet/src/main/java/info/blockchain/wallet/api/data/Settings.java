@@ -7,7 +7,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import info.blockchain.wallet.util.ObjectMappers;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -225,12 +225,12 @@ public class Settings {
 
     @JsonIgnore
     public static Settings fromJson(String json) throws IOException {
-        return new ObjectMapper().readValue(json, Settings.class);
+        return ObjectMappers.readValue(json, Settings.class);
     }
 
     @JsonIgnore
     public String toJson() throws JsonProcessingException {
-        return new ObjectMapper().writeValueAsString(this);
+        return ObjectMappers.writeValueAsString(this);
     }
 
     private boolean intToBoolean(int value) {
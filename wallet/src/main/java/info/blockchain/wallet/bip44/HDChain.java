@@ -4,6 +4,10 @@ import org.bitcoinj.core.NetworkParameters;
 import org.bitcoinj.crypto.DeterministicKey;
 import org.bitcoinj.crypto.HDKeyDerivation;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+
 /**
  * HDChain.java : a chain in a BIP44 wallet account
  */
@@ -16,9 +20,19 @@ public class HDChain {
 
     static private final int DESIRED_MARGIN = 32;
     static private final int ADDRESS_GAP_MAX = 20;
+    static private final int ADDRESS_CACHE_SIZE = 100;
 
     private NetworkParameters params;
 
+    //Derived addresses by index, least recently used first
+    private final LinkedHashMap<Integer, HDAddress> addressCache =
+        new LinkedHashMap<Integer, HDAddress>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, HDAddress> eldest) {
+                return size() > ADDRESS_CACHE_SIZE;
+            }
+        };
+
     public static final int RECEIVE_CHAIN = 0;
     public static final int CHANGE_CHAIN = 1;
 
@@ -48,12 +62,46 @@ public class HDChain {
     }
 
     /**
-     * Return HDAddress at provided index into chain.
+     * Return HDAddress at provided index into chain. Recently used addresses are cached, as
+     * deriving one costs an EC point multiplication.
      *
      * @return HDAddress
      */
     public HDAddress getAddressAt(int addrIdx) {
-        return new HDAddress(params, cKey, addrIdx);
+        HDAddress address;
+        synchronized (addressCache) {
+            address = addressCache.get(addrIdx);
+        }
+        if (address != null) {
+            return address;
+        }
+
+        //Derive outside the lock so that a background precompute doesn't block the caller
+        address = new HDAddress(params, cKey, addrIdx);
+        synchronized (addressCache) {
+            addressCache.put(addrIdx, address);
+        }
+        return address;
+    }
+
+    /**
+     * Derives and caches addresses in the background, ie the next few receive addresses after
+     * the wallet has been decrypted.
+     *
+     * @param fromIdx first index to derive
+     * @param count   number of addresses to derive, at most the cache size
+     * @return Future which completes once all addresses are cached
+     */
+    public Future<?> precomputeAddresses(final int fromIdx, int count) {
+        final int toIdx = fromIdx + Math.min(count, ADDRESS_CACHE_SIZE);
+        return ParallelDerivation.submit(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = fromIdx; i < toIdx; i++) {
+                    getAddressAt(i);
+                }
+            }
+        });
     }
 
     /**
@@ -48,9 +48,7 @@ public class HDWallet {
         dkRoot = HDKeyDerivation.deriveChildKey(dKey, ChildNumber.HARDENED_BIT);
 
         accounts = new ArrayList<>();
-        for (int i = 0; i < nbAccounts; i++) {
-            accounts.add(new HDAccount(params, dkRoot, i));
-        }
+        addAccounts(nbAccounts);
 
         strPath = dKey.getPathAsString();
     }
@@ -60,16 +58,16 @@ public class HDWallet {
      *
      * @param xpubs arrayList of XPUB strings
      */
-    public HDWallet(NetworkParameters params, List<String> xpubs) throws AddressFormatException {
+    public HDWallet(final NetworkParameters params, final List<String> xpubs) throws AddressFormatException {
 
         this.params = params;
-        accounts = new ArrayList<>();
-
-        int i = 0;
-        for (String xpub : xpubs) {
-            accounts.add(new HDAccount(params, xpub, i));
-            i++;
-        }
+        accounts = new ArrayList<>(ParallelDerivation.derive(0, xpubs.size(),
+                new ParallelDerivation.Task<HDAccount>() {
+                    @Override
+                    public HDAccount derive(int index) {
+                        return new HDAccount(params, xpubs.get(index), index);
+                    }
+                }));
 
         hd_seed = null;
     }
@@ -143,6 +141,28 @@ public class HDWallet {
         return account;
     }
 
+    /**
+     * Add new accounts, deriving them in parallel.
+     *
+     * @param count number of accounts to add
+     * @return the added accounts
+     */
+    public List<HDAccount> addAccounts(int count) {
+        // Decode the shared parent point once, rather than racing to do so lazily on each thread
+        dkRoot.getPubKeyPoint();
+
+        List<HDAccount> added = ParallelDerivation.derive(accounts.size(), count,
+                new ParallelDerivation.Task<HDAccount>() {
+                    @Override
+                    public HDAccount derive(int index) {
+                        return new HDAccount(params, dkRoot, index);
+                    }
+                });
+        accounts.addAll(added);
+
+        return added;
+    }
+
     /**
      * Return BIP44 path for this wallet (m / purpose').
      *
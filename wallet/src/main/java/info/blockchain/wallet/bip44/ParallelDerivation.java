@@ -0,0 +1,97 @@
+package info.blockchain.wallet.bip44;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs independent key derivations (EC point multiplication, HMAC-SHA512) on a small bounded
+ * pool. Derivation from a shared parent key is side effect free, so each index can be derived on
+ * its own thread and results are returned in index order. Also used to precompute addresses
+ * ahead of time.
+ */
+final class ParallelDerivation {
+
+    interface Task<T> {
+        T derive(int index);
+    }
+
+    private static final int THREADS =
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private static final ExecutorService executor = newExecutor();
+
+    private ParallelDerivation() {
+        // Utility class
+    }
+
+    /**
+     * @return The results of task(from) to task(from + count - 1), in order
+     */
+    static <T> List<T> derive(int from, int count, final Task<T> task) {
+        List<T> results = new ArrayList<>(count);
+        if (count <= 1 || THREADS == 1) {
+            for (int i = from; i < from + count; i++) {
+                results.add(task.derive(i));
+            }
+            return results;
+        }
+
+        List<Future<T>> futures = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            final int index = i;
+            futures.add(executor.submit(new Callable<T>() {
+                @Override
+                public T call() {
+                    return task.derive(index);
+                }
+            }));
+        }
+
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            cancel(futures);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            cancel(futures);
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * Runs a derivation in the background without waiting for it.
+     */
+    static Future<?> submit(Runnable derivation) {
+        return executor.submit(derivation);
+    }
+
+    private static <T> void cancel(List<Future<T>> futures) {
+        for (Future<T> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    private static ExecutorService newExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS,
+                THREADS,
+                30,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -7,7 +7,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import info.blockchain.wallet.util.ObjectMappers;
 
 import java.io.IOException;
 
@@ -70,10 +70,10 @@ public class GenericMetadataAccount implements JsonSerializableAccount {
         // This is done to avoid storing the xPub in Metadata, but allowing serialization to take
         // place in-app.
         final GenericMetadataAccount safeCopy = new GenericMetadataAccount(this.label, this.archived);
-        return new ObjectMapper().writeValueAsString(safeCopy);
+        return ObjectMappers.writeValueAsString(safeCopy);
     }
 
     public static GenericMetadataAccount fromJson(String json) throws IOException {
-        return new ObjectMapper().readValue(json, GenericMetadataAccount.class);
+        return ObjectMappers.readValue(json, GenericMetadataAccount.class);
     }
 }
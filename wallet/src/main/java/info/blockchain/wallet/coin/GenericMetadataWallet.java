@@ -6,7 +6,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import info.blockchain.wallet.util.ObjectMappers;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -68,11 +68,11 @@ public class GenericMetadataWallet {
     }
 
     public String toJson() throws JsonProcessingException {
-        return new ObjectMapper().writeValueAsString(returnSafeClone());
+        return ObjectMappers.writeValueAsString(returnSafeClone());
     }
 
     public static GenericMetadataWallet fromJson(String json) throws IOException {
-        return new ObjectMapper().readValue(json, GenericMetadataWallet.class);
+        return ObjectMappers.readValue(json, GenericMetadataWallet.class);
     }
 
     /**
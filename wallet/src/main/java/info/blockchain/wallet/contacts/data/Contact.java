@@ -7,7 +7,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import info.blockchain.wallet.util.ObjectMappers;
 import io.mikael.urlbuilder.UrlBuilder;
 import io.mikael.urlbuilder.util.UrlParameterMultimap;
 import java.io.IOException;
@@ -177,11 +177,11 @@ public class Contact implements JsonSerializableAccount {
     }
 
     public Contact fromJson(String json) throws IOException {
-        return new ObjectMapper().readValue(json, Contact.class);
+        return ObjectMappers.readValue(json, Contact.class);
     }
 
     public String toJson() throws JsonProcessingException {
-        return new ObjectMapper().writeValueAsString(this);
+        return ObjectMappers.writeValueAsString(this);
     }
 
     private UrlParameterMultimap toQueryParameters() {
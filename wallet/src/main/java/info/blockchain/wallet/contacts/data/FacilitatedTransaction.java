@@ -5,8 +5,8 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import info.blockchain.wallet.api.PersistentUrls;
+import info.blockchain.wallet.util.ObjectMappers;
 import java.io.IOException;
 import java.util.UUID;
 import org.bitcoinj.core.Coin;
@@ -151,11 +151,11 @@ public class FacilitatedTransaction {
 
     @JsonIgnore
     public FacilitatedTransaction fromJson(String json) throws IOException {
-        return new ObjectMapper().readValue(json, FacilitatedTransaction.class);
+        return ObjectMappers.readValue(json, FacilitatedTransaction.class);
     }
 
     @JsonIgnore
     public String toJson() throws JsonProcessingException {
-        return new ObjectMapper().writeValueAsString(this);
+        return ObjectMappers.writeValueAsString(this);
     }
 }
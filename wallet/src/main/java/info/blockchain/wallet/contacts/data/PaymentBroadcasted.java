@@ -6,7 +6,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import info.blockchain.wallet.util.ObjectMappers;
 import java.io.IOException;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -41,11 +41,11 @@ public class PaymentBroadcasted {
 
     @JsonIgnore
     public PaymentBroadcasted fromJson(String json) throws IOException {
-        return new ObjectMapper().readValue(json, PaymentBroadcasted.class);
+        return ObjectMappers.readValue(json, PaymentBroadcasted.class);
     }
 
     @JsonIgnore
     public String toJson() throws JsonProcessingException {
-        return new ObjectMapper().writeValueAsString(this);
+        return ObjectMappers.writeValueAsString(this);
     }
 }
\ No newline at end of file
@@ -5,7 +5,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import info.blockchain.wallet.util.ObjectMappers;
 import java.io.IOException;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -32,12 +32,12 @@ public class PaymentDeclinedResponse {
 
     @JsonIgnore
     public PaymentDeclinedResponse fromJson(String json) throws IOException {
-        return new ObjectMapper().readValue(json, PaymentDeclinedResponse.class);
+        return ObjectMappers.readValue(json, PaymentDeclinedResponse.class);
     }
 
     @JsonIgnore
     public String toJson() throws JsonProcessingException {
-        return new ObjectMapper().writeValueAsString(this);
+        return ObjectMappers.writeValueAsString(this);
     }
 
 }
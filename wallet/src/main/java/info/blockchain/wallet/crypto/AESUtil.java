@@ -35,6 +35,12 @@ public class AESUtil {
     private static final int AESBlockSize = 4;
     private static final int KEY_BIT_LEN = 256;
 
+    // A derived key is 32 bytes, so this bounds the cache at ~32KB plus keys
+    private static final int KEY_CACHE_SIZE = 1024;
+    private static final DerivedKeyCache keyCache = new DerivedKeyCache(KEY_CACHE_SIZE);
+
+    private static final SecureRandom secureRandom = new SecureRandom();
+
     private static byte[] copyOfRange(byte[] source, int from, int to) {
         byte[] range = new byte[to - from];
         System.arraycopy(source, from, range, 0, range.length);
@@ -50,34 +56,41 @@ public class AESUtil {
 
     public static String decryptWithSetMode(String ciphertext, String password, int iterations, int mode, @Nullable BlockCipherPadding padding) throws InvalidCipherTextException, UnsupportedEncodingException, DecryptionException {
 
+        // return string representation of decoded bytes
+        String result = new String(decryptBytesWithSetMode(ciphertext, password, iterations, mode, padding), "UTF-8");
+        if (result.isEmpty()) {
+            throw new DecryptionException("Decrypted string is empty.");
+        }
+
+        return result;
+    }
+
+    // As decrypt, but returns the UTF-8 encoded bytes so large payloads can be parsed without
+    // first being copied into a String
+    public static byte[] decryptBytes(String ciphertext, String password, int iterations) throws InvalidCipherTextException, DecryptionException {
+
+        byte[] result = decryptBytesWithSetMode(ciphertext, password, iterations, MODE_CBC, new ISO10126d2Padding());
+        if (result.length == 0) {
+            throw new DecryptionException("Decrypted string is empty.");
+        }
+
+        return result;
+    }
+
+    private static byte[] decryptBytesWithSetMode(String ciphertext, String password, int iterations, int mode, @Nullable BlockCipherPadding padding) throws InvalidCipherTextException {
+
         byte[] cipherdata = Base64.decodeBase64(ciphertext.getBytes());
 
         //Separate the IV and cipher data
         byte[] iv = copyOfRange(cipherdata, 0, AESBlockSize * 4);
         byte[] input = copyOfRange(cipherdata, AESBlockSize * 4, cipherdata.length);
 
-        PBEParametersGenerator generator = new PKCS5S2ParametersGenerator();
-        generator.init(PBEParametersGenerator.PKCS5PasswordToUTF8Bytes(password.toCharArray()), iv, iterations);
-        KeyParameter keyParam = (KeyParameter) generator.generateDerivedParameters(256);
+        // The IV doubles as the PBKDF2 salt, so the same ciphertext always needs the same key
+        KeyParameter keyParam = deriveKey(password, iv, iterations, true);
 
         CipherParameters params = new ParametersWithIV(keyParam, iv);
 
-        BlockCipher cipherMode;
-        if (mode == MODE_CBC) {
-            cipherMode = new CBCBlockCipher(new AESEngine());
-
-        } else {
-            //mode == MODE_OFB
-            cipherMode = new OFBBlockCipher(new AESEngine(), 128);
-        }
-
-        BufferedBlockCipher cipher;
-        if (padding != null) {
-            cipher = new PaddedBufferedBlockCipher(cipherMode, padding);
-        } else {
-            cipher = new BufferedBlockCipher(cipherMode);
-        }
-
+        BufferedBlockCipher cipher = newCipher(mode, padding);
         cipher.reset();
         cipher.init(false, params);
 
@@ -90,13 +103,7 @@ public class AESUtil {
         byte[] out = new byte[len];
         System.arraycopy(buf, 0, out, 0, len);
 
-        // return string representation of decoded bytes
-        String result = new String(out, "UTF-8");
-        if (result.isEmpty()) {
-            throw new DecryptionException("Decrypted string is empty.");
-        }
-
-        return result;
+        return out;
     }
 
     // AES 256 PBKDF2 CBC iso10126 encryption
@@ -114,34 +121,16 @@ public class AESUtil {
         }
 
         // Use secure random to generate a 16 byte iv
-        SecureRandom random = new SecureRandom();
-        byte iv[] = new byte[AESBlockSize * 4];
-        random.nextBytes(iv);
+        byte iv[] = getSalt();
 
         byte[] clearbytes = cleartext.getBytes("UTF-8");
 
-        PBEParametersGenerator generator = new PKCS5S2ParametersGenerator();
-        generator.init(PBEParametersGenerator.PKCS5PasswordToUTF8Bytes(password.toCharArray()), iv, iterations);
-        KeyParameter keyParam = (KeyParameter) generator.generateDerivedParameters(256);
+        // A fresh random salt is never seen again, so there is no point caching this key
+        KeyParameter keyParam = deriveKey(password, iv, iterations, false);
 
         CipherParameters params = new ParametersWithIV(keyParam, iv);
 
-        BlockCipher cipherMode;
-        if (mode == MODE_CBC) {
-            cipherMode = new CBCBlockCipher(new AESEngine());
-
-        } else {
-            //mode == MODE_OFB
-            cipherMode = new OFBBlockCipher(new AESEngine(), 128);
-        }
-
-        BufferedBlockCipher cipher;
-        if (padding != null) {
-            cipher = new PaddedBufferedBlockCipher(cipherMode, padding);
-        } else {
-            cipher = new BufferedBlockCipher(cipherMode);
-        }
-
+        BufferedBlockCipher cipher = newCipher(mode, padding);
         cipher.reset();
         cipher.init(true, params);
 
@@ -182,9 +171,8 @@ public class AESUtil {
      */
     private static byte[] getSalt() {
 
-        SecureRandom random = new SecureRandom();
         byte iv[] = new byte[AESBlockSize * 4];
-        random.nextBytes(iv);
+        secureRandom.nextBytes(iv);
 
         return iv;
     }
@@ -261,10 +249,56 @@ public class AESUtil {
 
         byte[] salt = "salt".getBytes("utf-8");
 
+        return deriveKey(string, salt, iterations, true).getKey();
+    }
+
+    /**
+     * Wipes all cached derived keys. Call on logout.
+     */
+    public static void clearKeyCache() {
+        keyCache.clear();
+    }
+
+    static DerivedKeyCache getKeyCache() {
+        return keyCache;
+    }
+
+    private static KeyParameter deriveKey(String password, byte[] salt, int iterations, boolean cache) {
+        byte[] passwordBytes = PBEParametersGenerator.PKCS5PasswordToUTF8Bytes(password.toCharArray());
+
+        String id = null;
+        if (cache) {
+            id = DerivedKeyCache.id(passwordBytes, salt, iterations);
+            byte[] key = keyCache.get(id);
+            if (key != null) {
+                return new KeyParameter(key);
+            }
+        }
+
         PBEParametersGenerator generator = new PKCS5S2ParametersGenerator();
-        generator.init(PBEParametersGenerator.PKCS5PasswordToUTF8Bytes(string.toCharArray()), salt, iterations);
+        generator.init(passwordBytes, salt, iterations);
         KeyParameter keyParam = (KeyParameter) generator.generateDerivedParameters(KEY_BIT_LEN);
 
-        return  keyParam.getKey();
+        if (cache) {
+            keyCache.put(id, keyParam.getKey());
+        }
+        return keyParam;
+    }
+
+    private static BufferedBlockCipher newCipher(int mode, @Nullable BlockCipherPadding padding) {
+        BlockCipher cipherMode;
+        if (mode == MODE_CBC) {
+            cipherMode = new CBCBlockCipher(new AESEngine());
+
+        } else {
+            //mode == MODE_OFB
+            cipherMode = new OFBBlockCipher(new AESEngine(), 128);
+        }
+
+        if (padding != null) {
+            return new PaddedBufferedBlockCipher(cipherMode, padding);
+        } else {
+            return new BufferedBlockCipher(cipherMode);
+        }
     }
 }
\ No newline at end of file
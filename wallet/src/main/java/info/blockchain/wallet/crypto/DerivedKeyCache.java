@@ -0,0 +1,90 @@
+package info.blockchain.wallet.crypto;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of expensive key derivations (PBKDF2, iterated hashes). Entries are looked
+ * up by a SHA-256 digest of the derivation inputs, so the secret itself is never held as a key.
+ * Evicted and cleared keys are zeroed.
+ */
+public final class DerivedKeyCache {
+
+    private final LinkedHashMap<String, byte[]> keys;
+
+    public DerivedKeyCache(final int maxEntries) {
+        this.keys = new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                if (size() > maxEntries) {
+                    Arrays.fill(eldest.getValue(), (byte) 0);
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return A copy of the cached key, or null if not present
+     */
+    public synchronized byte[] get(String id) {
+        byte[] key = keys.get(id);
+        return key != null ? key.clone() : null;
+    }
+
+    public synchronized void put(String id, byte[] key) {
+        byte[] previous = keys.put(id, key.clone());
+        if (previous != null) {
+            Arrays.fill(previous, (byte) 0);
+        }
+    }
+
+    public synchronized int size() {
+        return keys.size();
+    }
+
+    public synchronized void clear() {
+        for (byte[] key : keys.values()) {
+            Arrays.fill(key, (byte) 0);
+        }
+        keys.clear();
+    }
+
+    /**
+     * @param secret     Password bytes
+     * @param salt       Salt, may be empty
+     * @param iterations Iteration count
+     * @return An identifier unique to the combination of inputs
+     */
+    public static String id(byte[] secret, byte[] salt, int iterations) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(new byte[]{
+                    (byte) (iterations >>> 24),
+                    (byte) (iterations >>> 16),
+                    (byte) (iterations >>> 8),
+                    (byte) iterations,
+                    (byte) (salt.length >>> 8),
+                    (byte) salt.length});
+            digest.update(salt);
+            digest.update(secret);
+            return toHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] digits = "0123456789abcdef".toCharArray();
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = digits[(bytes[i] >> 4) & 0xf];
+            hex[i * 2 + 1] = digits[bytes[i] & 0xf];
+        }
+        return new String(hex);
+    }
+}
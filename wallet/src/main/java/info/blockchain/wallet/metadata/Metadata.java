@@ -38,12 +38,7 @@ public class Metadata {
     private ECKey node;
     private byte[] encryptionKey;
     private byte[] magicHash;
-
-    private short attempt;
-
-    public Metadata() {
-        attempt = FETCH_MAGIC_HASH_ATTEMPT_LIMIT;
-    }
+    private boolean isMagicHashKnown;
 
     public void setAddress(String address) {
         this.address = address;
@@ -80,6 +75,7 @@ public class Metadata {
     @VisibleForTesting
     void setMagicHash(byte[] magicHash) {
         this.magicHash = magicHash;
+        this.isMagicHashKnown = true;
     }
 
     private MetadataEndpoints getApiInstance() {
@@ -91,44 +87,70 @@ public class Metadata {
         return endpoints;
     }
 
-    public void fetchMagic() throws IOException, MetadataException {
+    public synchronized void fetchMagic() throws IOException, MetadataException {
         Call<MetadataResponse> response = getApiInstance().getMetadata(address);
 
         Response<MetadataResponse> exe = response.execute();
 
         if (exe.isSuccessful()) {
-            MetadataResponse body = exe.body();
-
-            byte[] encryptedPayloadBytes = Base64.decode(exe.body().getPayload().getBytes("utf-8"));
-
-            if (body.getPrevMagicHash() != null) {
-                byte[] prevMagicBytes = Hex.decode(body.getPrevMagicHash());
-                magicHash = MetadataUtil.magic(encryptedPayloadBytes, prevMagicBytes);
-            } else {
-                magicHash = MetadataUtil.magic(encryptedPayloadBytes, null);
-            }
-
+            updateMagicHash(exe.body());
         } else {
             if (exe.code() == 404) {
-                magicHash = null;
+                setMagicHash(null);
             } else {
                 throw new MetadataException(exe.code() + " " + exe.message());
             }
         }
     }
 
+    /**
+     * The magic hash of an entry can be computed from any response for it, so reads of this
+     * node's own entry keep it current without a separate request.
+     */
+    private void updateMagicHash(MetadataResponse body) throws IOException {
+        byte[] encryptedPayloadBytes = Base64.decode(body.getPayload().getBytes("utf-8"));
+
+        if (body.getPrevMagicHash() != null) {
+            byte[] prevMagicBytes = Hex.decode(body.getPrevMagicHash());
+            setMagicHash(MetadataUtil.magic(encryptedPayloadBytes, prevMagicBytes));
+        } else {
+            setMagicHash(MetadataUtil.magic(encryptedPayloadBytes, null));
+        }
+    }
+
+    /**
+     * A stale magic hash is rejected by the server. This happens when the entry was written by
+     * another platform since we last read it.
+     */
+    private static boolean isMagicHashConflict(int code) {
+        return code == 401 || code == 409;
+    }
+
     /**
      * Put new metadata entry
      *
      * @param payload JSON Stringified object
      */
-    public void putMetadata(String payload) throws IOException, InvalidCipherTextException,
+    public synchronized void putMetadata(String payload) throws IOException, InvalidCipherTextException,
+            MetadataException {
+        putMetadata(payload, FETCH_MAGIC_HASH_ATTEMPT_LIMIT);
+    }
+
+    /**
+     * @param attempts How many more times the magic hash may be fetched again on a conflict. Counted per
+     *                 put, as the node is kept for the whole session.
+     */
+    private void putMetadata(String payload, int attempts) throws IOException, InvalidCipherTextException,
             MetadataException {
 
         //Ensure json syntax is correct
         if (!FormatsUtil.isValidJson(payload))
             throw new JSONException("Payload is not a valid json object.");
 
+        if (!isMagicHashKnown) {
+            fetchMagic();
+        }
+
         byte[] encryptedPayloadBytes;
 
         if (isEncrypted) {
@@ -156,18 +178,16 @@ public class Metadata {
         Response<Void> exe = response.execute();
 
         if (!exe.isSuccessful()) {
-            if (exe.code() == 401 && attempt > 0) {
+            if (isMagicHashConflict(exe.code()) && attempts > 0) {
                 // Unauthorized - Possible cross platform clash
                 // Fetch magic hash and retry
                 fetchMagic();
-                attempt--;
-                putMetadata(payload);
+                putMetadata(payload, attempts - 1);
             } else {
                 throw new MetadataException(exe.code() + " " + exe.message());
             }
         } else {
-            attempt = FETCH_MAGIC_HASH_ATTEMPT_LIMIT;
-            magicHash = nextMagicHash;
+            setMagicHash(nextMagicHash);
         }
     }
 
@@ -189,16 +209,22 @@ public class Metadata {
     /**
      * Get metadata entry
      */
-    private Optional<String> getMetadataEntry(String address, boolean isEncrypted) throws MetadataException,
+    private synchronized Optional<String> getMetadataEntry(String address, boolean isEncrypted)
+            throws MetadataException,
             IOException,
             InvalidCipherTextException {
 
         Call<MetadataResponse> response = getApiInstance().getMetadata(address);
 
         Response<MetadataResponse> exe = response.execute();
+        boolean isOwnEntry = address != null && address.equals(this.address);
 
         if (exe.isSuccessful()) {
 
+            if (isOwnEntry) {
+                updateMagicHash(exe.body());
+            }
+
             if (isEncrypted) {
                 return Optional.of(AESUtil.decryptWithKey(encryptionKey, exe.body().getPayload()));
             } else {
@@ -207,6 +233,9 @@ public class Metadata {
         } else {
 
             if (exe.code() == 404) {
+                if (isOwnEntry) {
+                    setMagicHash(null);
+                }
                 return Optional.absent();
             } else {
                 throw new MetadataException(exe.code() + " " + exe.message());
@@ -217,9 +246,13 @@ public class Metadata {
     /**
      * Delete metadata entry
      */
-    public void deleteMetadata(String payload) throws IOException, InvalidCipherTextException,
+    public synchronized void deleteMetadata(String payload) throws IOException, InvalidCipherTextException,
             MetadataException {
 
+        if (!isMagicHashKnown) {
+            fetchMagic();
+        }
+
         byte[] encryptedPayloadBytes;
 
         if (isEncrypted) {
@@ -240,7 +273,7 @@ public class Metadata {
         if (!exe.isSuccessful()) {
             throw new MetadataException(exe.code() + " " + exe.message());
         } else {
-            magicHash = null;
+            setMagicHash(null);
         }
     }
 
@@ -253,7 +286,7 @@ public class Metadata {
         //Optional Override
         private boolean isEncrypted = true;//default
         private byte[] encryptionKey;
-
+        private boolean fetchMagicHash = true;//default
 
         public Builder(DeterministicKey metaDataHDNode, int type) {
             this.metaDataHDNode = metaDataHDNode;
@@ -270,6 +303,15 @@ public class Metadata {
             return this;
         }
 
+        /**
+         * When false the magic hash isn't fetched on build. It's taken from the first read of the
+         * entry instead, or fetched before the first write if there hasn't been one.
+         */
+        public Builder setFetchMagicHash(boolean fetchMagicHash) {
+            this.fetchMagicHash = fetchMagicHash;
+            return this;
+        }
+
         /**
          * purpose' / type' / 0' : https://meta.blockchain.info/{address} - signature used to
          * authorize purpose' / type' / 1' : sha256(private key) used as 256 bit AES key
@@ -290,7 +332,9 @@ public class Metadata {
             metadata.setNode(node);
             metadata.setEncryptionKey(encryptionKey);
             metadata.setType(type);
-            metadata.fetchMagic();
+            if (fetchMagicHash) {
+                metadata.fetchMagic();
+            }
 
             return metadata;
         }
@@ -0,0 +1,87 @@
+package info.blockchain.wallet.multiaddress;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hash based lookup of which addresses belong to the wallet. Holds the HD address to xpub
+ * mapping learned from multiaddress responses, and hands out a {@link Scope} per summarize
+ * call so that own, watch-only and legacy checks are O(1) instead of {@link java.util.List#contains}.
+ */
+public class AddressOwnershipIndex {
+
+    //Field for testing if address belongs to us - Quicker than derivation
+    private final HashMap<String, String> addressToXpubMap = new HashMap<>();
+
+    public String getXpub(String address) {
+        return addressToXpubMap.get(address);
+    }
+
+    public boolean isOwnHDAddress(String address) {
+        return addressToXpubMap.containsKey(address);
+    }
+
+    public void putXpubs(Map<String, String> addressToXpub) {
+        addressToXpubMap.putAll(addressToXpub);
+    }
+
+    public int size() {
+        return addressToXpubMap.size();
+    }
+
+    /**
+     * @param ownAddressesAndXpubs Xpubs and legacy addresses the multiaddress call was made for
+     * @param watchOnlyAddresses   Watch-only legacy addresses
+     * @param legacy               Legacy addresses to filter for, or null when not filtering
+     * @return A lookup scoped to a single multiaddress response
+     */
+    public Scope scope(Collection<String> ownAddressesAndXpubs,
+                       Collection<String> watchOnlyAddresses,
+                       Collection<String> legacy) {
+        return new Scope(ownAddressesAndXpubs, watchOnlyAddresses, legacy);
+    }
+
+    public static class Scope {
+
+        private final Set<String> own;
+        private final Set<String> watchOnly;
+        private final Set<String> legacy;
+
+        Scope(Collection<String> ownAddressesAndXpubs,
+              Collection<String> watchOnlyAddresses,
+              Collection<String> legacy) {
+            this.own = new HashSet<>(ownAddressesAndXpubs);
+            this.watchOnly = watchOnlyAddresses != null
+                    ? new HashSet<>(watchOnlyAddresses) : Collections.<String>emptySet();
+            this.legacy = legacy != null ? new HashSet<>(legacy) : null;
+        }
+
+        /**
+         * Marks an address as ours for the remainder of this scope, ie when the API has returned
+         * an xpub body for it.
+         */
+        public void addOwn(String address) {
+            own.add(address);
+        }
+
+        public boolean isOwn(String address) {
+            return own.contains(address);
+        }
+
+        public boolean isWatchOnly(String address) {
+            return watchOnly.contains(address);
+        }
+
+        public boolean isFilteringLegacy() {
+            return legacy != null;
+        }
+
+        public boolean isLegacy(String address) {
+            return legacy != null && legacy.contains(address);
+        }
+    }
+}
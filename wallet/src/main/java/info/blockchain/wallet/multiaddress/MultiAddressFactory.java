@@ -25,31 +25,43 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 import retrofit2.Call;
 import retrofit2.Response;
 
 public class MultiAddressFactory {
 
+    private static Logger log = LoggerFactory.getLogger(MultiAddressFactory.class);
+
     private BlockExplorer blockExplorer;
 
     private HashMap<String, Integer> nextReceiveAddressMap;
     private HashMap<String, Integer> nextChangeAddressMap;
 
-    //Field for testing if address belongs to us - Quicker than derivation
-    private HashMap<String, String> addressToXpubMap;
+    private AddressOwnershipIndex ownershipIndex;
+
+    //Refreshes for different contexts run concurrently on io threads
+    private ConcurrentHashMap<String, TransactionSyncCursor> syncCursors;
 
     public static final String ADDRESS_DECODE_ERROR = "[--address_decode_error--]";
 
+    //Transactions fetched per round trip while catching up on a previously synced context
+    static final int SYNC_PAGE_SIZE = 10;
+
+    private static final String SYNC_KEY_ALL = "all";
+    private static final String SYNC_KEY_LEGACY = "all_legacy";
+
     public MultiAddressFactory(BlockExplorer blockExplorer) {
         this.blockExplorer = blockExplorer;
-        this.addressToXpubMap = new HashMap<>();
+        this.ownershipIndex = new AddressOwnershipIndex();
+        this.syncCursors = new ConcurrentHashMap<>();
         this.nextReceiveAddressMap = new HashMap<>();
         this.nextChangeAddressMap = new HashMap<>();
     }
 
     public String getXpubFromAddress(String address) {
-        return addressToXpubMap.get(address);
+        return ownershipIndex.getXpub(address);
     }
 
     private MultiAddress getMultiAddress(List<String> allActive, String onlyShow, int limit,
@@ -104,6 +116,87 @@ public class MultiAddressFactory {
         return summarize(all, watchOnly, multiAddress, activeLegacy, startingBlockHeight);
     }
 
+    /**
+     * Incremental version of {@link #getAccountTransactions}. The first call for a given context
+     * fetches a full page, after which only transactions newer than the newest confirmed
+     * transaction already known are fetched, in pages of {@link #SYNC_PAGE_SIZE}, and merged
+     * into the previous result.
+     *
+     * @param all          A list of all xpubs and legacy addresses whose transactions are to
+     *                     be retrieved from API.
+     * @param watchOnly    A list of watch-only legacy addresses. Used to flag transactions as 'watch-only'
+     * @param activeLegacy Only set this when fetching a transaction list for imported addresses,
+     *                     otherwise set as Null.
+     * @param onlyShow     Xpub or legacy address. Set as Null for a consolidated list.
+     * @param limit        Maximum amount of transactions returned
+     * @return The merged list of the newest transactions, newest first
+     */
+    public List<TransactionSummary> syncAccountTransactions(List<String> all,
+                                                            List<String> watchOnly,
+                                                            List<String> activeLegacy,
+                                                            String onlyShow,
+                                                            int limit,
+                                                            int startingBlockHeight)
+            throws IOException, ApiException {
+
+        String key = getSyncKey(activeLegacy, onlyShow);
+        TransactionSyncCursor cursor = syncCursors.get(key);
+
+        if (cursor == null || !cursor.isFor(all) || cursor.isEmpty()) {
+            cursor = new TransactionSyncCursor(all);
+            List<TransactionSummary> summaries = getAccountTransactions(all,
+                    watchOnly,
+                    activeLegacy,
+                    onlyShow,
+                    limit,
+                    0,
+                    startingBlockHeight);
+            cursor.reset(summaries);
+            syncCursors.put(key, cursor);
+            return new ArrayList<>(summaries);
+        }
+
+        List<TransactionSummary> delta = new ArrayList<>();
+        long latestBlock = 0;
+        int offset = 0;
+        while (offset < limit) {
+            int pageSize = Math.min(SYNC_PAGE_SIZE, limit - offset);
+            MultiAddress multiAddress = getMultiAddress(all, onlyShow, pageSize, offset);
+            if (multiAddress == null || multiAddress.getTxs() == null) {
+                break;
+            }
+
+            latestBlock = multiAddress.getInfo().getLatestBlock().getHeight();
+            delta.addAll(summarize(all, watchOnly, multiAddress, activeLegacy, startingBlockHeight));
+
+            if (multiAddress.getTxs().size() < pageSize || containsSettled(cursor, multiAddress.getTxs())) {
+                break;
+            }
+            offset += pageSize;
+        }
+
+        log.debug("Synced {} txs since {} at block {}",
+                delta.size(), cursor.getNewestHash(), cursor.getNewestBlockHeight());
+
+        return cursor.merge(delta, latestBlock, limit);
+    }
+
+    private boolean containsSettled(TransactionSyncCursor cursor, List<Transaction> txs) {
+        for (Transaction tx : txs) {
+            if (cursor.isSettled(tx.getHash())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String getSyncKey(List<String> activeLegacy, String onlyShow) {
+        if (onlyShow != null) {
+            return onlyShow;
+        }
+        return activeLegacy != null ? SYNC_KEY_LEGACY : SYNC_KEY_ALL;
+    }
+
     public int getNextChangeAddressIndex(String xpub) {
         if (!nextChangeAddressMap.containsKey(xpub)) {
             return 0;
@@ -137,7 +230,7 @@ public class MultiAddressFactory {
     }
 
     public boolean isOwnHDAddress(String address) {
-        return addressToXpubMap.containsKey(address);
+        return ownershipIndex.isOwnHDAddress(address);
     }
 
     public void incrementNextReceiveAddress(String xpub, List<AddressLabel> reservedAddresses) {
@@ -185,6 +278,10 @@ public class MultiAddressFactory {
                                               int startingBlockHeight) {
 
         List<TransactionSummary> summaryList = new ArrayList<>();
+        AddressOwnershipIndex.Scope ownership = ownershipIndex.scope(
+                ownAddressesAndXpubs,
+                watchOnlyAddresses,
+                legacy);
 
         //Set next address indexes
         for (AddressSummary address : multiAddress.getAddresses()) {
@@ -241,17 +338,17 @@ public class MultiAddressFactory {
                         if (xpubBody != null) {
                             //xpubBody will only show if it belongs to our account
                             //inputAddr belongs to our own account - add it, it's a transfer/send
-                            ownAddressesAndXpubs.add(inputAddr);
+                            ownership.addOwn(inputAddr);
                             txSummary.inputsXpubMap.put(inputAddr, xpubBody.getM());
                         }
 
                         //Flag as watch only
-                        if (watchOnlyAddresses.contains(inputAddr)) {
+                        if (ownership.isWatchOnly(inputAddr)) {
                             txSummary.setWatchOnly(true);
                         }
 
                         //Flag as imported legacy address
-                        if (legacy != null && legacy.contains(inputAddr)) {
+                        if (ownership.isLegacy(inputAddr)) {
                             isLegacy = true;
                         }
 
@@ -283,7 +380,7 @@ public class MultiAddressFactory {
                     if (xpubBody != null) {
 
                         //inputAddr belongs to our own account - add it
-                        ownAddressesAndXpubs.add(outputAddr);
+                        ownership.addOwn(outputAddr);
                         if (xpubBody.getPath().startsWith("M/" + HDChain.RECEIVE_CHAIN + "/")) {
                             BigInteger existingBalance = txSummary.outputsMap.containsKey(outputAddr)
                                     ? txSummary.outputsMap.get(outputAddr) : BigInteger.ZERO;
@@ -296,8 +393,8 @@ public class MultiAddressFactory {
 
                     } else {
                         //If we own this address and it's not change coming back, it's a transfer
-                        if (ownAddressesAndXpubs.contains(outputAddr)
-                                && !txSummary.inputsMap.keySet().contains(outputAddr)) {
+                        if (ownership.isOwn(outputAddr)
+                                && !txSummary.inputsMap.containsKey(outputAddr)) {
 
                             if (txSummary.getDirection() == Direction.SENT) {
                                 txSummary.setDirection(Direction.TRANSFERRED);
@@ -312,7 +409,7 @@ public class MultiAddressFactory {
                                 changeMap.put(outputAddr, outputValue);
                             }
 
-                        } else if (txSummary.inputsMap.keySet().contains(outputAddr)) {
+                        } else if (txSummary.inputsMap.containsKey(outputAddr)) {
                             //Our change
                             changeMap.put(outputAddr, outputValue);
                         } else {
@@ -324,12 +421,12 @@ public class MultiAddressFactory {
                     }
 
                     //Flag as watch only
-                    if (watchOnlyAddresses.contains(outputAddr)) {
+                    if (ownership.isWatchOnly(outputAddr)) {
                         txSummary.setWatchOnly(true);
                     }
 
                     //Flag as imported legacy address
-                    if (legacy != null && legacy.contains(outputAddr)) {
+                    if (ownership.isLegacy(outputAddr)) {
                         isLegacy = true;
                     }
                 } else {
@@ -339,13 +436,13 @@ public class MultiAddressFactory {
             }
 
             //If we are filtering for legacy and nothing found
-            if (legacy != null && !isLegacy) {
+            if (ownership.isFilteringLegacy() && !isLegacy) {
                 continue;
             }
 
             //Remove input addresses not ours
             filterOwnedAddresses(
-                    ownAddressesAndXpubs,
+                    ownership,
                     txSummary.inputsMap,
                     txSummary.outputsMap,
                     txSummary.getDirection());
@@ -370,14 +467,15 @@ public class MultiAddressFactory {
             //Set confirmations
             long latestBlock = multiAddress.getInfo().getLatestBlock().getHeight();
             long txBlockHeight = tx.getBlockHeight();
+            txSummary.setBlockHeight(txBlockHeight);
             if (latestBlock > 0 && txBlockHeight > 0) {
                 txSummary.setConfirmations((int) ((latestBlock - txBlockHeight) + 1));
             } else {
                 txSummary.setConfirmations(0);
             }
 
-            addressToXpubMap.putAll(txSummary.getInputsXpubMap());
-            addressToXpubMap.putAll(txSummary.getOutputsXpubMap());
+            ownershipIndex.putXpubs(txSummary.getInputsXpubMap());
+            ownershipIndex.putXpubs(txSummary.getOutputsXpubMap());
 
             summaryList.add(txSummary);
         }
@@ -385,14 +483,14 @@ public class MultiAddressFactory {
         return summaryList;
     }
 
-    private void filterOwnedAddresses(List<String> ownAddressesAndXpubs,
+    private void filterOwnedAddresses(AddressOwnershipIndex.Scope ownership,
                                       HashMap<String, BigInteger> inputsMap,
                                       HashMap<String, BigInteger> outputsMap, Direction direction) {
 
         Iterator<Entry<String, BigInteger>> iterator = inputsMap.entrySet().iterator();
         while (iterator.hasNext()) {
             Entry<String, BigInteger> item = iterator.next();
-            if (!ownAddressesAndXpubs.contains(item.getKey()) && direction.equals(Direction.SENT)) {
+            if (!ownership.isOwn(item.getKey()) && direction.equals(Direction.SENT)) {
                 iterator.remove();
             }
         }
@@ -400,7 +498,7 @@ public class MultiAddressFactory {
         iterator = outputsMap.entrySet().iterator();
         while (iterator.hasNext()) {
             Entry<String, BigInteger> item = iterator.next();
-            if (!ownAddressesAndXpubs.contains(item.getKey()) && direction.equals(Direction.RECEIVED)) {
+            if (!ownership.isOwn(item.getKey()) && direction.equals(Direction.RECEIVED)) {
                 iterator.remove();
             }
         }
@@ -16,6 +16,7 @@ public class TransactionSummary {
     private Direction direction;
     private long time;
     private int confirmations;
+    private long blockHeight;//0 until included in a block
     private boolean isWatchOnly;
     private boolean isDoubleSpend;
     private boolean isPending;//Sent to server but not confirmed
@@ -60,6 +61,14 @@ public class TransactionSummary {
         this.confirmations = confirmations;
     }
 
+    public long getBlockHeight() {
+        return blockHeight;
+    }
+
+    public void setBlockHeight(long blockHeight) {
+        this.blockHeight = blockHeight;
+    }
+
     public BigInteger getTotal() {
         return total;
     }
@@ -0,0 +1,126 @@
+package info.blockchain.wallet.multiaddress;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Remembers the most recent page of {@link TransactionSummary} objects for a single multiaddress
+ * context (an xpub, a legacy address or a consolidated list), so that a refresh only needs to
+ * fetch and summarize transactions newer than the newest confirmed one already known.
+ *
+ * Summaries handed out by a cursor are never modified afterwards, since callers keep hold of
+ * them.
+ */
+class TransactionSyncCursor {
+
+    private final Set<String> addresses;
+
+    //Newest first, keyed by tx hash
+    private LinkedHashMap<String, TransactionSummary> summaries = new LinkedHashMap<>();
+
+    TransactionSyncCursor(List<String> addresses) {
+        this.addresses = new HashSet<>(addresses);
+    }
+
+    /**
+     * @return True if this cursor was built for the same set of xpubs and legacy addresses
+     */
+    boolean isFor(List<String> addresses) {
+        return this.addresses.size() == addresses.size() && this.addresses.containsAll(addresses);
+    }
+
+    synchronized boolean isEmpty() {
+        return summaries.isEmpty();
+    }
+
+    /**
+     * @return True if the transaction is known and was already included in a block, meaning
+     * nothing older than it needs to be fetched again.
+     */
+    synchronized boolean isSettled(String hash) {
+        TransactionSummary summary = summaries.get(hash);
+        return summary != null && summary.getBlockHeight() > 0;
+    }
+
+    synchronized String getNewestHash() {
+        return summaries.isEmpty() ? null : summaries.keySet().iterator().next();
+    }
+
+    synchronized long getNewestBlockHeight() {
+        long height = 0;
+        for (TransactionSummary summary : summaries.values()) {
+            height = Math.max(height, summary.getBlockHeight());
+        }
+        return height;
+    }
+
+    /**
+     * Replaces the known history with a freshly fetched page.
+     */
+    synchronized void reset(List<TransactionSummary> page) {
+        summaries = new LinkedHashMap<>();
+        for (TransactionSummary summary : page) {
+            summaries.put(summary.getHash(), summary);
+        }
+    }
+
+    /**
+     * Merges newly fetched transactions in front of the known history. Known transactions are
+     * replaced by their fresh summaries, confirmations of the rest are recalculated from the
+     * latest block and unconfirmed transactions which are no longer returned are dropped.
+     *
+     * @param delta       Summaries newer than the newest settled transaction, newest first
+     * @param latestBlock Latest block height reported with the delta
+     * @param limit       Maximum amount of transactions to keep
+     * @return The merged list, newest first
+     */
+    synchronized List<TransactionSummary> merge(List<TransactionSummary> delta, long latestBlock, int limit) {
+        LinkedHashMap<String, TransactionSummary> merged = new LinkedHashMap<>();
+        for (TransactionSummary summary : delta) {
+            merged.put(summary.getHash(), summary);
+        }
+
+        for (TransactionSummary summary : summaries.values()) {
+            if (merged.size() >= limit) {
+                break;
+            }
+            if (merged.containsKey(summary.getHash())) {
+                continue;
+            }
+            if (summary.getBlockHeight() <= 0) {
+                //Unconfirmed and no longer returned - dropped or double spent
+                continue;
+            }
+            if (latestBlock > 0) {
+                summary = copyOf(summary);
+                summary.setConfirmations((int) ((latestBlock - summary.getBlockHeight()) + 1));
+            }
+            merged.put(summary.getHash(), summary);
+        }
+
+        summaries = merged;
+        return new ArrayList<>(merged.values());
+    }
+
+    private static TransactionSummary copyOf(TransactionSummary summary) {
+        TransactionSummary copy = new TransactionSummary();
+        copy.setHash(summary.getHash());
+        copy.setTotal(summary.getTotal());
+        copy.setFee(summary.getFee());
+        copy.setDirection(summary.getDirection());
+        copy.setTime(summary.getTime());
+        copy.setConfirmations(summary.getConfirmations());
+        copy.setBlockHeight(summary.getBlockHeight());
+        copy.setWatchOnly(summary.isWatchOnly());
+        copy.setDoubleSpend(summary.isDoubleSpend());
+        copy.setPending(summary.isPending());
+        copy.setInputsMap(summary.getInputsMap());
+        copy.setOutputsMap(summary.getOutputsMap());
+        copy.setInputsXpubMap(summary.getInputsXpubMap());
+        copy.setOutputsXpubMap(summary.getOutputsXpubMap());
+        return copy;
+    }
+}
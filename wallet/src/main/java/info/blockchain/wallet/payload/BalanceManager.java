@@ -18,8 +18,10 @@ public abstract class BalanceManager {
     private BlockExplorer blockExplorer;
     private CryptoCurrency cryptoCurrency;
 
+    // Adjusted from websocket and send threads while refreshes run on io threads, so every write
+    // is made under the lock and readers always see a complete map
     @Nonnull
-    private CryptoBalanceMap balanceMap;
+    private volatile CryptoBalanceMap balanceMap;
 
     BalanceManager(@Nonnull BlockExplorer blockExplorer, @Nonnull CryptoCurrency cryptoCurrency) {
         this.blockExplorer = blockExplorer;
@@ -27,7 +29,7 @@ public abstract class BalanceManager {
         balanceMap = CryptoBalanceMap.zero(cryptoCurrency);
     }
 
-    public void subtractAmountFromAddressBalance(String address, BigInteger amount) {
+    public synchronized void subtractAmountFromAddressBalance(String address, BigInteger amount) {
         balanceMap = balanceMap.subtractAmountFromAddress(address, new CryptoValue(cryptoCurrency, amount));
     }
 
@@ -56,13 +58,17 @@ public abstract class BalanceManager {
             Set<String> legacyAddresses,
             Set<String> legacyWatchOnlyAddresses
     ) {
-        balanceMap = CryptoBalanceMapKt.calculateCryptoBalanceMap(
+        CryptoBalanceMap fetched = CryptoBalanceMapKt.calculateCryptoBalanceMap(
                 cryptoCurrency,
                 getBalanceQuery(),
                 xpubs,
                 legacyAddresses,
                 legacyWatchOnlyAddresses
         );
+        // Not held during the network call
+        synchronized (this) {
+            balanceMap = fetched;
+        }
     }
 
     private BalanceCall getBalanceQuery() {
@@ -4,29 +4,77 @@ import info.blockchain.balance.CryptoCurrency
 import info.blockchain.balance.CryptoValue
 import java.math.BigInteger
 
-data class CryptoBalanceMap(
+/**
+ * Balances of the wallet's xpubs and legacy addresses, along with running totals per category.
+ *
+ * The totals are summed once when the map is calculated. Changing a single address balance
+ * returns a new map which shares the fetched balances with this one, only copying the (usually
+ * few) adjusted entries, and updates the totals by the difference.
+ */
+class CryptoBalanceMap private constructor(
     private val cryptoCurrency: CryptoCurrency,
     private val xpubs: Set<String>,
     private val legacy: Set<String>,
     private val watchOnlyLegacy: Set<String>,
-    private val balances: Map<String, BigInteger>
+    private val balances: Map<String, BigInteger>,
+    private val adjusted: Map<String, BigInteger>,
+    private val spendable: BigInteger,
+    private val spendableLegacy: BigInteger,
+    private val watchOnly: BigInteger
 ) {
-    val totalSpendable = CryptoValue(cryptoCurrency, (xpubs + legacy - watchOnlyLegacy).sum(balances))
-    val totalSpendableLegacy = CryptoValue(cryptoCurrency, (legacy - watchOnlyLegacy).sum(balances))
-    val totalWatchOnly = CryptoValue(cryptoCurrency, watchOnlyLegacy.sum(balances))
+
+    constructor(
+        cryptoCurrency: CryptoCurrency,
+        xpubs: Set<String>,
+        legacy: Set<String>,
+        watchOnlyLegacy: Set<String>,
+        balances: Map<String, BigInteger>
+    ) : this(
+        cryptoCurrency,
+        xpubs,
+        legacy,
+        watchOnlyLegacy,
+        balances,
+        emptyMap(),
+        legacy.sum(balances) { it !in watchOnlyLegacy } +
+            xpubs.sum(balances) { it !in legacy && it !in watchOnlyLegacy },
+        legacy.sum(balances) { it !in watchOnlyLegacy },
+        watchOnlyLegacy.sum(balances) { true }
+    )
+
+    val totalSpendable = CryptoValue(cryptoCurrency, spendable)
+    val totalSpendableLegacy = CryptoValue(cryptoCurrency, spendableLegacy)
+    val totalWatchOnly = CryptoValue(cryptoCurrency, watchOnly)
 
     fun subtractAmountFromAddress(address: String, cryptoValue: CryptoValue): CryptoBalanceMap {
-        val value =
-            balances[address] ?: throw Exception("No info for this address. updateAllBalances should be called first.")
-        val newBalances = balances.toMutableMap()
-            .apply {
-                set(address, value - cryptoValue.amount)
-            }
-        return copy(balances = newBalances)
+        val value = balanceOf(address)
+            ?: throw Exception("No info for this address. updateAllBalances should be called first.")
+        return withBalance(address, value - cryptoValue.amount)
     }
 
     operator fun get(address: String) =
-        CryptoValue(cryptoCurrency, balances[address] ?: BigInteger.ZERO)
+        CryptoValue(cryptoCurrency, balanceOf(address) ?: BigInteger.ZERO)
+
+    private fun balanceOf(address: String) = adjusted[address] ?: balances[address]
+
+    private fun withBalance(address: String, balance: BigInteger): CryptoBalanceMap {
+        val delta = balance - (balanceOf(address) ?: BigInteger.ZERO)
+        val isWatchOnly = address in watchOnlyLegacy
+        val isLegacy = !isWatchOnly && address in legacy
+        val isSpendable = !isWatchOnly && (isLegacy || address in xpubs)
+
+        return CryptoBalanceMap(
+            cryptoCurrency,
+            xpubs,
+            legacy,
+            watchOnlyLegacy,
+            balances,
+            adjusted + (address to balance),
+            if (isSpendable) spendable + delta else spendable,
+            if (isLegacy) spendableLegacy + delta else spendableLegacy,
+            if (isWatchOnly) watchOnly + delta else watchOnly
+        )
+    }
 
     companion object {
         @JvmStatic
@@ -58,6 +106,7 @@ fun calculateCryptoBalanceMap(
     )
 }
 
-private fun <T> Iterable<T>.sum(balances: Map<T, BigInteger>) =
-    map { balances[it] ?: BigInteger.ZERO }
-        .foldRight(BigInteger.ZERO, BigInteger::add)
+private inline fun <T> Iterable<T>.sum(balances: Map<T, BigInteger>, include: (T) -> Boolean) =
+    fold(BigInteger.ZERO) { total, it ->
+        if (include(it)) balances[it]?.let { balance -> total + balance } ?: total else total
+    }
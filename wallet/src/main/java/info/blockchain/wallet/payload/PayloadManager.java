@@ -67,6 +67,10 @@ public class PayloadManager {
     //Assume we only support 1 hdWallet
     private static final int HD_WALLET_INDEX = 0;
 
+    //Addresses derived in the background beyond the next unused index of each account
+    private static final int RECEIVE_ADDRESS_LOOK_AHEAD = 20;
+    private static final int CHANGE_ADDRESS_LOOK_AHEAD = 5;
+
     private WalletBase walletBaseBody;
     private String password;
     private MetadataNodeFactory metadataNodeFactory;
@@ -743,7 +747,94 @@ public class PayloadManager {
         ArrayList<String> all = new ArrayList<>(activeXpubs);
         all.addAll(activeLegacy);
 
-        return multiAddressFactory.getAccountTransactions(all, watchOnly, null, xpub, limit, offset, 0);
+        List<TransactionSummary> transactions =
+                multiAddressFactory.getAccountTransactions(all, watchOnly, null, xpub, limit, offset, 0);
+        precomputeAddresses();
+        return transactions;
+    }
+
+    /**
+     * Refreshes the BTC transaction list for all wallet accounts/addresses. After the first call
+     * only transactions newer than the last known confirmed transaction are fetched.
+     *
+     * @param limit Maximum amount of transactions returned
+     * @return List of tx summaries for the newest wallet transactions
+     */
+    public List<TransactionSummary> syncAllTransactions(int limit) throws
+            IOException,
+            ApiException {
+        return syncAccountTransactions(null, limit);
+    }
+
+    /**
+     * Incremental version of {@link #getImportedAddressesTransactions(int, int)}
+     *
+     * @param limit Maximum amount of transactions returned
+     * @return Consolidated list of tx summaries for imported addresses
+     */
+    public List<TransactionSummary> syncImportedAddressesTransactions(int limit)
+            throws IOException, ApiException {
+        List<String> activeXpubs = getPayload().getHdWallets().get(0).getActiveXpubs();
+        List<String> watchOnly = getPayload().getWatchOnlyAddressStringList();
+        List<String> activeLegacy = getPayload().getLegacyAddressStringList(LegacyAddress.NORMAL_ADDRESS);
+
+        ArrayList<String> all = new ArrayList<>(activeXpubs);
+        all.addAll(activeLegacy);
+
+        return multiAddressFactory.syncAccountTransactions(all, watchOnly, activeLegacy, null, limit, 0);
+    }
+
+    /**
+     * Incremental version of {@link #getAccountTransactions(String, int, int)}
+     *
+     * @param xpub  The xPub to get transactions from
+     * @param limit Maximum amount of transactions returned
+     * @return List of BTC tx summaries for specified xpubs transactions
+     */
+    public List<TransactionSummary> syncAccountTransactions(String xpub, int limit)
+            throws IOException, ApiException {
+
+        List<String> activeXpubs = getPayload().getHdWallets().get(0).getActiveXpubs();
+        List<String> watchOnly = getPayload().getWatchOnlyAddressStringList();
+        List<String> activeLegacy = getPayload().getLegacyAddressStringList(LegacyAddress.NORMAL_ADDRESS);
+
+        ArrayList<String> all = new ArrayList<>(activeXpubs);
+        all.addAll(activeLegacy);
+
+        List<TransactionSummary> transactions =
+                multiAddressFactory.syncAccountTransactions(all, watchOnly, null, xpub, limit, 0);
+        precomputeAddresses();
+        return transactions;
+    }
+
+    /**
+     * Derives the next receive and change addresses of each active account in the background, so
+     * that they are ready by the time the UI asks for them. Only worthwhile once multiaddress has
+     * updated the next address indexes.
+     */
+    private void precomputeAddresses() {
+        if (getPayload() == null || getPayload().getHdWallets() == null
+                || getPayload().getHdWallets().isEmpty()) {
+            return;
+        }
+
+        HDWallet hdWallet = getPayload().getHdWallets().get(HD_WALLET_INDEX);
+        try {
+            for (Account account : hdWallet.getAccounts()) {
+                if (account.isArchived()) {
+                    continue;
+                }
+                HDAccount hdAccount = hdWallet.getHDAccountFromAccountBody(account);
+                if (hdAccount != null) {
+                    hdAccount.getReceive().precomputeAddresses(
+                            getNextReceiveAddressIndexBtc(account), RECEIVE_ADDRESS_LOOK_AHEAD);
+                    hdAccount.getChange().precomputeAddresses(
+                            getNextChangeAddressIndexBtc(account), CHANGE_ADDRESS_LOOK_AHEAD);
+                }
+            }
+        } catch (HDWalletException e) {
+            log.warn("Unable to precompute addresses", e);
+        }
     }
 
     /**
@@ -6,7 +6,6 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
 import info.blockchain.api.blockexplorer.BlockExplorer;
@@ -23,6 +22,7 @@ import info.blockchain.wallet.exceptions.DecryptionException;
 import info.blockchain.wallet.exceptions.HDWalletException;
 import info.blockchain.wallet.payment.SpendableUnspentOutputs;
 import info.blockchain.wallet.util.DoubleEncryptionFactory;
+import info.blockchain.wallet.util.ObjectMappers;
 import info.blockchain.wallet.util.PrivateKeyFactory;
 import org.apache.commons.codec.DecoderException;
 import org.bitcoinj.core.ECKey;
@@ -52,6 +52,11 @@ public class HDWallet {
     private static final int DEFAULT_NEW_WALLET_SIZE = 1;
     private static final String DEFAULT_PASSPHRASE = "";
 
+    //Consecutive unused accounts after which recovery stops looking
+    private static final int ACCOUNT_LOOK_AHEAD = 10;
+    //Keeps the balance request url within server limits
+    private static final int MAX_ACCOUNT_PROBE_SIZE = 40;
+
     @JsonProperty("accounts")
     private List<Account> accounts;
 
@@ -217,21 +222,14 @@ public class HDWallet {
     }
 
     public static HDWallet fromJson(NetworkParameters networkParameters, String json) throws IOException, HDWalletException {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.setVisibility(mapper.getSerializationConfig().getDefaultVisibilityChecker()
-            .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
-            .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
-            .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
-            .withCreatorVisibility(JsonAutoDetect.Visibility.NONE));
-
-        HDWallet hdWallet = mapper.readValue(json, HDWallet.class);
+        HDWallet hdWallet = ObjectMappers.readValueFromFields(json, HDWallet.class);
         hdWallet.instantiateBip44Wallet(networkParameters);
 
         return hdWallet;
     }
 
     public String toJson() throws JsonProcessingException {
-        return new ObjectMapper().writeValueAsString(this);
+        return ObjectMappers.writeValueAsString(this);
     }
 
     /**
@@ -330,16 +328,19 @@ public class HDWallet {
         hdWalletBody.setAccounts(new ArrayList<Account>());
 
         if(walletSize <= 0) {
-            walletSize = getDeterminedSize(1, 5, 0, blockExplorer, bip44Wallet);
+            walletSize = getDeterminedSize(blockExplorer, bip44Wallet);
         }
 
-        bip44Wallet = HDWalletFactory
-            .restoreWallet(PersistentUrls.getInstance().getBitcoinParams(), Language.US,
-                mnemonic, passphrase, walletSize);
+        //The gap search has already derived at least walletSize accounts, so there is no need
+        //to restore (and re-derive) the wallet again
+        int derivedSize = bip44Wallet.getAccounts().size();
+        if (derivedSize < walletSize) {
+            bip44Wallet.addAccounts(walletSize - derivedSize);
+        }
 
         //Set accounts
         int accountNumber = 1;
-        for(HDAccount account : bip44Wallet.getAccounts()) {
+        for(HDAccount account : bip44Wallet.getAccounts().subList(0, walletSize)) {
             String xpub = account.getXpub();
             String xpriv = account.getXPriv();
             String label = defaultAccountName;
@@ -359,48 +360,64 @@ public class HDWallet {
         return hdWalletBody;
     }
 
-    private static int getDeterminedSize(int walletSize, int trySize, int currentGap, BlockExplorer blockExplorer, info.blockchain.wallet.bip44.HDWallet bip44Wallet) throws Exception {
+    /**
+     * Probes accounts after the first in batches until {@link #ACCOUNT_LOOK_AHEAD} consecutive
+     * accounts without transactions are found. Each batch is derived in parallel and checked
+     * with a single balance call.
+     *
+     * @return The number of accounts up to and including the last one with transactions
+     */
+    static int getDeterminedSize(BlockExplorer blockExplorer,
+                                 info.blockchain.wallet.bip44.HDWallet bip44Wallet) throws Exception {
 
-        LinkedList<String> xpubs = new LinkedList<>();
+        //First account is always restored
+        int walletSize = 1;
+        int currentGap = 0;
+        int trySize = 5;
 
-        for(int i = 0; i < trySize; i++) {
-            HDAccount account = bip44Wallet.addAccount();
-            xpubs.add(account.getXpub());
-        }
+        while (true) {
+            List<HDAccount> batch = bip44Wallet.addAccounts(trySize);
 
-        Response<HashMap<String, Balance>> exe = blockExplorer
-            .getBalance(xpubs, FilterType.RemoveUnspendable).execute();
-
-        if(!exe.isSuccessful()) {
-            throw new Exception(exe.code() + " " + exe.errorBody().string());
-        }
+            List<String> xpubs = new ArrayList<>(batch.size());
+            for (HDAccount account : batch) {
+                xpubs.add(account.getXpub());
+            }
 
-        HashMap<String, Balance> map = exe.body();
+            Map<String, Boolean> hasTransactions = hasTransactions(blockExplorer, xpubs);
 
-        final int lookAheadTotal = 10;
-        for (String xpub : xpubs) {
+            for (HDAccount account : batch) {
+                if (hasTransactions.get(account.getXpub())) {
+                    walletSize = account.getId() + 1;
+                    currentGap = 0;
+                } else {
+                    currentGap++;
+                }
 
-            //If account has txs
-            if(map.get(xpub).getTxCount() > 0L) {
-                walletSize++;
-                currentGap = 0;
-            } else {
-                currentGap++;
+                if (currentGap >= ACCOUNT_LOOK_AHEAD) {
+                    return walletSize;
+                }
             }
 
-            if(currentGap >= lookAheadTotal) {
-                return walletSize;
-            }
+            trySize = Math.min(trySize * 2, MAX_ACCOUNT_PROBE_SIZE);
         }
-
-        return getDeterminedSize(walletSize, trySize*2, currentGap, blockExplorer, bip44Wallet);
     }
 
     public static boolean hasTransactions(BlockExplorer blockExplorer, String xpub)
         throws Exception {
 
+        return hasTransactions(blockExplorer, Collections.singletonList(xpub)).get(xpub);
+    }
+
+    /**
+     * Checks several xpubs for transactions with a single balance call.
+     *
+     * @return A map of xpub to whether it has any transactions
+     */
+    public static Map<String, Boolean> hasTransactions(BlockExplorer blockExplorer, List<String> xpubs)
+        throws Exception {
+
         Response<HashMap<String, Balance>> exe = blockExplorer
-            .getBalance(Arrays.asList(xpub), FilterType.RemoveUnspendable).execute();
+            .getBalance(xpubs, FilterType.RemoveUnspendable).execute();
 
         if (!exe.isSuccessful()) {
             throw new Exception(exe.code() + " " + exe.errorBody().string());
@@ -408,7 +425,12 @@ public class HDWallet {
 
         HashMap<String, Balance> body = exe.body();
 
-        return body.get(xpub).getTxCount() > 0L;
+        Map<String, Boolean> result = new HashMap<>();
+        for (String xpub : xpubs) {
+            Balance balance = body.get(xpub);
+            result.put(xpub, balance != null && balance.getTxCount() > 0L);
+        }
+        return result;
     }
 
     public List<ECKey> getHDKeysForSigning(Account account, SpendableUnspentOutputs unspentOutputBundle)
@@ -6,10 +6,10 @@ import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.squareup.moshi.Json;
 import info.blockchain.wallet.BlockchainFramework;
 import info.blockchain.wallet.api.PersistentUrls;
+import info.blockchain.wallet.util.ObjectMappers;
 import org.bitcoinj.core.Base58;
 import org.bitcoinj.core.ECKey;
 
@@ -128,11 +128,11 @@ public class LegacyAddress implements JsonSerializableAccount {
     }
 
     public static LegacyAddress fromJson(String json) throws IOException {
-        return new ObjectMapper().readValue(json, LegacyAddress.class);
+        return ObjectMappers.readValue(json, LegacyAddress.class);
     }
 
     public String toJson() throws JsonProcessingException {
-        return new ObjectMapper().writeValueAsString(this);
+        return ObjectMappers.writeValueAsString(this);
     }
 
     public static LegacyAddress fromECKey(ECKey ecKey) {
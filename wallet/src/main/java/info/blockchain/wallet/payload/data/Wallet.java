@@ -7,7 +7,6 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
 import info.blockchain.wallet.api.PersistentUrls;
 import info.blockchain.wallet.exceptions.DecryptionException;
@@ -16,6 +15,7 @@ import info.blockchain.wallet.exceptions.HDWalletException;
 import info.blockchain.wallet.exceptions.NoSuchAddressException;
 import info.blockchain.wallet.util.DoubleEncryptionFactory;
 import info.blockchain.wallet.util.FormatsUtil;
+import info.blockchain.wallet.util.ObjectMappers;
 import org.apache.commons.codec.DecoderException;
 import org.apache.commons.lang3.StringUtils;
 import org.bitcoinj.core.Base58;
@@ -217,15 +217,20 @@ public class Wallet {
 
     public static Wallet fromJson(NetworkParameters networkParameters, String json)
         throws IOException, HDWalletException {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.setVisibility(mapper.getSerializationConfig().getDefaultVisibilityChecker()
-            .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
-            .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
-            .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
-            .withCreatorVisibility(JsonAutoDetect.Visibility.NONE));
+        return instantiateHDWallets(networkParameters, ObjectMappers.readValueFromFields(json, Wallet.class));
+    }
 
-        Wallet wallet = mapper.readValue(json, Wallet.class);
+    /**
+     * Binds the wallet straight from UTF-8 encoded JSON, so a large decrypted payload doesn't also
+     * need to be held as a String.
+     */
+    public static Wallet fromJson(NetworkParameters networkParameters, byte[] json)
+        throws IOException, HDWalletException {
+        return instantiateHDWallets(networkParameters, ObjectMappers.readValueFromFields(json, Wallet.class));
+    }
 
+    private static Wallet instantiateHDWallets(NetworkParameters networkParameters, Wallet wallet)
+        throws IOException, HDWalletException {
         if(wallet.getHdWallets() != null) {
             //V3 Wallets only
             Iterator<HDWallet> iterator = wallet.getHdWallets().iterator();
@@ -243,7 +248,7 @@ public class Wallet {
     }
 
     public String toJson() throws JsonProcessingException {
-        return new ObjectMapper().writeValueAsString(this);
+        return ObjectMappers.writeValueAsString(this);
     }
 
     public void addHDWallet(HDWallet hdWallet) {
@@ -5,13 +5,13 @@ import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import info.blockchain.wallet.crypto.AESUtil;
 import info.blockchain.wallet.exceptions.DecryptionException;
 import info.blockchain.wallet.exceptions.HDWalletException;
 import info.blockchain.wallet.exceptions.UnsupportedVersionException;
-import info.blockchain.wallet.util.FormatsUtil;
+import info.blockchain.wallet.util.ObjectMappers;
 import org.bitcoinj.core.NetworkParameters;
 
 import java.io.IOException;
@@ -62,11 +62,11 @@ public class WalletWrapper {
     }
 
     public static WalletWrapper fromJson(String json) throws IOException {
-        return new ObjectMapper().readValue(json, WalletWrapper.class);
+        return ObjectMappers.readValue(json, WalletWrapper.class);
     }
 
     public String toJson() throws JsonProcessingException {
-        return new ObjectMapper().writeValueAsString(this);
+        return ObjectMappers.writeValueAsString(this);
     }
 
     private void validateVersion() throws UnsupportedVersionException {
@@ -93,18 +93,36 @@ public class WalletWrapper {
         validateVersion();
         validatePbkdf2Iterations();
 
-        String decryptedPayload;
+        byte[] decryptedPayload;
         try {
-            decryptedPayload = AESUtil.decrypt(getPayload(), password, getPbkdf2Iterations());
+            decryptedPayload = AESUtil.decryptBytes(getPayload(), password, getPbkdf2Iterations());
         } catch (Exception e) {
             throw new DecryptionException(e);
         }
 
-        if (decryptedPayload == null || !FormatsUtil.isValidJson(decryptedPayload)) {
+        // Parsed once, straight from the decrypted bytes. Anything that isn't a JSON object means
+        // the password was wrong.
+        if (!startsWithObject(decryptedPayload)) {
             throw new DecryptionException("Decryption failed.");
         }
+        try {
+            return Wallet.fromJson(networkParameters, decryptedPayload);
+        } catch (JsonParseException e) {
+            throw new DecryptionException("Decryption failed.");
+        }
+    }
 
-        return Wallet.fromJson(networkParameters, decryptedPayload);
+    /**
+     * Bytes that happen to start as a JSON scalar or array would otherwise fail binding with a
+     * mapping error rather than a parse error.
+     */
+    private static boolean startsWithObject(byte[] json) {
+        for (byte b : json) {
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                return b == '{';
+            }
+        }
+        return false;
     }
 
     public static WalletWrapper wrap(String encryptedPayload, int iterations) {
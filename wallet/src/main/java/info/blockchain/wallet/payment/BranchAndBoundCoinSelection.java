@@ -0,0 +1,133 @@
+package info.blockchain.wallet.payment;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Depth first search for a set of coins which covers the payment and fee without needing a
+ * change output, wasting at most {@link Payment#DUST} to the miner. Fewer outputs mean a
+ * smaller, cheaper transaction and no new change coin to spend later.
+ * <p>
+ * The search is bounded by {@link #MAX_TRIES}. If no changeless selection is found, or coins are
+ * force included (replay protection), the fallback strategy is used instead.
+ * <p>
+ * Coins are expected in descending order of value.
+ */
+public class BranchAndBoundCoinSelection implements CoinSelectionStrategy {
+
+    private static final Logger log = LoggerFactory.getLogger(BranchAndBoundCoinSelection.class);
+
+    static final int MAX_TRIES = 100000;
+
+    private final CoinSelectionStrategy fallback;
+
+    public BranchAndBoundCoinSelection(CoinSelectionStrategy fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public CoinSelection select(SelectableCoins coins, long paymentAmount, long feePerKb) {
+        CoinSelection selection = null;
+        if (!coins.hasForcedCoins()) {
+            selection = search(coins, paymentAmount, feePerKb);
+        }
+        if (selection == null) {
+            return fallback.select(coins, paymentAmount, feePerKb);
+        }
+        return selection;
+    }
+
+    private CoinSelection search(SelectableCoins coins, long paymentAmount, long feePerKb) {
+        final int size = coins.size();
+        final long dust = Payment.DUST.longValue();
+
+        // Total value still available from each position onwards
+        long[] remaining = new long[size + 1];
+        for (int i = size - 1; i >= 0; i--) {
+            remaining[i] = remaining[i + 1] + coins.getValue(i);
+        }
+
+        boolean[] selected = new boolean[size];
+        boolean[] best = null;
+        int bestCount = 0;
+        long bestCollected = Long.MAX_VALUE;
+        long bestWaste = 0L;
+
+        int depth = 0;
+        int count = 0;
+        long collected = 0L;
+
+        int tries = 0;
+        while (tries++ < MAX_TRIES) {
+            long target = paymentAmount + Fees.estimatedFee(count, 1, feePerKb);
+            boolean backtrack = false;
+
+            if (collected + remaining[depth] < target) {
+                // Can't reach the target with what's left
+                backtrack = true;
+            } else if (collected > target + dust) {
+                // Overshot, every further coin is worth more than its input fee
+                backtrack = true;
+            } else if (count > 0 && collected >= target) {
+                // Cheapest overall is the selection spending the least, fee included
+                long waste = collected - target;
+                if (collected < bestCollected) {
+                    bestCollected = collected;
+                    bestWaste = waste;
+                    bestCount = count;
+                    best = selected.clone();
+                }
+                if (waste == 0) {
+                    // Exact match
+                    break;
+                }
+                backtrack = true;
+            } else if (depth == size) {
+                // No coins left to include, only reached when nothing needs to be spent
+                backtrack = true;
+            }
+
+            if (backtrack) {
+                // Walk back to the last included coin and try the branch without it
+                while (depth > 0 && !selected[depth - 1]) {
+                    depth--;
+                }
+                if (depth == 0) {
+                    // Search space exhausted
+                    break;
+                }
+                depth--;
+                selected[depth] = false;
+                collected -= coins.getValue(depth);
+                count--;
+                depth++;
+            } else if (depth > 0
+                    && !selected[depth - 1]
+                    && coins.getValue(depth) == coins.getValue(depth - 1)) {
+                // Including an equal coin to one just excluded repeats an explored branch
+                depth++;
+            } else {
+                selected[depth] = true;
+                collected += coins.getValue(depth);
+                count++;
+                depth++;
+            }
+        }
+
+        if (best == null) {
+            log.info("No changeless selection found after {} tries", tries);
+            return null;
+        }
+
+        int[] indexes = new int[bestCount];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if (best[i]) {
+                indexes[n++] = i;
+            }
+        }
+
+        // Match the greedy selection, anything over the exact amount is consumed as fee
+        return new CoinSelection(indexes, 1, -bestWaste);
+    }
+}
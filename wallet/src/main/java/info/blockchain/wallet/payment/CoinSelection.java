@@ -0,0 +1,33 @@
+package info.blockchain.wallet.payment;
+
+/**
+ * The result of a {@link CoinSelectionStrategy}. Holds indexes into the {@link SelectableCoins}
+ * the selection was made from.
+ */
+public class CoinSelection {
+
+    private final int[] indexes;
+    private final int outputCount;
+    private final long consumedAmount;
+
+    public CoinSelection(int[] indexes, int outputCount, long consumedAmount) {
+        this.indexes = indexes;
+        this.outputCount = outputCount;
+        this.consumedAmount = consumedAmount;
+    }
+
+    public int[] getIndexes() {
+        return indexes;
+    }
+
+    /**
+     * @return 1 if the selection needs no change output, otherwise 2
+     */
+    public int getOutputCount() {
+        return outputCount;
+    }
+
+    public long getConsumedAmount() {
+        return consumedAmount;
+    }
+}
@@ -0,0 +1,15 @@
+package info.blockchain.wallet.payment;
+
+/**
+ * Picks which of the available coins to spend for a payment.
+ */
+public interface CoinSelectionStrategy {
+
+    /**
+     * @param coins         Spend-worthy coins, in the order they should be considered
+     * @param paymentAmount The amount to send in satoshis
+     * @param feePerKb      The fee per KB in satoshis
+     * @return The selected coins, or null if this strategy found no suitable selection
+     */
+    CoinSelection select(SelectableCoins coins, long paymentAmount, long feePerKb);
+}
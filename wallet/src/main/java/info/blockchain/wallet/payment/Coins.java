@@ -4,20 +4,25 @@ import info.blockchain.api.blockexplorer.BlockExplorer;
 import info.blockchain.api.data.UnspentOutput;
 import info.blockchain.api.data.UnspentOutputs;
 import info.blockchain.wallet.BlockchainFramework;
+import info.blockchain.wallet.exceptions.ApiException;
 
 import org.apache.commons.lang3.tuple.Pair;
-import org.bitcoinj.script.Script;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.spongycastle.util.encoders.Hex;
 
 import retrofit2.Call;
+import retrofit2.Response;
 
+import java.io.IOException;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 class Coins {
 
@@ -25,16 +30,63 @@ class Coins {
     static final int DUST_INPUT_TX_SIZE_ADAPT = 150;
     private static final Logger log = LoggerFactory.getLogger(Coins.class);
 
+    private static final CoinSelectionStrategy DEFAULT_SELECTION =
+            new BranchAndBoundCoinSelection(new GreedyCoinSelection());
+
+    static final String COIN_BTC = "btc";
+    static final String COIN_BCH = "bch";
+
+    // Websocket messages invalidate sooner, this only bounds staleness if one is missed
+    private static final long UNSPENT_MAX_AGE_MILLIS = 60 * 1000L;
+    private static final int UNSPENT_FETCH_THREADS = 4;
+
+    private static final UnspentOutputsCache unspentOutputsCache = new UnspentOutputsCache(
+            new UnspentOutputsCache.Fetcher() {
+                @Override
+                public UnspentOutputs fetch(String coin, List<String> addresses) throws IOException, ApiException {
+                    return fromResponse(getUnspentOutputs(coin, addresses).execute());
+                }
+            },
+            newFetchExecutor(),
+            UNSPENT_MAX_AGE_MILLIS);
+
     static Call<UnspentOutputs> getUnspentCoins(List<String> addresses) {
-        BlockExplorer blockExplorer = new BlockExplorer(BlockchainFramework.getRetrofitExplorerInstance(),
-                BlockchainFramework.getRetrofitApiInstance(), BlockchainFramework.getApiCode());
-        return blockExplorer.getUnspentOutputs("btc", addresses, null, null);
+        return getUnspentOutputs(COIN_BTC, addresses);
     }
 
     static Call<UnspentOutputs> getUnspentBchCoins(List<String> addresses) {
+        return getUnspentOutputs(COIN_BCH, addresses);
+    }
+
+    static UnspentOutputsCache getUnspentOutputsCache() {
+        return unspentOutputsCache;
+    }
+
+    private static Call<UnspentOutputs> getUnspentOutputs(String coin, List<String> addresses) {
         BlockExplorer blockExplorer = new BlockExplorer(BlockchainFramework.getRetrofitExplorerInstance(),
                 BlockchainFramework.getRetrofitApiInstance(), BlockchainFramework.getApiCode());
-        return blockExplorer.getUnspentOutputs("bch", addresses, null, null);
+        return blockExplorer.getUnspentOutputs(coin, addresses, null, null);
+    }
+
+    static UnspentOutputs fromResponse(Response<UnspentOutputs> response) throws IOException, ApiException {
+        if (response.isSuccessful()) {
+            return response.body();
+        } else if (response.code() == 500) {
+            // If no unspent outputs available server responds with 500
+            return UnspentOutputs.fromJson("{\"unspent_outputs\":[]}");
+        } else {
+            throw new ApiException(String.valueOf(response.code()));
+        }
+    }
+
+    private static ExecutorService newFetchExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(UNSPENT_FETCH_THREADS,
+                UNSPENT_FETCH_THREADS,
+                30,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     /**
@@ -50,7 +102,7 @@ class Coins {
                                                                    BigInteger feePerKb,
                                                                    boolean addReplayProtection) {
 
-        BigInteger sweepBalance = BigInteger.ZERO;
+        long sweepBalance = 0L;
 
         ArrayList<UnspentOutput> usableCoins = new ArrayList<>();
         ArrayList<UnspentOutput> unspentOutputs;
@@ -63,7 +115,8 @@ class Coins {
             Collections.sort(unspentOutputs, new UnspentOutputAmountComparatorDesc());
         }
 
-        double inputCost = inputCost(feePerKb);
+        final long feePerKbValue = Satoshis.valueOf(feePerKb);
+        final double inputCost = Fees.inputCost(feePerKbValue);
 
         final boolean includesReplayDust = addReplayProtection && requiresReplayProtection(unspentOutputs);
 
@@ -74,27 +127,26 @@ class Coins {
 
         for (int i = 0; i < unspentOutputs.size(); i++) {
             UnspentOutput output = unspentOutputs.get(i);
+            long value = Satoshis.valueOf(output.getValue());
             // Filter usable coins
-            if (output.isForceInclude() || output.getValue().doubleValue() > inputCost) {
+            if (output.isForceInclude() || value > inputCost) {
                 usableCoins.add(output);
-                sweepBalance = sweepBalance.add(output.getValue());
+                sweepBalance = Satoshis.add(sweepBalance, value);
             }
         }
 
         // All inputs, 1 output = no change. (Correct way)
         int outputCount = 1;
 
-        BigInteger sweepFee = calculateFee(usableCoins.size(),
+        long sweepFee = calculateFee(usableCoins.size(),
                 outputCount,
-                feePerKb,
+                feePerKbValue,
                 includesReplayDust);
 
-        sweepBalance = sweepBalance.subtract(sweepFee);
-
-        sweepBalance = BigInteger.valueOf(Math.max(sweepBalance.longValue(), 0));
+        sweepBalance = Math.max(Satoshis.subtract(sweepBalance, sweepFee), 0L);
 
         log.info("Filtering sweepable coins. Sweepable Balance = {}, Fee required for sweep = {}", sweepBalance, sweepFee);
-        return Pair.of(sweepBalance, sweepFee);
+        return Pair.of(BigInteger.valueOf(sweepBalance), BigInteger.valueOf(sweepFee));
     }
 
     /**
@@ -133,7 +185,8 @@ class Coins {
     }
 
     /**
-     * Returns the spendable coins provided the desired amount to send.
+     * Returns the spendable coins provided the desired amount to send, preferring a selection
+     * which needs no change output.
      *
      * @param coins               a list of coins
      * @param paymentAmount       the desired amount to send
@@ -145,9 +198,30 @@ class Coins {
                                                                     BigInteger paymentAmount,
                                                                     BigInteger feePerKb,
                                                                     boolean addReplayProtection) {
+        return getMinimumCoinsForPayment(coins,
+                paymentAmount,
+                feePerKb,
+                addReplayProtection,
+                DEFAULT_SELECTION);
+    }
+
+    /**
+     * Returns the spendable coins provided the desired amount to send.
+     *
+     * @param coins               a list of coins
+     * @param paymentAmount       the desired amount to send
+     * @param feePerKb            the fee per KB
+     * @param addReplayProtection whether or no replay protection should be considered
+     * @param strategy            the coin selection strategy
+     * @return a list of spendable coins
+     */
+    public static SpendableUnspentOutputs getMinimumCoinsForPayment(UnspentOutputs coins,
+                                                                    BigInteger paymentAmount,
+                                                                    BigInteger feePerKb,
+                                                                    boolean addReplayProtection,
+                                                                    CoinSelectionStrategy strategy) {
 
         log.info("Select the minimum number of outputs necessary for payment");
-        List<UnspentOutput> spendWorthyList = new ArrayList<>();
 
         ArrayList<UnspentOutput> unspentOutputs;
 
@@ -159,12 +233,6 @@ class Coins {
             Collections.sort(unspentOutputs, new UnspentOutputAmountComparatorDesc());
         }
 
-        BigInteger collectedAmount = BigInteger.ZERO;
-        BigInteger consumedAmount = BigInteger.ZERO;
-
-        double inputCost = inputCost(feePerKb);
-
-
         final boolean requiresReplayProtection = requiresReplayProtection(unspentOutputs);
         final boolean includesReplayDust = addReplayProtection && requiresReplayProtection;
         if (includesReplayDust) {
@@ -172,70 +240,33 @@ class Coins {
             unspentOutputs.add(0, getPlaceholderDustInput());
         }
 
-        // initially assume change
-        int outputCount = 2;
-        for (int i = 0; i < unspentOutputs.size(); i++) {
-            UnspentOutput output = unspentOutputs.get(i);
-
-            // Filter coins not worth spending
-            if (output.getValue().doubleValue() < inputCost && !output.isForceInclude()) {
-                continue;
-            }
-
-            // Skip script with no type
-            if (!output.isForceInclude() &&
-                    new Script(Hex.decode(output.getScript().getBytes())).getScriptType() == Script.ScriptType.NO_TYPE) {
-                continue;
-            }
-
-            // Collect coin
-            spendWorthyList.add(output);
-
-            collectedAmount = collectedAmount.add(output.getValue());
+        final long feePerKbValue = Satoshis.valueOf(feePerKb);
+        SelectableCoins selectableCoins = SelectableCoins.from(unspentOutputs, feePerKbValue);
+        CoinSelection selection = strategy.select(selectableCoins,
+                Satoshis.valueOf(paymentAmount),
+                feePerKbValue);
 
-            // Fee
-            int coinCount = spendWorthyList.size();
-            BigInteger paymentAmountNoChange = estimateAmount(coinCount, paymentAmount, feePerKb, 1);
-            BigInteger paymentAmountWithChange = estimateAmount(coinCount, paymentAmount, feePerKb, 2);
-
-            // No change = 1 output (Exact amount)
-            if (paymentAmountNoChange.compareTo(collectedAmount) == 0) {
-                outputCount = 1;
-                break;
-            }
-
-            // No change = 1 output (Don't allow dust to be sent back as change - consume it rather)
-            if (paymentAmountNoChange.compareTo(collectedAmount) < 0
-                    && paymentAmountNoChange.compareTo(collectedAmount.subtract(Payment.DUST)) >= 0) {
-                consumedAmount = consumedAmount.add(paymentAmountNoChange.subtract(collectedAmount));
-                outputCount = 1;
-                break;
-            }
-
-            // Expect change = 2 outputs
-            if (collectedAmount.compareTo(paymentAmountWithChange) >= 0) {
-                // [multiple inputs, 2 outputs] - assume change
-                outputCount = 2;
-                break;
-            }
+        List<UnspentOutput> spendWorthyList = new ArrayList<>(selection.getIndexes().length);
+        for (int index : selection.getIndexes()) {
+            spendWorthyList.add(selectableCoins.getOutput(index));
         }
 
-        BigInteger absoluteFee = calculateFee(spendWorthyList.size(),
-                outputCount,
-                feePerKb,
+        long absoluteFee = calculateFee(spendWorthyList.size(),
+                selection.getOutputCount(),
+                feePerKbValue,
                 includesReplayDust);
 
         SpendableUnspentOutputs paymentBundle = new SpendableUnspentOutputs();
         paymentBundle.setSpendableOutputs(spendWorthyList);
-        paymentBundle.setAbsoluteFee(absoluteFee);
-        paymentBundle.setConsumedAmount(consumedAmount);
+        paymentBundle.setAbsoluteFeeValue(absoluteFee);
+        paymentBundle.setConsumedAmountValue(selection.getConsumedAmount());
         paymentBundle.setReplayProtected(!requiresReplayProtection);
         return paymentBundle;
     }
 
-    private static BigInteger calculateFee(int inputCount, int outputCount, BigInteger feePerKb, boolean includesReplayDust) {
+    private static long calculateFee(int inputCount, int outputCount, long feePerKb, boolean includesReplayDust) {
         if (inputCount == 0) {
-            return BigInteger.ZERO;
+            return 0L;
         }
         if (includesReplayDust) {
             // No non-replayable outputs in wallet - a dust input and output will be added to tx later
@@ -247,16 +278,6 @@ class Coins {
         }
     }
 
-    private static BigInteger estimateAmount(int coinCount, BigInteger paymentAmount, BigInteger feePerKb, int outputCount) {
-        BigInteger fee = Fees.estimatedFee(coinCount, outputCount, feePerKb);
-        return paymentAmount.add(fee);
-    }
-
-    private static double inputCost(BigInteger feePerKb) {
-        double d = Math.ceil(feePerKb.doubleValue() * 0.148);
-        return Math.ceil(d);
-    }
-
     private static boolean requiresReplayProtection(final List<UnspentOutput> unspentOutputs) {
         return !unspentOutputs.isEmpty() && unspentOutputs.get(0).isReplayable();
     }
@@ -8,6 +8,10 @@ class Fees {
     private static final int ESTIMATED_OUTPUT_LEN = 34;
 
     public static BigInteger estimatedFee(int inputs, int outputs, BigInteger feePerKb) {
+        return BigInteger.valueOf(estimatedFee(inputs, outputs, feePerKb.longValue()));
+    }
+
+    public static long estimatedFee(int inputs, int outputs, long feePerKb) {
 
         int size = estimatedSize(inputs, outputs);
         return calculateFee(size, feePerKb);
@@ -18,10 +22,20 @@ class Fees {
     }
 
     public static BigInteger calculateFee(int size, BigInteger feePerKb) {
+        return BigInteger.valueOf(calculateFee(size, feePerKb.longValue()));
+    }
+
+    public static long calculateFee(int size, long feePerKb) {
 
         double txBytes = ((double) size / 1000.0);
-        long absoluteFee = (long) Math.ceil(feePerKb.doubleValue() * txBytes);
-        return BigInteger.valueOf(absoluteFee);
+        return (long) Math.ceil(feePerKb * txBytes);
+    }
+
+    /**
+     * The fee for adding a single input. Coins worth less than this aren't worth spending.
+     */
+    public static double inputCost(long feePerKb) {
+        return Math.ceil(feePerKb * (ESTIMATED_INPUT_LEN / 1000.0));
     }
 
     public static boolean isAdequateFee(int inputs, int outputs, BigInteger absoluteFee) {
@@ -30,4 +44,4 @@ class Fees {
         long feePerkb = (long) Math.ceil(absoluteFee.doubleValue() / txBytes);
         return feePerkb > Payment.PUSHTX_MIN.longValue();
     }
-}
\ No newline at end of file
+}
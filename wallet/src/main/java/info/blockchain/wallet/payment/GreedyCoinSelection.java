@@ -0,0 +1,56 @@
+package info.blockchain.wallet.payment;
+
+import java.util.Arrays;
+
+/**
+ * Walks the coins in order, collecting them until the payment plus fee is covered. Coins are
+ * expected largest first, which keeps the input count low but will usually produce change.
+ */
+public class GreedyCoinSelection implements CoinSelectionStrategy {
+
+    @Override
+    public CoinSelection select(SelectableCoins coins, long paymentAmount, long feePerKb) {
+        final long dust = Payment.DUST.longValue();
+
+        int[] indexes = new int[coins.size()];
+        int coinCount = 0;
+        long collectedAmount = 0L;
+        long consumedAmount = 0L;
+
+        // initially assume change
+        int outputCount = 2;
+        for (int i = 0; i < coins.size(); i++) {
+
+            // Collect coin
+            indexes[coinCount++] = i;
+            collectedAmount += coins.getValue(i);
+
+            // Fee
+            long paymentAmountNoChange = paymentAmount + Fees.estimatedFee(coinCount, 1, feePerKb);
+            long paymentAmountWithChange = paymentAmount + Fees.estimatedFee(coinCount, 2, feePerKb);
+
+            // No change = 1 output (Exact amount)
+            if (paymentAmountNoChange == collectedAmount) {
+                outputCount = 1;
+                break;
+            }
+
+            // No change = 1 output (Don't allow dust to be sent back as change - consume it rather)
+            if (paymentAmountNoChange < collectedAmount
+                    && paymentAmountNoChange >= collectedAmount - dust) {
+                consumedAmount += paymentAmountNoChange - collectedAmount;
+                outputCount = 1;
+                break;
+            }
+
+            // Expect change = 2 outputs
+            if (collectedAmount >= paymentAmountWithChange) {
+                // [multiple inputs, 2 outputs] - assume change
+                outputCount = 2;
+                break;
+            }
+        }
+
+        return new CoinSelection(Arrays.copyOf(indexes, coinCount), outputCount, consumedAmount);
+    }
+}
@@ -5,6 +5,7 @@ import info.blockchain.api.data.UnspentOutputs;
 import info.blockchain.balance.CryptoCurrency;
 import info.blockchain.wallet.BlockchainFramework;
 import info.blockchain.wallet.api.dust.data.DustInput;
+import info.blockchain.wallet.exceptions.ApiException;
 import io.reactivex.annotations.NonNull;
 import okhttp3.ResponseBody;
 import org.apache.commons.lang3.tuple.Pair;
@@ -16,6 +17,7 @@ import org.bitcoinj.core.Transaction;
 import retrofit2.Call;
 
 import javax.annotation.Nullable;
+import java.io.IOException;
 import java.math.BigInteger;
 import java.util.HashMap;
 import java.util.List;
@@ -55,6 +57,47 @@ public class Payment {
         return Coins.getUnspentBchCoins(addresses);
     }
 
+    /**
+     * Returns the unspent BTC outputs of the given addresses, served from memory if they were
+     * fetched recently and haven't been invalidated since.
+     */
+    public UnspentOutputs getCachedUnspentCoins(@NonNull List<String> addresses)
+            throws IOException, ApiException {
+        return Coins.getUnspentOutputsCache().get(Coins.COIN_BTC, addresses);
+    }
+
+    /**
+     * Returns the unspent BCH outputs of the given addresses, served from memory if they were
+     * fetched recently and haven't been invalidated since.
+     */
+    public UnspentOutputs getCachedUnspentBchCoins(@NonNull List<String> addresses)
+            throws IOException, ApiException {
+        return Coins.getUnspentOutputsCache().get(Coins.COIN_BCH, addresses);
+    }
+
+    /**
+     * Drops cached unspent outputs, ie when a transaction affecting the wallet was seen or sent.
+     */
+    public void invalidateUnspentCoins(@NonNull CryptoCurrency cryptoCurrency) {
+        switch (cryptoCurrency) {
+            case BTC:
+                Coins.getUnspentOutputsCache().invalidate(Coins.COIN_BTC);
+                break;
+            case BCH:
+                Coins.getUnspentOutputsCache().invalidate(Coins.COIN_BCH);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Wipes all cached unspent outputs. Call on logout.
+     */
+    public static void clearCaches() {
+        Coins.getUnspentOutputsCache().invalidateAll();
+    }
+
     public Pair<BigInteger, BigInteger> getMaximumAvailable(@NonNull UnspentOutputs unspentCoins,
                                                             @NonNull BigInteger feePerKb,
                                                             boolean addReplayProtection) {
@@ -68,6 +111,18 @@ public class Payment {
         return Coins.getMinimumCoinsForPayment(unspentCoins, paymentAmount, feePerKb, addReplayProtection);
     }
 
+    public SpendableUnspentOutputs getSpendableCoins(@NonNull UnspentOutputs unspentCoins,
+                                                     @NonNull BigInteger paymentAmount,
+                                                     @NonNull BigInteger feePerKb,
+                                                     boolean addReplayProtection,
+                                                     @NonNull CoinSelectionStrategy strategy) {
+        return Coins.getMinimumCoinsForPayment(unspentCoins,
+                paymentAmount,
+                feePerKb,
+                addReplayProtection,
+                strategy);
+    }
+
     ///////////////////////////////////////////////////////////////////////////
     // Simple Transaction
     ///////////////////////////////////////////////////////////////////////////
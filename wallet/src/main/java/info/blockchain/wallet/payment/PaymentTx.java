@@ -15,7 +15,6 @@ import org.bitcoinj.core.CashAddress;
 import org.bitcoinj.core.Coin;
 import org.bitcoinj.core.ECKey;
 import org.bitcoinj.core.NetworkParameters;
-import org.bitcoinj.core.ProtocolException;
 import org.bitcoinj.core.Sha256Hash;
 import org.bitcoinj.core.Transaction;
 import org.bitcoinj.core.TransactionInput;
@@ -59,41 +58,45 @@ class PaymentTx {
         Transaction transaction = new Transaction(networkParameters);
 
         // Outputs
-        BigInteger outputValueSum = addTransactionOutputs(networkParameters, transaction,
+        long outputValueSum = addTransactionOutputs(networkParameters, transaction,
                 receivingAddresses);
-        BigInteger valueNeeded = outputValueSum.add(fee);
+        long feeValue = Satoshis.valueOf(fee);
+        long valueNeeded = Satoshis.add(outputValueSum, feeValue);
 
         // Inputs
-        BigInteger inputValueSum = addTransactionInputList(networkParameters, transaction, unspentCoins, valueNeeded);
+        long inputValueSum = addTransactionInputList(networkParameters, transaction, unspentCoins, valueNeeded);
 
         // Add Change
         if (changeAddress != null) {
-            addChange(networkParameters, transaction, fee, changeAddress, outputValueSum, inputValueSum);
+            addChange(networkParameters, transaction, feeValue, changeAddress, outputValueSum, inputValueSum);
         }
 
         return Tools.applyBip69(transaction);
     }
 
-    private static BigInteger addTransactionOutputs(NetworkParameters networkParameters,
-                                                    Transaction transaction,
-                                                    HashMap<String, BigInteger> receivingAddresses) throws AddressFormatException {
+    private static long addTransactionOutputs(NetworkParameters networkParameters,
+                                              Transaction transaction,
+                                              HashMap<String, BigInteger> receivingAddresses) throws AddressFormatException {
 
-        BigInteger outputValueSum = BigInteger.ZERO;
+        final long dust = Payment.DUST.longValue();
+        long outputValueSum = 0L;
 
         Set<Entry<String, BigInteger>> set = receivingAddresses.entrySet();
         for (Entry<String, BigInteger> mapEntry : set) {
 
             String toAddress = mapEntry.getKey();
-            BigInteger amount = mapEntry.getValue();
+            BigInteger amountValue = mapEntry.getValue();
+            if (amountValue == null) {
+                continue;
+            }
+            long amount = Satoshis.valueOf(amountValue);
 
             //Don't allow less than dust value
-            if (amount == null
-                    || amount.compareTo(BigInteger.ZERO) <= 0
-                    || amount.compareTo(Payment.DUST) < 0) {
+            if (amount <= 0 || amount < dust) {
                 continue;
             }
 
-            Coin coin = Coin.valueOf(amount.longValue());
+            Coin coin = Coin.valueOf(amount);
 
             if (FormatsUtil.isValidBitcoinCashAddress(networkParameters, toAddress)) {
                 toAddress = CashAddress.toLegacy(networkParameters, toAddress);
@@ -102,19 +105,20 @@ class PaymentTx {
             Address address = Address.fromBase58(networkParameters, toAddress);
             transaction.addOutput(coin, address);
 
-            outputValueSum = outputValueSum.add(amount);
+            outputValueSum = Satoshis.add(outputValueSum, amount);
         }
 
         return outputValueSum;
     }
 
-    private static BigInteger addTransactionInputList(NetworkParameters networkParameters,
-                                                      Transaction transaction,
-                                                      List<UnspentOutput> unspentCoins,
-                                                      BigInteger valueNeeded) throws InsufficientMoneyException {
+    private static long addTransactionInputList(NetworkParameters networkParameters,
+                                                Transaction transaction,
+                                                List<UnspentOutput> unspentCoins,
+                                                long valueNeeded) throws InsufficientMoneyException {
 
-        BigInteger inputValueSum = BigInteger.ZERO;
-        BigInteger minFreeOutputSize = BigInteger.valueOf(1000000);
+        long inputValueSum = 0L;
+        long minFreeOutputSize = 1000000L;
+        long valueNeededWithFreeOutput = Satoshis.add(valueNeeded, minFreeOutputSize);
 
         for (UnspentOutput unspentCoin : unspentCoins) {
 
@@ -126,10 +130,12 @@ class PaymentTx {
                     unspentCoin.getTxOutputCount(),
                     txHash);
 
+            long value = Satoshis.valueOf(unspentCoin.getValue());
+
             //outPoint needs connected output here
             TransactionOutput output = new TransactionOutput(networkParameters,
                     null,
-                    Coin.valueOf(unspentCoin.getValue().longValue()),
+                    Coin.valueOf(value),
                     Hex.decode(unspentCoin.getScript()));
             outPoint.setConnectedOutput(output);
 
@@ -139,20 +145,17 @@ class PaymentTx {
                     outPoint);
 
             transaction.addInput(input);
-            inputValueSum = inputValueSum.add(unspentCoin.getValue());
+            inputValueSum = Satoshis.add(inputValueSum, value);
 
-            if (inputValueSum.compareTo(valueNeeded) == 0
-                    || inputValueSum.compareTo(valueNeeded.add(minFreeOutputSize)) >= 0) {
+            if (inputValueSum == valueNeeded || inputValueSum >= valueNeededWithFreeOutput) {
                 break;
             }
         }
 
-        if (inputValueSum.compareTo(BigInteger.valueOf(2100000000000000L)) > 0) {
-            throw new ProtocolException("21m limit exceeded");
-        }
+        Satoshis.checkMaxMoney(inputValueSum);
 
-        if (inputValueSum.compareTo(valueNeeded) < 0) {
-            throw new InsufficientMoneyException(valueNeeded.subtract(inputValueSum));
+        if (inputValueSum < valueNeeded) {
+            throw new InsufficientMoneyException(BigInteger.valueOf(valueNeeded - inputValueSum));
         }
 
         return inputValueSum;
@@ -160,12 +163,12 @@ class PaymentTx {
 
     private static void addChange(NetworkParameters networkParameters,
                                   Transaction transaction,
-                                  BigInteger fee,
+                                  long fee,
                                   String changeAddress,
-                                  BigInteger outputValueSum,
-                                  BigInteger inputValueSum) throws AddressFormatException {
+                                  long outputValueSum,
+                                  long inputValueSum) throws AddressFormatException {
 
-        BigInteger change = inputValueSum.subtract(outputValueSum).subtract(fee);
+        long change = Satoshis.subtract(Satoshis.subtract(inputValueSum, outputValueSum), fee);
         String base58Change;
         if (FormatsUtil.isValidBitcoinCashAddress(networkParameters, changeAddress)) {
             base58Change = CashAddress.toLegacy(networkParameters, changeAddress);
@@ -174,14 +177,14 @@ class PaymentTx {
         }
 
         // Consume dust if needed
-        if (change.compareTo(BigInteger.ZERO) > 0 && (change.compareTo(Payment.DUST) > 0)) {
+        if (change > 0 && change > Payment.DUST.longValue()) {
 
             Script changeScript = ScriptBuilder
                     .createOutputScript(Address.fromBase58(networkParameters, base58Change));
 
             TransactionOutput change_output = new TransactionOutput(networkParameters,
                     null,
-                    Coin.valueOf(change.longValue()),
+                    Coin.valueOf(change),
                     changeScript.getProgram());
             transaction.addOutput(change_output);
         }
@@ -274,22 +277,23 @@ class PaymentTx {
         Transaction transaction = new Transaction(networkParameters);
 
         // Outputs
-        BigInteger outputValueSum = addTransactionOutputs(networkParameters, transaction, receivingAddresses);
-        BigInteger valueNeeded = outputValueSum.add(fee);
+        long outputValueSum = addTransactionOutputs(networkParameters, transaction, receivingAddresses);
+        long feeValue = Satoshis.valueOf(fee);
+        long valueNeeded = Satoshis.add(outputValueSum, feeValue);
 
         if (unspentCoins.get(0).getValue().compareTo(Payment.DUST) == 0
                 && unspentCoins.get(0).isForceInclude()) {
             log.info("Remove forced dust input");
             unspentCoins.remove(0);
-            valueNeeded = valueNeeded.subtract(Payment.DUST);
+            valueNeeded = Satoshis.subtract(valueNeeded, Payment.DUST.longValue());
         }
 
         // Inputs
-        BigInteger inputValueSum = addTransactionInputList(networkParameters, transaction, unspentCoins, valueNeeded);
+        long inputValueSum = addTransactionInputList(networkParameters, transaction, unspentCoins, valueNeeded);
 
         // Add Change
         if (changeAddress != null) {
-            addChange(networkParameters, transaction, fee, changeAddress, outputValueSum, inputValueSum);
+            addChange(networkParameters, transaction, feeValue, changeAddress, outputValueSum, inputValueSum);
         }
 
         // Add dust input/output
@@ -0,0 +1,50 @@
+package info.blockchain.wallet.payment;
+
+import org.bitcoinj.core.ProtocolException;
+
+import java.math.BigInteger;
+
+/**
+ * Overflow checked arithmetic on satoshi amounts held as primitive longs. Every valid amount is
+ * at most {@link #MAX_MONEY}, so a long has plenty of headroom and no {@link BigInteger} needs to
+ * be allocated on the payment path.
+ */
+final class Satoshis {
+
+    static final long MAX_MONEY = 2100000000000000L;
+
+    private Satoshis() {
+        // Utility class
+    }
+
+    static long valueOf(BigInteger amount) {
+        if (amount.bitLength() > 63) {
+            throw new ArithmeticException("Amount out of long range: " + amount);
+        }
+        return amount.longValue();
+    }
+
+    static long add(long a, long b) {
+        long result = a + b;
+        // Overflow iff both operands have the opposite sign of the result
+        if (((a ^ result) & (b ^ result)) < 0) {
+            throw new ArithmeticException("long overflow");
+        }
+        return result;
+    }
+
+    static long subtract(long a, long b) {
+        long result = a - b;
+        // Overflow iff the operands have different signs and the result differs from a
+        if (((a ^ b) & (a ^ result)) < 0) {
+            throw new ArithmeticException("long overflow");
+        }
+        return result;
+    }
+
+    static void checkMaxMoney(long amount) {
+        if (amount > MAX_MONEY) {
+            throw new ProtocolException("21m limit exceeded");
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package info.blockchain.wallet.payment;
+
+import info.blockchain.api.data.UnspentOutput;
+
+import org.bitcoinj.script.Script;
+import org.spongycastle.util.encoders.Hex;
+
+import java.util.List;
+
+/**
+ * Spend-worthy unspent outputs, parsed once into primitive arrays so that coin selection doesn't
+ * need to touch {@link java.math.BigInteger} or decode scripts per candidate.
+ */
+public class SelectableCoins {
+
+    private final UnspentOutput[] outputs;
+    private final long[] values;
+    private final boolean[] forceInclude;
+    private final int size;
+    private final boolean hasForcedCoins;
+
+    private SelectableCoins(UnspentOutput[] outputs,
+                            long[] values,
+                            boolean[] forceInclude,
+                            int size,
+                            boolean hasForcedCoins) {
+        this.outputs = outputs;
+        this.values = values;
+        this.forceInclude = forceInclude;
+        this.size = size;
+        this.hasForcedCoins = hasForcedCoins;
+    }
+
+    /**
+     * Filters out coins worth less than the cost of spending them and coins with an
+     * unrecognised script, unless they are force included.
+     *
+     * @param unspentOutputs Coins in the order they should be considered
+     * @param feePerKb       The fee per KB in satoshis
+     */
+    public static SelectableCoins from(List<UnspentOutput> unspentOutputs, long feePerKb) {
+        int count = unspentOutputs.size();
+        UnspentOutput[] outputs = new UnspentOutput[count];
+        long[] values = new long[count];
+        boolean[] forceInclude = new boolean[count];
+        boolean hasForcedCoins = false;
+
+        double inputCost = Fees.inputCost(feePerKb);
+
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            UnspentOutput output = unspentOutputs.get(i);
+            long value = output.getValue().longValue();
+            boolean forced = output.isForceInclude();
+
+            // Filter coins not worth spending
+            if (value < inputCost && !forced) {
+                continue;
+            }
+
+            // Skip script with no type
+            if (!forced && !isStandardScript(output.getScript())) {
+                continue;
+            }
+
+            outputs[size] = output;
+            values[size] = value;
+            forceInclude[size] = forced;
+            hasForcedCoins |= forced;
+            size++;
+        }
+
+        return new SelectableCoins(outputs, values, forceInclude, size, hasForcedCoins);
+    }
+
+    /**
+     * P2PKH and P2SH are recognised from their hex template, anything else is parsed.
+     */
+    static boolean isStandardScript(String script) {
+        if (script == null) {
+            return false;
+        }
+        // OP_DUP OP_HASH160 <20 bytes> OP_EQUALVERIFY OP_CHECKSIG
+        if (script.length() == 50 && script.startsWith("76a914") && script.endsWith("88ac")) {
+            return true;
+        }
+        // OP_HASH160 <20 bytes> OP_EQUAL
+        if (script.length() == 46 && script.startsWith("a914") && script.endsWith("87")) {
+            return true;
+        }
+        return new Script(Hex.decode(script.getBytes())).getScriptType() != Script.ScriptType.NO_TYPE;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getValue(int index) {
+        return values[index];
+    }
+
+    public boolean isForceInclude(int index) {
+        return forceInclude[index];
+    }
+
+    public boolean hasForcedCoins() {
+        return hasForcedCoins;
+    }
+
+    public UnspentOutput getOutput(int index) {
+        return outputs[index];
+    }
+}
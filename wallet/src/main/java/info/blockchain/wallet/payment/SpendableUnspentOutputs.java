@@ -8,8 +8,8 @@ import java.util.List;
 public class SpendableUnspentOutputs {
 
     private List<UnspentOutput> spendableOutputs = null;
-    private BigInteger absoluteFee = BigInteger.ZERO;
-    private BigInteger consumedAmount = BigInteger.ZERO;
+    private long absoluteFee = 0L;
+    private long consumedAmount = 0L;
     private boolean replayProtected = false;
 
     public SpendableUnspentOutputs() {
@@ -24,18 +24,34 @@ public class SpendableUnspentOutputs {
     }
 
     public BigInteger getAbsoluteFee() {
-        return absoluteFee;
+        return BigInteger.valueOf(absoluteFee);
     }
 
     public void setAbsoluteFee(BigInteger absoluteFee) {
+        this.absoluteFee = Satoshis.valueOf(absoluteFee);
+    }
+
+    long getAbsoluteFeeValue() {
+        return absoluteFee;
+    }
+
+    void setAbsoluteFeeValue(long absoluteFee) {
         this.absoluteFee = absoluteFee;
     }
 
     public BigInteger getConsumedAmount() {
-        return consumedAmount;
+        return BigInteger.valueOf(consumedAmount);
     }
 
     public void setConsumedAmount(BigInteger consumedAmount) {
+        this.consumedAmount = Satoshis.valueOf(consumedAmount);
+    }
+
+    long getConsumedAmountValue() {
+        return consumedAmount;
+    }
+
+    void setConsumedAmountValue(long consumedAmount) {
         this.consumedAmount = consumedAmount;
     }
 
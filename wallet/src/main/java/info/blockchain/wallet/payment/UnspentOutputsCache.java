@@ -0,0 +1,234 @@
+package info.blockchain.wallet.payment;
+
+import info.blockchain.api.data.UnspentOutput;
+import info.blockchain.api.data.UnspentOutputs;
+import info.blockchain.wallet.exceptions.ApiException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Keeps the unspent outputs of recently queried address sets in memory, so that recalculating a
+ * payment (fee changes, amount changes) doesn't hit the unspent API each time.
+ *
+ * <ul>
+ * <li>Concurrent requests for the same coin and address set share a single fetch.</li>
+ * <li>Address sets larger than {@link #MAX_ADDRESSES_PER_REQUEST} are split into chunks which
+ * are fetched in parallel and merged.</li>
+ * <li>Entries are dropped when {@link #invalidate(String)} is called, ie on a websocket utx
+ * message or after a transaction was pushed, or when older than the max age.</li>
+ * </ul>
+ */
+public class UnspentOutputsCache {
+
+    private static final Logger log = LoggerFactory.getLogger(UnspentOutputsCache.class);
+
+    // Keeps the request url well below common server limits, even for xpubs
+    static final int MAX_ADDRESSES_PER_REQUEST = 50;
+
+    interface Fetcher {
+        UnspentOutputs fetch(String coin, List<String> addresses) throws IOException, ApiException;
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Fetcher fetcher;
+    private final ExecutorService executor;
+    private final long maxAgeMillis;
+
+    UnspentOutputsCache(Fetcher fetcher, ExecutorService executor, long maxAgeMillis) {
+        this.fetcher = fetcher;
+        this.executor = executor;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * @param coin      "btc" or "bch"
+     * @param addresses Addresses and xpubs to fetch unspent outputs for
+     * @return A copy of the cached unspent outputs, safe for the caller to sort or modify
+     */
+    public UnspentOutputs get(final String coin, List<String> addresses) throws IOException, ApiException {
+        final List<String> sortedAddresses = new ArrayList<>(new TreeSet<>(addresses));
+        final String key = coin + ":" + join(sortedAddresses);
+
+        while (true) {
+            Entry entry = entries.get(key);
+            if (entry != null && !entry.isExpired(System.currentTimeMillis(), maxAgeMillis)) {
+                return copyOf(await(key, entry));
+            }
+
+            Entry fresh = new Entry(new FutureTask<>(new Callable<UnspentOutputs>() {
+                @Override
+                public UnspentOutputs call() throws Exception {
+                    return fetchChunked(coin, sortedAddresses);
+                }
+            }), System.currentTimeMillis());
+
+            boolean installed = entry == null
+                    ? entries.putIfAbsent(key, fresh) == null
+                    : entries.replace(key, entry, fresh);
+
+            if (installed) {
+                fresh.task.run();
+                return copyOf(await(key, fresh));
+            }
+            // Lost the race against another caller - use their fetch
+        }
+    }
+
+    /**
+     * Drops every cached entry for the given coin.
+     */
+    public void invalidate(String coin) {
+        String prefix = coin + ":";
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getKey().startsWith(prefix)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Drops every cached entry, ie on logout.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private UnspentOutputs await(String key, Entry entry) throws IOException, ApiException {
+        try {
+            return entry.task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            // Don't cache failures
+            entries.remove(key, entry);
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof ApiException) {
+                throw (ApiException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else {
+                throw new ApiException(cause);
+            }
+        }
+    }
+
+    private UnspentOutputs fetchChunked(final String coin, List<String> addresses) throws Exception {
+        if (addresses.size() <= MAX_ADDRESSES_PER_REQUEST) {
+            return fetcher.fetch(coin, addresses);
+        }
+
+        List<Future<UnspentOutputs>> futures = new ArrayList<>();
+        for (int i = MAX_ADDRESSES_PER_REQUEST; i < addresses.size(); i += MAX_ADDRESSES_PER_REQUEST) {
+            final List<String> chunk = new ArrayList<>(addresses.subList(i,
+                    Math.min(i + MAX_ADDRESSES_PER_REQUEST, addresses.size())));
+            futures.add(executor.submit(new Callable<UnspentOutputs>() {
+                @Override
+                public UnspentOutputs call() throws Exception {
+                    return fetcher.fetch(coin, chunk);
+                }
+            }));
+        }
+        log.info("Fetching unspent outputs for {} addresses in {} requests",
+                addresses.size(), futures.size() + 1);
+
+        // First chunk on the calling thread
+        UnspentOutputs merged;
+        try {
+            merged = copyOf(fetcher.fetch(coin, addresses.subList(0, MAX_ADDRESSES_PER_REQUEST)));
+            for (Future<UnspentOutputs> future : futures) {
+                UnspentOutputs chunk = future.get();
+                if (chunk.getUnspentOutputs() != null) {
+                    merged.getUnspentOutputs().addAll(chunk.getUnspentOutputs());
+                }
+            }
+        } catch (ExecutionException e) {
+            cancel(futures);
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        } catch (Exception e) {
+            cancel(futures);
+            throw e;
+        }
+        return merged;
+    }
+
+    private static void cancel(List<Future<UnspentOutputs>> futures) {
+        for (Future<UnspentOutputs> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Copies the outputs too, as coin selection flags them (see {@link UnspentOutput#setForceInclude(boolean)})
+     * and those flags must not leak into the next selection.
+     */
+    private static UnspentOutputs copyOf(UnspentOutputs unspentOutputs) {
+        UnspentOutputs copy = new UnspentOutputs();
+        copy.setNotice(unspentOutputs.getNotice());
+        ArrayList<UnspentOutput> outputs = new ArrayList<>();
+        if (unspentOutputs.getUnspentOutputs() != null) {
+            for (UnspentOutput output : unspentOutputs.getUnspentOutputs()) {
+                outputs.add(copyOf(output));
+            }
+        }
+        copy.setUnspentOutputs(outputs);
+        return copy;
+    }
+
+    private static UnspentOutput copyOf(UnspentOutput output) {
+        UnspentOutput copy = new UnspentOutput();
+        copy.setTxAge(output.getTxAge());
+        copy.setTxHash(output.getTxHash());
+        copy.setTxHashBigEndian(output.getTxHashBigEndian());
+        copy.setTxIndex(output.getTxIndex());
+        copy.setTxOutputCount(output.getTxOutputCount());
+        copy.setScript(output.getScript());
+        copy.setValue(output.getValue());
+        copy.setValueHex(output.getValueHex());
+        copy.setConfirmations(output.getConfirmations());
+        copy.setXpub(output.getXpub());
+        copy.setReplayable(output.isReplayable());
+        copy.setForceInclude(output.isForceInclude());
+        return copy;
+    }
+
+    private static String join(List<String> addresses) {
+        StringBuilder builder = new StringBuilder();
+        for (String address : addresses) {
+            builder.append(address).append('|');
+        }
+        return builder.toString();
+    }
+
+    private static class Entry {
+
+        final FutureTask<UnspentOutputs> task;
+        final long createdAt;
+
+        Entry(FutureTask<UnspentOutputs> task, long createdAt) {
+            this.task = task;
+            this.createdAt = createdAt;
+        }
+
+        boolean isExpired(long now, long maxAgeMillis) {
+            return now - createdAt > maxAgeMillis;
+        }
+    }
+}
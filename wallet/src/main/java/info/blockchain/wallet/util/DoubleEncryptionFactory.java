@@ -1,6 +1,7 @@
 package info.blockchain.wallet.util;
 
 import info.blockchain.wallet.crypto.AESUtil;
+import info.blockchain.wallet.crypto.DerivedKeyCache;
 import info.blockchain.wallet.exceptions.DecryptionException;
 import info.blockchain.wallet.exceptions.EncryptionException;
 
@@ -15,6 +16,9 @@ import java.security.MessageDigest;
  */
 public class DoubleEncryptionFactory {
 
+    // Second password hashes are checked before every key decryption - remember the last few
+    private static final DerivedKeyCache hashCache = new DerivedKeyCache(8);
+
     public static String encrypt(String encrypted, String sharedKey, String password2, int iterations)
             throws UnsupportedEncodingException, EncryptionException {
         return AESUtil.encrypt(encrypted, sharedKey + password2, iterations);
@@ -29,15 +33,19 @@ public class DoubleEncryptionFactory {
         byte[] data = null;
 
         try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            {
+            byte[] secret = (sharedKey + password2).getBytes("UTF-8");
+            String id = DerivedKeyCache.id(secret, new byte[0], iterations);
+            data = hashCache.get(id);
+
+            if (data == null) {
+                MessageDigest md = MessageDigest.getInstance("SHA-256");
                 // n rounds of SHA256
-                data = md.digest((sharedKey + password2).getBytes("UTF-8"));
+                data = md.digest(secret);
                 // first hash already done above
                 for (int i = 1; i < iterations; i++) {
                     data = md.digest(data);
                 }
-
+                hashCache.put(id, data);
             }
         } catch (Exception e) {
             //Second pw or iterations incorrect
@@ -52,6 +60,14 @@ public class DoubleEncryptionFactory {
 
     }
 
+    /**
+     * Wipes cached second password hashes and derived keys. Call on logout.
+     */
+    public static void clearCaches() {
+        hashCache.clear();
+        AESUtil.clearKeyCache();
+    }
+
     public static void validateSecondPassword(String dpasswordhash, String sharedKey, String password2, int iterations)
             throws DecryptionException {
         String dhash = getHash(sharedKey, password2, iterations);
@@ -0,0 +1,99 @@
+package info.blockchain.wallet.util;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shared Jackson mappers for the wallet's JSON data classes. Creating an {@link ObjectMapper} and
+ * introspecting a class for it is expensive, whereas a configured mapper is thread-safe and caches
+ * what it learns about each class, so the same mappers are used for every payload. Readers and
+ * writers are cached per class as well.
+ */
+public final class ObjectMappers {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static final ObjectMapper fieldMapper = new ObjectMapper();
+
+    static {
+        fieldMapper.setVisibility(fieldMapper.getSerializationConfig().getDefaultVisibilityChecker()
+            .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
+            .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
+            .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
+            .withIsGetterVisibility(JsonAutoDetect.Visibility.NONE)
+            .withCreatorVisibility(JsonAutoDetect.Visibility.NONE));
+    }
+
+    private static final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    private static final ConcurrentMap<Class<?>, ObjectReader> fieldReaders = new ConcurrentHashMap<>();
+
+    private static final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    private ObjectMappers() {
+        // Static utility
+    }
+
+    /**
+     * Equivalent to {@code new ObjectMapper().readValue(json, type)}.
+     */
+    public static <T> T readValue(String json, Class<T> type) throws IOException {
+        return reader(readers, mapper, type).readValue(json);
+    }
+
+    /**
+     * Reads {@code json} binding fields only, ignoring getters, setters and constructors, unless
+     * the class says otherwise.
+     */
+    public static <T> T readValueFromFields(String json, Class<T> type) throws IOException {
+        return reader(fieldReaders, fieldMapper, type).readValue(json);
+    }
+
+    /**
+     * As {@link #readValueFromFields(String, Class)}, streaming from UTF-8 encoded {@code json}.
+     */
+    public static <T> T readValueFromFields(byte[] json, Class<T> type) throws IOException {
+        return reader(fieldReaders, fieldMapper, type).readValue(json);
+    }
+
+    /**
+     * Equivalent to {@code new ObjectMapper().writeValueAsString(value)}. The writer is picked by
+     * the runtime class of {@code value}, so subclasses are written in full.
+     */
+    public static String writeValueAsString(Object value) throws JsonProcessingException {
+        if (value == null) {
+            return mapper.writeValueAsString(null);
+        }
+        Class<?> type = value.getClass();
+        ObjectWriter writer = writers.get(type);
+        if (writer == null) {
+            writer = mapper.writerFor(type);
+            ObjectWriter existing = writers.putIfAbsent(type, writer);
+            if (existing != null) {
+                writer = existing;
+            }
+        }
+        return writer.writeValueAsString(value);
+    }
+
+    private static ObjectReader reader(ConcurrentMap<Class<?>, ObjectReader> cache,
+                                       ObjectMapper mapper,
+                                       Class<?> type) {
+        ObjectReader reader = cache.get(type);
+        if (reader == null) {
+            reader = mapper.readerFor(type);
+            ObjectReader existing = cache.putIfAbsent(type, reader);
+            if (existing != null) {
+                reader = existing;
+            }
+        }
+        return reader;
+    }
+}
@@ -7,6 +7,8 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Created by riaanvos on 27/01/2017.
  */
@@ -36,6 +38,27 @@ public class HDChainTest {
         Assert.assertEquals("1HxBEXhu5LPibpTAQ1EoNTJavDSbwajJTg", chain.getAddressAt(0).getAddressString());
     }
 
+    @Test
+    public void getAddressAt_cached() throws Exception {
+        HDChain chain = new HDChain(BitcoinMainNetParams.get(), key, true);
+        Assert.assertSame(chain.getAddressAt(0), chain.getAddressAt(0));
+        Assert.assertEquals(chain.getAddressAt(1).getAddressString(),
+            new HDAddress(BitcoinMainNetParams.get(), HDKeyDerivation.deriveChildKey(key, 0), 1)
+                .getAddressString());
+    }
+
+    @Test
+    public void precomputeAddresses() throws Exception {
+        HDChain chain = new HDChain(BitcoinMainNetParams.get(), key, true);
+        HDAddress first = chain.getAddressAt(0);
+
+        chain.precomputeAddresses(0, 20).get(10, TimeUnit.SECONDS);
+
+        Assert.assertSame(first, chain.getAddressAt(0));
+        Assert.assertEquals("1HxBEXhu5LPibpTAQ1EoNTJavDSbwajJTg", chain.getAddressAt(0).getAddressString());
+        Assert.assertEquals(19, chain.getAddressAt(19).getChildNum());
+    }
+
     @Test
     public void getPath() throws Exception {
         HDChain chain = new HDChain(BitcoinMainNetParams.get(), key, true);
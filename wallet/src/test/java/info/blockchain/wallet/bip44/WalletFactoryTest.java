@@ -8,6 +8,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.List;
 
 import static org.spongycastle.util.encoders.Hex.toHexString;
 
@@ -179,4 +180,27 @@ public class WalletFactoryTest {
             account.getXpub());
         Assert.assertEquals(0, account.getId());
     }
+
+    @Test
+    public void testAddAccounts_matchesSerialDerivation() throws Exception {
+        String mnemonic = "all all all all all all all all all all all all";
+
+        HDWallet serial = HDWalletFactory
+            .restoreWallet(BitcoinMainNetParams.get(), Language.US, mnemonic, "", 1);
+        for (int i = 0; i < 7; i++) {
+            serial.addAccount();
+        }
+
+        HDWallet parallel = HDWalletFactory
+            .restoreWallet(BitcoinMainNetParams.get(), Language.US, mnemonic, "", 1);
+        List<HDAccount> added = parallel.addAccounts(7);
+
+        Assert.assertEquals(7, added.size());
+        Assert.assertEquals(8, parallel.getAccounts().size());
+        for (int i = 0; i < 8; i++) {
+            Assert.assertEquals(i, parallel.getAccount(i).getId());
+            Assert.assertEquals(serial.getAccount(i).getXpub(), parallel.getAccount(i).getXpub());
+            Assert.assertEquals(serial.getAccount(i).getXPriv(), parallel.getAccount(i).getXPriv());
+        }
+    }
 }
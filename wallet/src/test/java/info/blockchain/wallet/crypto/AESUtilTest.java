@@ -43,6 +43,13 @@ public class AESUtilTest {
         }
     }
 
+    @Test
+    public void decryptBytesTest() throws Exception {
+        String encrypted = AESUtil.encrypt(cleartext, pw, iterations);
+        byte[] decrypted = AESUtil.decryptBytes(encrypted, pw, iterations);
+        Assert.assertArrayEquals(cleartext.getBytes("UTF-8"), decrypted);
+    }
+
     @Test
     public void decryptFailIncorrectPasswordTest() {
         try {
@@ -184,4 +191,34 @@ public class AESUtilTest {
 
         Assert.assertTrue("Decryption", decrypted.equals(data));
     }
+
+    @Test
+    public void decrypt_reusesDerivedKey() throws Exception {
+        AESUtil.clearKeyCache();
+        String encrypted = AESUtil.encrypt(cleartext, pw, AESUtil.PIN_PBKDF2_ITERATIONS);
+        // Random salt per encryption - nothing worth caching
+        Assert.assertEquals(0, AESUtil.getKeyCache().size());
+
+        Assert.assertEquals(cleartext, AESUtil.decrypt(encrypted, pw, AESUtil.PIN_PBKDF2_ITERATIONS));
+        Assert.assertEquals(1, AESUtil.getKeyCache().size());
+
+        Assert.assertEquals(cleartext, AESUtil.decrypt(encrypted, pw, AESUtil.PIN_PBKDF2_ITERATIONS));
+        Assert.assertEquals(1, AESUtil.getKeyCache().size());
+
+        AESUtil.clearKeyCache();
+        Assert.assertEquals(0, AESUtil.getKeyCache().size());
+    }
+
+    @Test
+    public void decrypt_cachedKeyIsSpecificToPassword() throws Exception {
+        String encrypted = AESUtil.encrypt(cleartext, pw, iterations);
+        Assert.assertEquals(cleartext, AESUtil.decrypt(encrypted, pw, iterations));
+
+        try {
+            String decrypted = AESUtil.decrypt(encrypted, "bogus", iterations);
+            Assert.assertNotEquals(cleartext, decrypted);
+        } catch (Exception e) {
+            Assert.assertTrue("Decryption failed as expected.", true);
+        }
+    }
 }
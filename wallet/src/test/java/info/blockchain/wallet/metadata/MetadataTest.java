@@ -9,9 +9,11 @@ import info.blockchain.wallet.bip44.HDWallet;
 import info.blockchain.wallet.bip44.HDWalletFactory;
 import info.blockchain.wallet.bip44.HDWalletFactory.Language;
 import info.blockchain.wallet.contacts.data.PublicContactDetails;
+import info.blockchain.wallet.exceptions.MetadataException;
 import info.blockchain.wallet.util.MetadataUtil;
 import info.blockchain.wallet.util.RestClient;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.bitcoinj.core.NetworkParameters;
 import org.bitcoinj.crypto.DeterministicKey;
 import org.bitcoinj.params.BitcoinCashMainNetParams;
@@ -20,6 +22,8 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.LinkedList;
+
 import okhttp3.OkHttpClient;
 import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
@@ -159,4 +163,63 @@ public final class MetadataTest {
         mockInterceptor.setResponseCode(404);
         Assert.assertNull(metadata.getMetadata());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testMagicHashTakenFromRead() throws Exception {
+
+        String response = "{\"payload\":\"UmFnZSByYWdlIHNvbWUgbW9yZQ==\",\"version\":1,\"type_id\":1,\"signature\":\"H7zIO7fzkb8t+zdbiEzlKt/8InFjH5N2ja+SaJPcAuheP3soAJwxVrnzG0tDQpxyJKSgYn/9il6XsLW3rmm3a+g=\",\"prev_magic_hash\":\"73d03136dfdadf66b4048f938ad8acf6084134a84ac6f542e0144b29999a6836\",\"created_at\":1480592845000,\"updated_at\":1480592845000,\"address\":\"1ErzrzB1FE1YyQ7LADMzye9J3Q8QeR1mja\"}";
+        mockInterceptor.setResponseString(response);
+        mockInterceptor.setResponseCode(200);
+
+        DeterministicKey metaDataHDNode = MetadataUtil.deriveMetadataNode(getWallet().getMasterKey());
+
+        Metadata fetched = new Metadata.Builder(metaDataHDNode, 2)
+                .setEncrypted(isEncrypted)
+                .build();
+
+        Metadata lazy = new Metadata.Builder(metaDataHDNode, 2)
+                .setEncrypted(isEncrypted)
+                .setFetchMagicHash(false)
+                .build();
+        Assert.assertNull(lazy.getMagicHash());
+
+        mockInterceptor.setResponseString(response);
+        mockInterceptor.setResponseCode(200);
+        lazy.getMetadata();
+
+        Assert.assertNotNull(fetched.getMagicHash());
+        Assert.assertArrayEquals(fetched.getMagicHash(), lazy.getMagicHash());
+    }
+
+    @Test
+    public void testConflictRetriedAgainAfterFailedRetry() throws Exception {
+
+        mockInterceptor.setResponseString("{\"message\":\"Not Found\"}");
+        mockInterceptor.setResponseCode(404);
+
+        DeterministicKey metaDataHDNode = MetadataUtil.deriveMetadataNode(getWallet().getMasterKey());
+
+        Metadata metadata = new Metadata.Builder(metaDataHDNode, 2)
+                .setEncrypted(isEncrypted)
+                .build();
+
+        LinkedList<Pair> responses = new LinkedList<>();
+        responses.add(Pair.of(409, "{}"));
+        responses.add(Pair.of(404, "{\"message\":\"Not Found\"}"));
+        responses.add(Pair.of(409, "{}"));
+        mockInterceptor.setResponseList(responses);
+        try {
+            metadata.putMetadata(new PublicContactDetails("mock").toJson());
+            Assert.fail("Expected the second conflict to throw");
+        } catch (MetadataException e) {
+            // Expected
+        }
+
+        responses = new LinkedList<>();
+        responses.add(Pair.of(409, "{}"));
+        responses.add(Pair.of(404, "{\"message\":\"Not Found\"}"));
+        responses.add(Pair.of(200, "{}"));
+        mockInterceptor.setResponseList(responses);
+        metadata.putMetadata(new PublicContactDetails("mock").toJson());
+    }
+}
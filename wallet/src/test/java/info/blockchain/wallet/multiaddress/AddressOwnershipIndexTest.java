@@ -0,0 +1,68 @@
+package info.blockchain.wallet.multiaddress;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+public class AddressOwnershipIndexTest {
+
+    private AddressOwnershipIndex index;
+
+    @Before
+    public void setUp() {
+        index = new AddressOwnershipIndex();
+    }
+
+    @Test
+    public void putXpubs() {
+        HashMap<String, String> map = new HashMap<>();
+        map.put("address1", "xpub1");
+        map.put("address2", "xpub2");
+
+        index.putXpubs(map);
+
+        Assert.assertEquals(2, index.size());
+        Assert.assertTrue(index.isOwnHDAddress("address1"));
+        Assert.assertEquals("xpub2", index.getXpub("address2"));
+        Assert.assertFalse(index.isOwnHDAddress("address3"));
+        Assert.assertNull(index.getXpub("address3"));
+    }
+
+    @Test
+    public void scope() {
+        List<String> own = Arrays.asList("xpub1", "legacy1");
+        List<String> watchOnly = Collections.singletonList("watchOnly1");
+
+        AddressOwnershipIndex.Scope scope = index.scope(own, watchOnly, null);
+
+        Assert.assertTrue(scope.isOwn("legacy1"));
+        Assert.assertFalse(scope.isOwn("address1"));
+        Assert.assertTrue(scope.isWatchOnly("watchOnly1"));
+        Assert.assertFalse(scope.isWatchOnly("legacy1"));
+        Assert.assertFalse(scope.isFilteringLegacy());
+        Assert.assertFalse(scope.isLegacy("legacy1"));
+
+        scope.addOwn("address1");
+
+        Assert.assertTrue(scope.isOwn("address1"));
+        //Scoped addresses don't leak into the caller's list
+        Assert.assertEquals(2, own.size());
+    }
+
+    @Test
+    public void scope_filteringLegacy() {
+        AddressOwnershipIndex.Scope scope = index.scope(
+                Collections.singletonList("legacy1"),
+                Collections.<String>emptyList(),
+                Collections.singletonList("legacy1"));
+
+        Assert.assertTrue(scope.isFilteringLegacy());
+        Assert.assertTrue(scope.isLegacy("legacy1"));
+        Assert.assertFalse(scope.isLegacy("legacy2"));
+    }
+}
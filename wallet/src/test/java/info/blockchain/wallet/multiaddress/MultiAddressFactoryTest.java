@@ -112,6 +112,35 @@ public class MultiAddressFactoryTest extends MockedResponseTest {
         Assert.assertEquals(10, multiAddressFactory.getNextReceiveAddressIndex(dormantXpub, new ArrayList<AddressLabel>()));
     }
 
+    @Test
+    public void syncAccountTransactions() throws Exception {
+
+        String xpub1 = "xpub6Bx1J3neE11W2XpvKRFQVwWpZFsDfnRkLJ2V4JjPWNRDXbRvZrwnytbSbBng2F1fRejxkMWAi6fYJuAJrGg6TP8Key4jvs9YqpVo5LJ8jSk";
+        String xpub2 = "xpub6Bx1J3neE11W3XsMUTWVBKECFJee9TjJDSZJ53LKhr7AaAPJpNtz4KZTCe8nctTdu6kLYB4uZncjsy7EBi18mKb4HLg3WLfhPFW2KFGjScE";
+        String address = "1DtkXqBjvXWsboMpc72U1kfRrK8JTntBLQ";
+        List<String> all = Arrays.asList(xpub1, xpub2, address);
+
+        URI uri = getClass().getClassLoader().getResource("multiaddress/multi_address_1Dtk.txt").toURI();
+        String response = new String(Files.readAllBytes(Paths.get(uri)), Charset.forName("utf-8"));
+
+        mockInterceptor.setResponseString(response);
+        List<TransactionSummary> first = multiAddressFactory.syncAccountTransactions(
+            all, new ArrayList<String>(), null, null, 100, 0);
+
+        Assert.assertEquals(7, first.size());
+
+        //Page of 10 returns 7 known txs, so no further pages are requested
+        mockInterceptor.setResponseString(response);
+        List<TransactionSummary> second = multiAddressFactory.syncAccountTransactions(
+            all, new ArrayList<String>(), null, null, 100, 0);
+
+        Assert.assertEquals(7, second.size());
+        for (int i = 0; i < first.size(); i++) {
+            Assert.assertEquals(first.get(i).getHash(), second.get(i).getHash());
+            Assert.assertEquals(first.get(i).getConfirmations(), second.get(i).getConfirmations());
+        }
+    }
+
     @Test
     public void getMultiAddress_MoreCases() throws Exception {
 
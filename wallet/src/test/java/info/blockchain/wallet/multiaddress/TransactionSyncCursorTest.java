@@ -0,0 +1,29 @@
+package info.blockchain.wallet.multiaddress;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+public class TransactionSyncCursorTest {
+
+    @Test
+    public void merge_does_not_modify_returned_summaries() {
+        TransactionSummary summary = new TransactionSummary();
+        summary.setHash("hash");
+        summary.setBlockHeight(100);
+        summary.setConfirmations(1);
+
+        TransactionSyncCursor cursor = new TransactionSyncCursor(Collections.singletonList("xpub"));
+        cursor.reset(Collections.singletonList(summary));
+
+        List<TransactionSummary> merged = cursor.merge(
+                Collections.<TransactionSummary>emptyList(), 102, 10);
+
+        Assert.assertEquals(1, merged.size());
+        Assert.assertEquals("hash", merged.get(0).getHash());
+        Assert.assertEquals(3, merged.get(0).getConfirmations());
+        Assert.assertEquals(1, summary.getConfirmations());
+    }
+}
@@ -227,6 +227,46 @@ class CryptoBalanceMapTest {
         }
     }
 
+    @Test
+    fun `repeated adjustments accumulate`() {
+        calculateCryptoBalanceMap(
+            CryptoCurrency.BTC,
+            { mapOf("A" to 100L, "B" to 200L, "C" to 300L) }.toBalanceQuery(),
+            xpubs = setOf("A"),
+            legacy = setOf("B"),
+            watchOnlyLegacy = setOf("C")
+        ).subtractAmountFromAddress("B", CryptoValue.bitcoinFromSatoshis(50L))
+            .subtractAmountFromAddress("B", CryptoValue.bitcoinFromSatoshis(25L))
+            .subtractAmountFromAddress("A", CryptoValue.bitcoinFromSatoshis(10L))
+            .apply {
+                totalSpendable `should equal` CryptoValue.bitcoinFromSatoshis(215L)
+                totalSpendableLegacy `should equal` CryptoValue.bitcoinFromSatoshis(125L)
+                totalWatchOnly `should equal` CryptoValue.bitcoinFromSatoshis(300L)
+                get("B") `should equal` CryptoValue.bitcoinFromSatoshis(125L)
+            }
+    }
+
+    @Test
+    fun `address in more than one category is adjusted like it is summed`() {
+        calculateCryptoBalanceMap(
+            CryptoCurrency.BTC,
+            { mapOf("A" to 100L, "B" to 200L) }.toBalanceQuery(),
+            xpubs = setOf("A", "B"),
+            legacy = setOf("B"),
+            watchOnlyLegacy = setOf("A")
+        ).apply {
+            totalSpendable `should equal` CryptoValue.bitcoinFromSatoshis(200L)
+            totalSpendableLegacy `should equal` CryptoValue.bitcoinFromSatoshis(200L)
+            totalWatchOnly `should equal` CryptoValue.bitcoinFromSatoshis(100L)
+        }.subtractAmountFromAddress("B", CryptoValue.bitcoinFromSatoshis(50L))
+            .subtractAmountFromAddress("A", CryptoValue.bitcoinFromSatoshis(50L))
+            .apply {
+                totalSpendable `should equal` CryptoValue.bitcoinFromSatoshis(150L)
+                totalSpendableLegacy `should equal` CryptoValue.bitcoinFromSatoshis(150L)
+                totalWatchOnly `should equal` CryptoValue.bitcoinFromSatoshis(50L)
+            }
+    }
+
     @Test
     fun `can't adjust a missing balance`() {
         calculateCryptoBalanceMap(
@@ -1,8 +1,13 @@
 package info.blockchain.wallet.payload.data;
 
 import com.google.common.collect.BiMap;
+import info.blockchain.api.blockexplorer.BlockExplorer;
+import info.blockchain.api.blockexplorer.FilterType;
+import info.blockchain.api.data.Balance;
 import info.blockchain.api.data.UnspentOutputs;
 import info.blockchain.wallet.MockedResponseTest;
+import info.blockchain.wallet.bip44.HDWalletFactory;
+import info.blockchain.wallet.bip44.HDWalletFactory.Language;
 import info.blockchain.wallet.exceptions.HDWalletException;
 import info.blockchain.wallet.payment.Payment;
 import info.blockchain.wallet.payment.SpendableUnspentOutputs;
@@ -12,12 +17,19 @@ import org.bitcoinj.core.NetworkParameters;
 import org.bitcoinj.params.BitcoinMainNetParams;
 import org.json.JSONObject;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import retrofit2.Call;
+import retrofit2.Response;
 
 import java.math.BigInteger;
 import java.net.URI;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -26,6 +38,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyListOf;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class HDWalletTest extends MockedResponseTest {
 
@@ -480,4 +496,45 @@ public class HDWalletTest extends MockedResponseTest {
         assertEquals("xpub6DEe2bJAU7GbW4d8d8Cfckg8kbHinDUQYHvXk3AobXNDYwGhaKZ1wZxGCBq67RiYzT3UuQjS3Jy3SGM3b9wz7aHVipE3Bg1HXhLguCgoALJ", map.get(3));
         assertEquals("xpub6DEe2bJAU7GbYjCHygUwVDJYv5fjCUyQ1AHvkM1ecRL2PZ7vYv9a5iRiHjxmRgi3auyaA9NSAw88VwHm4hvw4C8zLbuFjNBcw2Cx7Ymq5zk", map.get(4));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getDeterminedSize() throws Exception {
+        final info.blockchain.wallet.bip44.HDWallet bip44Wallet = HDWalletFactory
+                .restoreWallet(networkParameters, Language.US,
+                        "all all all all all all all all all all all all", "", 1);
+        final List<String> usedXpubs = new ArrayList<>();
+        final List<Integer> requestSizes = new ArrayList<>();
+
+        BlockExplorer blockExplorer = mock(BlockExplorer.class);
+        when(blockExplorer.getBalance(anyListOf(String.class), eq(FilterType.RemoveUnspendable)))
+                .thenAnswer(new Answer<Call<HashMap<String, Balance>>>() {
+                    @Override
+                    public Call<HashMap<String, Balance>> answer(InvocationOnMock invocation) throws Throwable {
+                        List<String> xpubs = invocation.getArgument(0);
+                        requestSizes.add(xpubs.size());
+                        HashMap<String, Balance> body = new HashMap<>();
+                        for (String xpub : xpubs) {
+                            Balance balance = new Balance();
+                            balance.setTxCount(usedXpubs.contains(xpub) ? 1 : 0);
+                            body.put(xpub, balance);
+                        }
+                        Call<HashMap<String, Balance>> call = mock(Call.class);
+                        when(call.execute()).thenReturn(Response.success(body));
+                        return call;
+                    }
+                });
+
+        //Account 3 used, 1 and 2 are not - the gap between them must not truncate the wallet
+        String account3 = HDWalletFactory.restoreWallet(networkParameters, Language.US,
+                "all all all all all all all all all all all all", "", 4)
+                .getAccount(3).getXpub();
+        usedXpubs.add(account3);
+
+        int size = HDWallet.getDeterminedSize(blockExplorer, bip44Wallet);
+
+        assertEquals(4, size);
+        assertEquals(account3, bip44Wallet.getAccount(3).getXpub());
+        //1..5 leaves a gap of 2, 6..15 completes it
+        assertEquals(Arrays.asList(5, 10), requestSizes);
+    }
+}
@@ -1,6 +1,8 @@
 package info.blockchain.wallet.payload.data;
 
 import info.blockchain.wallet.MockedResponseTest;
+import info.blockchain.wallet.crypto.AESUtil;
+import info.blockchain.wallet.exceptions.DecryptionException;
 import org.apache.commons.lang3.tuple.Pair;
 import org.bitcoinj.core.NetworkParameters;
 import org.bitcoinj.params.BitcoinMainNetParams;
@@ -210,6 +212,47 @@ public class WalletBaseTest extends MockedResponseTest {
         Assert.assertEquals("a09910d9-1906-4ea1-a956-2508c3fe0661", walletBody.getGuid());
     }
 
+    @Test(expected = DecryptionException.class)
+    public void decryptPayload_wrong_password() throws Exception {
+        URI uri = getClass().getClassLoader().getResource("wallet_v3_1.txt").toURI();
+        String walletBase = new String(Files.readAllBytes(Paths.get(uri)), Charset.forName("utf-8"));
+
+        WalletBase.fromJson(walletBase).decryptPayload(networkParameters, "NotMyTestWallet");
+    }
+
+    @Test(expected = DecryptionException.class)
+    public void decryptPayload_not_json() throws Exception {
+        WalletWrapper walletWrapper = WalletWrapper.wrap(AESUtil.encrypt("not a wallet", "password", 5000), 5000);
+
+        walletWrapper.decryptPayload(networkParameters, "password");
+    }
+
+    @Test(expected = DecryptionException.class)
+    public void decryptPayload_json_number() throws Exception {
+        WalletWrapper walletWrapper = WalletWrapper.wrap(AESUtil.encrypt("1 ", "password", 5000), 5000);
+
+        walletWrapper.decryptPayload(networkParameters, "password");
+    }
+
+    @Test(expected = DecryptionException.class)
+    public void decryptPayload_json_array() throws Exception {
+        WalletWrapper walletWrapper = WalletWrapper.wrap(AESUtil.encrypt("[]", "password", 5000), 5000);
+
+        walletWrapper.decryptPayload(networkParameters, "password");
+    }
+
+    @Test
+    public void fromJson_bytes_matches_string() throws Exception {
+        Wallet wallet = new Wallet("Account");
+        wallet.getTxNotes().put("tx", "Caf\u00e9 \u2615");
+        String json = wallet.toJson();
+
+        Wallet fromBytes = Wallet.fromJson(networkParameters, json.getBytes("UTF-8"));
+
+        Assert.assertEquals(json, fromBytes.toJson());
+        Assert.assertEquals("Caf\u00e9 \u2615", fromBytes.getTxNotes().get("tx"));
+    }
+
     @Test
     public void testToJSON() throws Exception {
 
@@ -0,0 +1,139 @@
+package info.blockchain.wallet.payment
+
+import info.blockchain.api.data.UnspentOutput
+import org.amshove.kluent.`should be`
+import org.amshove.kluent.`should equal`
+import org.junit.Test
+import java.math.BigInteger
+import java.util.Random
+
+class BranchAndBoundCoinSelectionTest {
+
+    private val subject = BranchAndBoundCoinSelection(GreedyCoinSelection())
+
+    @Test
+    fun `finds changeless selection where greedy needs change`() {
+        val coins = selectableCoins(100000, 60000, 50000)
+
+        GreedyCoinSelection().select(coins, 110000, 0).apply {
+            indexes.toList() `should equal` listOf(0, 1)
+            outputCount `should equal` 2
+        }
+
+        subject.select(coins, 110000, 0).apply {
+            indexes.toList() `should equal` listOf(1, 2)
+            outputCount `should equal` 1
+            consumedAmount `should equal` 0L
+        }
+    }
+
+    @Test
+    fun `changeless selection covers fee`() {
+        val feePerKb = 1000L
+        val coins = selectableCoins(80000, 30000, 20000)
+        val payment = 50000L - Fees.estimatedFee(2, 1, feePerKb)
+
+        subject.select(coins, payment, feePerKb).apply {
+            indexes.toList() `should equal` listOf(1, 2)
+            outputCount `should equal` 1
+        }
+    }
+
+    @Test
+    fun `falls back to greedy when there is no changeless selection`() {
+        val coins = selectableCoins(100000, 60000)
+
+        subject.select(coins, 30000, 0).apply {
+            indexes.toList() `should equal` listOf(0)
+            outputCount `should equal` 2
+        }
+    }
+
+    @Test
+    fun `falls back to greedy when coins are force included`() {
+        val coins = SelectableCoins.from(
+            listOf(
+                unspentOutput(546).apply { isForceInclude = true },
+                unspentOutput(60000),
+                unspentOutput(50000)
+            ),
+            0
+        )
+
+        subject.select(coins, 110000, 0).apply {
+            indexes.toList() `should equal` listOf(0, 1, 2)
+            consumedAmount `should equal` -546L
+        }
+    }
+
+    @Test
+    fun `nothing to pay with no coins falls back`() {
+        subject.select(selectableCoins(), 0, 0).indexes.toList() `should equal` emptyList()
+    }
+
+    @Test
+    fun `nothing to pay with equal coins falls back`() {
+        val coins = selectableCoins(1000, 1000)
+
+        subject.select(coins, 0, 0).indexes.toList() `should equal`
+            GreedyCoinSelection().select(coins, 0, 0).indexes.toList()
+    }
+
+    @Test
+    fun `coins not worth spending are filtered`() {
+        val coins = SelectableCoins.from(listOf(unspentOutput(100000), unspentOutput(100)), 1000)
+
+        coins.size() `should equal` 1
+        coins.getValue(0) `should equal` 100000L
+    }
+
+    @Test
+    fun `search is bounded on large coin sets`() {
+        val random = Random(1234)
+        val values = (0 until 50000).map { 1000L + random.nextInt(100000) }
+            .sortedDescending()
+        val coins = selectableCoins(*values.toLongArray())
+        val payment = 10000000L
+
+        val start = System.currentTimeMillis()
+        val selection = subject.select(coins, payment, 10000)
+        val elapsed = System.currentTimeMillis() - start
+
+        val collected = selection.indexes.map { coins.getValue(it) }.sum()
+        (collected >= payment) `should be` true
+        (elapsed < MAX_SEARCH_MILLIS) `should be` true
+    }
+
+    @Test
+    fun `search gives up on large coin sets without a changeless selection`() {
+        val random = Random(1234)
+        // Only whole multiples of 10000 can be collected, so no selection is within dust of the payment
+        val values = (0 until 50000).map { 10000L * (1 + random.nextInt(100)) }
+            .sortedDescending()
+        val coins = selectableCoins(*values.toLongArray())
+        val payment = 10001000L
+
+        val start = System.currentTimeMillis()
+        val selection = subject.select(coins, payment, 0)
+        val elapsed = System.currentTimeMillis() - start
+
+        selection.outputCount `should equal` 2
+        (elapsed < MAX_SEARCH_MILLIS) `should be` true
+    }
+
+    private fun selectableCoins(vararg values: Long) =
+        SelectableCoins.from(values.map { unspentOutput(it) }, 0)
+
+    private fun unspentOutput(value: Long) =
+        UnspentOutput().apply {
+            this.value = BigInteger.valueOf(value)
+            script = "76a91469dec09e9b32ffd447c80d413d58f0413e99208e88ac"
+            txHash = "0000000000000000000000000000000000000000000000000000000000000000"
+        }
+
+    companion object {
+
+        // MAX_TRIES steps take a few milliseconds, this only catches an unbounded search
+        private const val MAX_SEARCH_MILLIS = 2000L
+    }
+}
@@ -0,0 +1,48 @@
+package info.blockchain.wallet.payment;
+
+import org.bitcoinj.core.ProtocolException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+public class SatoshisTest {
+
+    @Test
+    public void valueOf() {
+        Assert.assertEquals(Satoshis.MAX_MONEY, Satoshis.valueOf(BigInteger.valueOf(Satoshis.MAX_MONEY)));
+        Assert.assertEquals(-546L, Satoshis.valueOf(BigInteger.valueOf(-546L)));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void valueOf_outOfRange() {
+        Satoshis.valueOf(BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE));
+    }
+
+    @Test
+    public void add() {
+        Assert.assertEquals(3000L, Satoshis.add(1000L, 2000L));
+        Assert.assertEquals(-1000L, Satoshis.add(1000L, -2000L));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void add_overflow() {
+        Satoshis.add(Long.MAX_VALUE, 1L);
+    }
+
+    @Test
+    public void subtract() {
+        Assert.assertEquals(-1000L, Satoshis.subtract(1000L, 2000L));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void subtract_overflow() {
+        Satoshis.subtract(Long.MIN_VALUE, 1L);
+    }
+
+    @Test(expected = ProtocolException.class)
+    public void checkMaxMoney() {
+        Satoshis.checkMaxMoney(Satoshis.MAX_MONEY);
+        Satoshis.checkMaxMoney(Satoshis.MAX_MONEY + 1);
+    }
+}
@@ -0,0 +1,198 @@
+package info.blockchain.wallet.payment
+
+import info.blockchain.api.data.UnspentOutput
+import info.blockchain.api.data.UnspentOutputs
+import info.blockchain.wallet.exceptions.ApiException
+import okhttp3.MediaType
+import okhttp3.ResponseBody
+import org.amshove.kluent.`should be`
+import org.amshove.kluent.`should contain`
+import org.amshove.kluent.`should equal`
+import org.junit.After
+import org.junit.Test
+import retrofit2.Response
+import java.math.BigInteger
+import java.util.Collections
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class UnspentOutputsCacheTest {
+
+    private val executor = Executors.newFixedThreadPool(4)
+    private val requests = Collections.synchronizedList(mutableListOf<List<String>>())
+
+    @After
+    fun tearDown() {
+        executor.shutdownNow()
+    }
+
+    private val fetcher = UnspentOutputsCache.Fetcher { _, addresses ->
+        requests.add(addresses)
+        unspentOutputs(addresses)
+    }
+
+    @Test
+    fun `repeated requests are served from memory`() {
+        val subject = UnspentOutputsCache(fetcher, executor, 60000)
+
+        subject.get("btc", listOf("a", "b"))
+        subject.get("btc", listOf("b", "a"))
+
+        requests.size `should equal` 1
+    }
+
+    @Test
+    fun `returned outputs are copies`() {
+        val subject = UnspentOutputsCache(fetcher, executor, 60000)
+
+        subject.get("btc", listOf("a")).unspentOutputs.clear()
+
+        subject.get("btc", listOf("a")).unspentOutputs.size `should equal` 1
+    }
+
+    @Test
+    fun `coin selection flags do not leak into the next selection`() {
+        val subject = UnspentOutputsCache(UnspentOutputsCache.Fetcher { _, _ ->
+            UnspentOutputs().apply {
+                unspentOutputs = arrayListOf(
+                    UnspentOutput().apply {
+                        value = 1000000.toBigInteger()
+                        txHash = "replayable"
+                        script = "76a91469dec09e9b32ffd447c80d413d58f0413e99208e88ac"
+                        isReplayable = true
+                    },
+                    UnspentOutput().apply {
+                        value = 10000.toBigInteger()
+                        txHash = "non-replayable"
+                        script = "76a91469dec09e9b32ffd447c80d413d58f0413e99208e88ac"
+                        isReplayable = false
+                    }
+                )
+            }
+        }, executor, 60000)
+
+        Coins.getMinimumCoinsForPayment(
+            subject.get("bch", listOf("a")),
+            500000.toBigInteger(),
+            1000.toBigInteger(),
+            true
+        ).spendableOutputs.map { it.txHash } `should contain` "non-replayable"
+
+        val unspentOutputs = subject.get("bch", listOf("a"))
+        unspentOutputs.unspentOutputs.none { it.isForceInclude } `should be` true
+        Coins.getMinimumCoinsForPayment(
+            unspentOutputs,
+            500000.toBigInteger(),
+            1000.toBigInteger(),
+            false
+        ).spendableOutputs.map { it.txHash } `should equal` listOf("replayable")
+    }
+
+    @Test
+    fun `coins are cached separately`() {
+        val subject = UnspentOutputsCache(fetcher, executor, 60000)
+
+        subject.get("btc", listOf("a"))
+        subject.get("bch", listOf("a"))
+
+        requests.size `should equal` 2
+    }
+
+    @Test
+    fun `invalidate drops entries for that coin only`() {
+        val subject = UnspentOutputsCache(fetcher, executor, 60000)
+        subject.get("btc", listOf("a"))
+        subject.get("bch", listOf("a"))
+
+        subject.invalidate("btc")
+        subject.get("btc", listOf("a"))
+        subject.get("bch", listOf("a"))
+
+        requests.size `should equal` 3
+    }
+
+    @Test
+    fun `expired entries are fetched again`() {
+        val subject = UnspentOutputsCache(fetcher, executor, -1)
+
+        subject.get("btc", listOf("a"))
+        subject.get("btc", listOf("a"))
+
+        requests.size `should equal` 2
+    }
+
+    @Test
+    fun `failures are not cached`() {
+        val attempts = AtomicInteger()
+        val subject = UnspentOutputsCache(UnspentOutputsCache.Fetcher { _, addresses ->
+            if (attempts.getAndIncrement() == 0) throw ApiException("503")
+            unspentOutputs(addresses)
+        }, executor, 60000)
+
+        try {
+            subject.get("btc", listOf("a"))
+        } catch (e: ApiException) {
+            e.message `should equal` "503"
+        }
+        subject.get("btc", listOf("a")).unspentOutputs.size `should equal` 1
+
+        attempts.get() `should equal` 2
+    }
+
+    @Test
+    fun `concurrent requests share a single fetch`() {
+        val release = CountDownLatch(1)
+        val subject = UnspentOutputsCache(UnspentOutputsCache.Fetcher { _, addresses ->
+            requests.add(addresses)
+            release.await(5, TimeUnit.SECONDS)
+            unspentOutputs(addresses)
+        }, executor, 60000)
+
+        val callers = (1..4).map { executor.submit<UnspentOutputs> { subject.get("btc", listOf("a")) } }
+        Thread.sleep(100)
+        release.countDown()
+
+        callers.forEach { it.get().unspentOutputs.size `should equal` 1 }
+        requests.size `should equal` 1
+    }
+
+    @Test
+    fun `large address sets are fetched in chunks and merged`() {
+        val subject = UnspentOutputsCache(fetcher, executor, 60000)
+        val addresses = (0 until 120).map { "address$it" }
+
+        val outputs = subject.get("btc", addresses)
+
+        requests.size `should equal` 3
+        requests.all { it.size <= UnspentOutputsCache.MAX_ADDRESSES_PER_REQUEST } `should be` true
+        outputs.unspentOutputs.map { it.txHash }.toSet() `should equal` addresses.toSet()
+    }
+
+    @Test
+    fun `500 response means no unspent outputs`() {
+        val response = Response.error<UnspentOutputs>(500,
+            ResponseBody.create(MediaType.parse("application/json"), "{}"))
+
+        Coins.fromResponse(response).unspentOutputs.isEmpty() `should be` true
+    }
+
+    @Test(expected = ApiException::class)
+    fun `other errors throw`() {
+        val response = Response.error<UnspentOutputs>(404,
+            ResponseBody.create(MediaType.parse("application/json"), "{}"))
+
+        Coins.fromResponse(response)
+    }
+
+    private fun unspentOutputs(addresses: List<String>) =
+        UnspentOutputs().apply {
+            unspentOutputs = ArrayList(addresses.map { address ->
+                UnspentOutput().apply {
+                    value = BigInteger.TEN
+                    txHash = address
+                }
+            })
+        }
+}
@@ -0,0 +1,58 @@
+package info.blockchain.wallet.util;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public final class ObjectMappersTest {
+
+    public static class Base {
+        @JsonProperty("a")
+        public String a;
+    }
+
+    public static class Derived extends Base {
+        @JsonProperty("b")
+        public String b;
+    }
+
+    public static class Fields {
+        private String value;
+
+        public String getValue() {
+            return "getter";
+        }
+
+        public void setValue(String value) {
+            this.value = "setter";
+        }
+    }
+
+    @Test
+    public void readValue() throws Exception {
+        Base base = ObjectMappers.readValue("{\"a\":\"1\"}", Base.class);
+
+        assertEquals("1", base.a);
+    }
+
+    @Test
+    public void writeValueAsString_writes_runtime_class() throws Exception {
+        Base base = new Base();
+        base.a = "1";
+        Derived derived = new Derived();
+        derived.a = "2";
+        derived.b = "3";
+
+        assertEquals("{\"a\":\"1\"}", ObjectMappers.writeValueAsString(base));
+        assertEquals("{\"a\":\"2\",\"b\":\"3\"}", ObjectMappers.writeValueAsString(derived));
+        assertEquals("{\"a\":\"1\"}", ObjectMappers.writeValueAsString(base));
+    }
+
+    @Test
+    public void readValueFromFields_ignores_setters() throws Exception {
+        assertEquals("setter", ObjectMappers.readValue("{\"value\":\"json\"}", Fields.class).value);
+        assertEquals("json", ObjectMappers.readValueFromFields("{\"value\":\"json\"}", Fields.class).value);
+    }
+}